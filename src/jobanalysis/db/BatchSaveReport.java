@@ -0,0 +1,111 @@
+package jobanalysis.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of JobRepository.saveJobOffers: how many jobs of each batch were new, changed or already
+ * stored unchanged, and which documents were rejected. A rejected document does not stop the rest
+ * of its batch, and a failed batch does not stop the following ones.
+ */
+public class BatchSaveReport {
+
+    public static class Failure {
+        private final int index;
+        private final String title;
+        private final int code;
+        private final String message;
+
+        Failure(int index, String title, int code, String message) {
+            this.index = index;
+            this.title = title;
+            this.code = code;
+            this.message = message;
+        }
+
+        // Position in the batch, -1 when the whole batch failed
+        public int getIndex() { return index; }
+        public String getTitle() { return title; }
+        public int getCode() { return code; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return (index >= 0 ? "#" + index + " " + title + ": " : "") + message + (code != 0 ? " (" + code + ")" : "");
+        }
+    }
+
+    public static class BatchResult {
+        private final int batch;
+        private final int size;
+        private final int inserted;
+        private final int updated;
+        private final int unchanged;
+        private final List<Failure> failures;
+        private final long elapsedMillis;
+
+        BatchResult(int batch, int size, int inserted, int updated, int unchanged, List<Failure> failures,
+                    long elapsedMillis) {
+            this.batch = batch;
+            this.size = size;
+            this.inserted = inserted;
+            this.updated = updated;
+            this.unchanged = unchanged;
+            this.failures = Collections.unmodifiableList(failures);
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getBatch() { return batch; }
+        public int getSize() { return size; }
+        public int getInserted() { return inserted; }
+        public int getUpdated() { return updated; }
+        // Already stored with the same content; only lastSeen was written
+        public int getUnchanged() { return unchanged; }
+        public int getSaved() { return inserted + updated + unchanged; }
+        public int getFailed() { return size - getSaved(); }
+        public List<Failure> getFailures() { return failures; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    private final List<BatchResult> batches = new ArrayList<>();
+    private long elapsedMillis;
+
+    void add(BatchResult batch) {
+        batches.add(batch);
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<BatchResult> getBatches() { return Collections.unmodifiableList(batches); }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public int getSaved() {
+        return batches.stream().mapToInt(BatchResult::getSaved).sum();
+    }
+
+    public int getInserted() {
+        return batches.stream().mapToInt(BatchResult::getInserted).sum();
+    }
+
+    public int getUpdated() {
+        return batches.stream().mapToInt(BatchResult::getUpdated).sum();
+    }
+
+    public int getUnchanged() {
+        return batches.stream().mapToInt(BatchResult::getUnchanged).sum();
+    }
+
+    public int getFailed() {
+        return batches.stream().mapToInt(BatchResult::getFailed).sum();
+    }
+
+    public String summary() {
+        double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+        return String.format("Saved %d job offers in %d batches (%d new, %d changed, %d unchanged), %d failed, %.0f docs/s",
+                getSaved(), batches.size(), getInserted(), getUpdated(), getUnchanged(), getFailed(),
+                (getSaved() + getFailed()) / seconds);
+    }
+}
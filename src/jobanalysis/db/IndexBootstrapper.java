@@ -0,0 +1,158 @@
+package jobanalysis.db;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Declares the indexes the DAOs rely on and creates the missing ones at startup. An index already
+ * present, under its name or with the same keys, is left alone, so running it again does nothing.
+ * A build that fails (for example a unique index over existing duplicates) is reported and the
+ * others still run. Stored documents are not rewritten here; that is SchemaMigrations' job.
+ * The unique jobKey index is partial, so legacy documents without a key do not block it.
+ *
+ * While an index builds, its progress is read from currentOp on the admin database every few
+ * seconds, when the connected user may run it.
+ */
+public class IndexBootstrapper {
+    private static final long PROGRESS_INTERVAL_SECONDS = 2;
+
+    public static class IndexSpec {
+        private final String collection;
+        private final Bson keys;
+        private final IndexOptions options;
+
+        IndexSpec(String collection, Bson keys, IndexOptions options) {
+            this.collection = collection;
+            this.keys = keys;
+            this.options = options;
+        }
+
+        public String getCollection() { return collection; }
+        public String getName() { return options.getName(); }
+        public Bson getKeys() { return keys; }
+        public IndexOptions getOptions() { return options; }
+    }
+
+    // category is only present on documents a classifier labeled, hence sparse
+    public static final List<IndexSpec> REQUIRED = List.of(
+            new IndexSpec("users", Indexes.ascending("username"),
+                    new IndexOptions().name("username_unique").unique(true)),
+            new IndexSpec("jobOffers", Indexes.ascending("jobKey"),
+                    new IndexOptions().name(JobRepository.KEY_INDEX).unique(true)
+                            .partialFilterExpression(Filters.exists("jobKey"))),
+            new IndexSpec("jobOffers", Indexes.ascending("sourceUrl"), new IndexOptions().name("sourceUrl_1")),
+            new IndexSpec("jobOffers", Indexes.ascending("company"), new IndexOptions().name("company_1")),
+            new IndexSpec("jobOffers", Indexes.ascending("location"), new IndexOptions().name("location_1")),
+            new IndexSpec("jobOffers", Indexes.descending("scrapedDate"), new IndexOptions().name("scrapedDate_-1")),
+            new IndexSpec("jobOffers", Indexes.ascending("category"), new IndexOptions().name("category_1").sparse(true))
+    );
+
+    private final MongoDatabase database;
+    private final MongoDatabase adminDatabase;
+
+    // adminDatabase may be null, builds are then only logged when they start and finish
+    public IndexBootstrapper(MongoDatabase database, MongoDatabase adminDatabase) {
+        this.database = database;
+        this.adminDatabase = adminDatabase;
+    }
+
+    // Returns the number of indexes created
+    public int run() {
+        long start = System.nanoTime();
+        int created = 0;
+        for (IndexSpec spec : REQUIRED) {
+            if (ensure(spec)) {
+                created++;
+            }
+        }
+        System.out.println("Index check done in " + (System.nanoTime() - start) / 1_000_000 + " ms, "
+                + created + " indexes created");
+        return created;
+    }
+
+    boolean ensure(IndexSpec spec) {
+        MongoCollection<Document> collection = database.getCollection(spec.getCollection());
+        try {
+            if (isPresent(collection, spec)) {
+                return false;
+            }
+
+            System.out.println("Building index " + spec.getName() + " on " + spec.getCollection() + "...");
+            long start = System.nanoTime();
+            ScheduledExecutorService progress = watchProgress(spec);
+            try {
+                collection.createIndex(spec.getKeys(), spec.getOptions());
+            } finally {
+                if (progress != null) {
+                    progress.shutdownNow();
+                }
+            }
+            System.out.println("Built index " + spec.getName() + " on " + spec.getCollection() + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return true;
+        } catch (MongoException e) {
+            System.err.println("Could not build index " + spec.getName() + " on " + spec.getCollection()
+                    + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isPresent(MongoCollection<Document> collection, IndexSpec spec) {
+        BsonDocument keys = spec.getKeys().toBsonDocument();
+        for (Document index : collection.listIndexes().into(new ArrayList<>())) {
+            Document indexKeys = index.get("key", Document.class);
+            if (spec.getName().equals(index.getString("name"))
+                    || (indexKeys != null && indexKeys.toBsonDocument().equals(keys))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ScheduledExecutorService watchProgress(IndexSpec spec) {
+        if (adminDatabase == null) {
+            return null;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "index-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> logProgress(spec, scheduler),
+                PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        return scheduler;
+    }
+
+    private void logProgress(IndexSpec spec, ScheduledExecutorService scheduler) {
+        try {
+            Document ops = adminDatabase.runCommand(new Document("currentOp", true)
+                    .append("command.createIndexes", spec.getCollection()));
+            for (Document op : ops.getList("inprog", Document.class, List.of())) {
+                Document progress = op.get("progress", Document.class);
+                if (progress != null && progress.get("total") instanceof Number total
+                        && progress.get("done") instanceof Number done && total.longValue() > 0) {
+                    System.out.printf("  %s on %s: %d of %d (%d%%)%n", spec.getName(), spec.getCollection(),
+                            done.longValue(), total.longValue(), done.longValue() * 100 / total.longValue());
+                } else if (op.getString("msg") != null) {
+                    System.out.println("  " + spec.getName() + " on " + spec.getCollection() + ": " + op.getString("msg"));
+                }
+            }
+        } catch (MongoException e) {
+            // Not authorized to read currentOp, the build is still logged when it finishes
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package jobanalysis.db;
+
+import jobanalysis.models.JobOffer;
+
+import java.util.List;
+
+/**
+ * One page of JobRepository.findPage, with the query for the page after it.
+ */
+public class JobPage {
+    private final List<JobOffer> jobs;
+    private final JobQuery next;
+
+    JobPage(List<JobOffer> jobs, JobQuery next) {
+        this.jobs = jobs;
+        this.next = next;
+    }
+
+    public List<JobOffer> getJobs() { return jobs; }
+
+    // null on the last page
+    public JobQuery getNext() { return next; }
+
+    public boolean hasNext() { return next != null; }
+}
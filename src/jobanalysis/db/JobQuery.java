@@ -0,0 +1,313 @@
+package jobanalysis.db;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Filters, sort, paging and projection for JobRepository.find, all applied by MongoDB. Field
+ * names are the JobOffer ones ("url" is stored as sourceUrl); stored-only fields such as
+ * scrapedDate, firstSeen and lastSeen can be sorted on too.
+ *
+ * Keyset pagination (after) continues from the last job of a page by its sort value and _id, so
+ * deep pages cost the same as the first one, unlike skip.
+ */
+public class JobQuery {
+    public static final int DEFAULT_BATCH_SIZE = 200;
+
+    // JobOffer fields and where they are stored
+    static final Map<String, String> FIELDS = Map.ofEntries(
+            Map.entry("title", "title"),
+            Map.entry("company", "company"),
+            Map.entry("description", "description"),
+            Map.entry("location", "location"),
+            Map.entry("requiredSkills", "requiredSkills"),
+            Map.entry("salary", "salary"),
+            Map.entry("url", "sourceUrl"),
+            Map.entry("employmentType", "employmentType"),
+            Map.entry("experienceLevel", "experienceLevel"),
+            Map.entry("workplaceType", "workplaceType"),
+            Map.entry("postedDate", "postedDate"),
+            Map.entry("applicationDeadline", "applicationDeadline"),
+            Map.entry("benefits", "benefits"),
+            Map.entry("companyDescription", "companyDescription")
+    );
+
+    // MongoDB's sort order of value types; types in one group compare by value. Arrays are left out,
+    // they sort by their smallest element
+    private static final List<List<String>> TYPE_ORDER = List.of(
+            List.of("null"),
+            List.of("double", "int", "long", "decimal"),
+            List.of("string", "symbol"),
+            List.of("object"),
+            List.of("binData"),
+            List.of("objectId"),
+            List.of("bool"),
+            List.of("date"),
+            List.of("timestamp"),
+            List.of("regex"));
+
+    private final List<Bson> filters;
+    private final String sortField;
+    private final boolean ascending;
+    private final int limit;
+    private final int skip;
+    private final int batchSize;
+    private final Set<String> fields;
+    private final Object afterValue;
+    private final ObjectId afterId;
+
+    private JobQuery(Builder builder) {
+        this.filters = List.copyOf(builder.filters);
+        this.sortField = builder.sortField;
+        this.ascending = builder.ascending;
+        this.limit = builder.limit;
+        this.skip = builder.skip;
+        this.batchSize = builder.batchSize;
+        this.fields = Collections.unmodifiableSet(new LinkedHashSet<>(builder.fields));
+        this.afterValue = builder.afterValue;
+        this.afterId = builder.afterId;
+    }
+
+    public static JobQuery all() {
+        return new Builder().build();
+    }
+
+    public Bson getFilter() {
+        List<Bson> all = new ArrayList<>(filters);
+        if (afterId != null) {
+            all.add(keysetFilter());
+        }
+        return all.isEmpty() ? new Document() : all.size() == 1 ? all.get(0) : Filters.and(all);
+    }
+
+    // _id breaks ties, so pages never overlap or skip jobs sharing a sort value
+    public Bson getSort() {
+        if (sortField == null) {
+            return ascending ? Sorts.ascending("_id") : Sorts.descending("_id");
+        }
+        return ascending ? Sorts.ascending(sortField, "_id") : Sorts.descending(sortField, "_id");
+    }
+
+    // null when every field is wanted; the sort field and _id are always read for keyset paging
+    public Bson getProjection() {
+        if (fields.isEmpty()) {
+            return null;
+        }
+        List<String> included = new ArrayList<>();
+        for (String field : fields) {
+            included.add(documentField(field));
+        }
+        if (sortField != null && !included.contains(sortField)) {
+            included.add(sortField);
+        }
+        return Projections.include(included);
+    }
+
+    public String getSortField() { return sortField != null ? sortField : "_id"; }
+    public int getLimit() { return limit; }
+    public int getSkip() { return skip; }
+    public int getBatchSize() { return batchSize; }
+    public Set<String> getFields() { return fields; }
+
+    // Same query, continuing after the given job's sort value and _id
+    public JobQuery after(Object lastSortValue, ObjectId lastId) {
+        return toBuilder().after(lastSortValue, lastId).build();
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.filters.addAll(filters);
+        builder.sortField = sortField;
+        builder.ascending = ascending;
+        builder.limit = limit;
+        builder.skip = skip;
+        builder.batchSize = batchSize;
+        builder.fields.addAll(fields);
+        builder.afterValue = afterValue;
+        builder.afterId = afterId;
+        return builder;
+    }
+
+    // Names of the filtered fields, to tell queries apart in QueryPlanSampler
+    String describe() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Bson filter : filters) {
+            names.addAll(filter.toBsonDocument().keySet());
+        }
+        return "find(" + String.join(",", names) + ")" + (sortField != null ? " sort " + sortField : "");
+    }
+
+    // $gt and $lt only compare values of the same type, so jobs whose sort value has another type
+    // (or is null/missing) are matched by where that type falls in MongoDB's sort order
+    private Bson keysetFilter() {
+        if (sortField == null) {
+            return ascending ? Filters.gt("_id", afterId) : Filters.lt("_id", afterId);
+        }
+        List<Bson> next = new ArrayList<>();
+        if (afterValue != null) {
+            next.add(ascending ? Filters.gt(sortField, afterValue) : Filters.lt(sortField, afterValue));
+        }
+        int group = typeGroup(afterValue);
+        if (afterValue == null && ascending) {
+            next.add(Filters.ne(sortField, null));
+        } else if (group >= 0) {
+            List<String> types = new ArrayList<>();
+            for (int i = ascending ? group + 1 : 1; i < (ascending ? TYPE_ORDER.size() : group); i++) {
+                types.addAll(TYPE_ORDER.get(i));
+            }
+            if (!types.isEmpty()) {
+                next.add(new Document(sortField, new Document("$type", types)));
+            }
+            if (!ascending && group > 0) {
+                // Null and missing values sort first, so they come last on a descending sort
+                next.add(Filters.eq(sortField, null));
+            }
+        }
+        next.add(Filters.and(Filters.eq(sortField, afterValue),
+                ascending ? Filters.gt("_id", afterId) : Filters.lt("_id", afterId)));
+        return Filters.or(next);
+    }
+
+    // Index into TYPE_ORDER of the value's type, -1 for types not listed there
+    private static int typeGroup(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number) {
+            return 1;
+        }
+        if (value instanceof String) {
+            return 2;
+        }
+        if (value instanceof Map<?, ?>) {
+            return 3;
+        }
+        if (value instanceof ObjectId) {
+            return 5;
+        }
+        if (value instanceof Boolean) {
+            return 6;
+        }
+        if (value instanceof Date) {
+            return 7;
+        }
+        return -1;
+    }
+
+    static String documentField(String field) {
+        return FIELDS.getOrDefault(field, field);
+    }
+
+    public static class Builder {
+        private final List<Bson> filters = new ArrayList<>();
+        private String sortField;
+        private boolean ascending = true;
+        private int limit;
+        private int skip;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private final Set<String> fields = new LinkedHashSet<>();
+        private Object afterValue;
+        private ObjectId afterId;
+
+        // Exact matches use the indexes IndexBootstrapper creates
+        public Builder company(String company) {
+            filters.add(Filters.eq("company", company));
+            return this;
+        }
+
+        public Builder location(String location) {
+            filters.add(Filters.eq("location", location));
+            return this;
+        }
+
+        // Case-insensitive substring match, e.g. "casablanca" for "Casablanca, Morocco"; cannot use an index
+        public Builder locationContains(String text) {
+            filters.add(Filters.regex("location", Pattern.quote(text), "i"));
+            return this;
+        }
+
+        public Builder category(String category) {
+            filters.add(Filters.eq("category", category));
+            return this;
+        }
+
+        public Builder employmentType(String employmentType) {
+            filters.add(Filters.eq("employmentType", employmentType));
+            return this;
+        }
+
+        // Either bound may be null; from is inclusive, to exclusive
+        public Builder scrapedBetween(Date from, Date to) {
+            if (from != null) {
+                filters.add(Filters.gte("scrapedDate", from));
+            }
+            if (to != null) {
+                filters.add(Filters.lt("scrapedDate", to));
+            }
+            return this;
+        }
+
+        // Any other condition, in stored field names
+        public Builder where(Bson filter) {
+            filters.add(filter);
+            return this;
+        }
+
+        public Builder sortBy(String field, boolean ascending) {
+            this.sortField = documentField(field);
+            this.ascending = ascending;
+            return this;
+        }
+
+        // 0 means no limit
+        public Builder limit(int limit) {
+            this.limit = Math.max(0, limit);
+            return this;
+        }
+
+        public Builder skip(int skip) {
+            this.skip = Math.max(0, skip);
+            return this;
+        }
+
+        // Documents fetched per round trip while the stream is iterated
+        public Builder batchSize(int batchSize) {
+            this.batchSize = Math.max(1, batchSize);
+            return this;
+        }
+
+        // Only these JobOffer fields are read; the others come back empty
+        public Builder fields(String... fields) {
+            for (String field : fields) {
+                if (!FIELDS.containsKey(field)) {
+                    throw new IllegalArgumentException("Unknown job field: " + field);
+                }
+                this.fields.add(field);
+            }
+            return this;
+        }
+
+        public Builder after(Object lastSortValue, ObjectId lastId) {
+            this.afterValue = lastSortValue;
+            this.afterId = lastId;
+            return this;
+        }
+
+        public JobQuery build() {
+            return new JobQuery(this);
+        }
+    }
+}
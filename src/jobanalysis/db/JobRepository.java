@@ -1,14 +1,50 @@
 package jobanalysis.db;
 
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import org.bson.Document;
 import jobanalysis.models.JobOffer;
+import jobanalysis.scraping.JobIdentity;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Job offers are stored once per jobKey (JobIdentity.storageKey: the canonical URL, or a title,
+ * company and location fingerprint for jobs without one), under a unique index. Saving a job that
+ * is already stored only rewrites it when its contentHash changed; otherwise just its lastSeen
+ * timestamp moves, so re-running a crawl causes almost no writes. The index is created by
+ * IndexBootstrapper.
+ */
 public class JobRepository {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    static final String KEY_INDEX = "jobKey_unique";
+
     private MongoCollection<Document> collection;
 
     public JobRepository() {
@@ -17,45 +53,354 @@ public class JobRepository {
                 .getCollection("jobOffers");
     }
 
+    JobRepository(MongoCollection<Document> collection) {
+        this.collection = collection;
+    }
+
+    // Keys documents that have no jobKey. Of several with the same key the newest is keyed and the
+    // others are only marked with duplicateOf, which keeps them out of the unique jobKey index;
+    // removeMarkedDuplicates deletes them once checked. IndexBootstrapper runs it before building
+    // that index.
+    public int backfillJobKeys() {
+        Set<String> keys = new HashSet<>();
+        for (Document doc : collection.find(Filters.exists("jobKey")).projection(Projections.include("jobKey"))) {
+            keys.add(doc.getString("jobKey"));
+        }
+
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        int keyed = 0;
+        int marked = 0;
+        for (Document doc : collection.find(Filters.and(Filters.exists("jobKey", false),
+                Filters.exists("duplicateOf", false))).sort(Sorts.descending("scrapedDate"))) {
+            JobOffer offer = toJobOffer(doc);
+            String key = JobIdentity.storageKey(offer);
+            if (!keys.add(key)) {
+                writes.add(new UpdateOneModel<>(Filters.eq("_id", doc.get("_id")),
+                        new Document("$set", new Document("duplicateOf", key))));
+                marked++;
+            } else {
+                Date seen = doc.getDate("scrapedDate") != null ? doc.getDate("scrapedDate") : new Date();
+                writes.add(new UpdateOneModel<>(Filters.eq("_id", doc.get("_id")), new Document("$set",
+                        new Document("jobKey", key)
+                                .append("contentHash", JobIdentity.contentHash(offer))
+                                .append("firstSeen", seen)
+                                .append("lastSeen", seen))));
+                keyed++;
+            }
+            if (writes.size() == DEFAULT_BATCH_SIZE) {
+                collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+                writes.clear();
+            }
+        }
+
+        if (!writes.isEmpty()) {
+            collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        }
+        if (keyed + marked > 0) {
+            System.out.println("Keyed " + keyed + " stored job offers, marked " + marked
+                    + " as duplicates (duplicateOf)");
+        }
+        return keyed;
+    }
+
+    // Maintenance: deletes the copies backfillJobKeys marked with duplicateOf. Never run automatically.
+    public long removeMarkedDuplicates() {
+        long removed = collection.deleteMany(Filters.exists("duplicateOf")).getDeletedCount();
+        System.out.println("Removed " + removed + " duplicate job offers");
+        return removed;
+    }
+
+    // Stores salaryAnnual on documents saved before it existed, so JobStatsRepository can bucket them
+    public int backfillSalaries() {
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        int updated = 0;
+        for (Document doc : collection.find(Filters.exists("salaryAnnual", false))
+                .projection(Projections.include("salary"))) {
+            Object salary = doc.get("salary");
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", doc.get("_id")), new Document("$set",
+                    new Document("salaryAnnual", JobStats.annualSalary(salary != null ? salary.toString() : null)))));
+            if (writes.size() == DEFAULT_BATCH_SIZE) {
+                collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+                updated += writes.size();
+                writes.clear();
+            }
+        }
+
+        if (!writes.isEmpty()) {
+            collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            updated += writes.size();
+        }
+        if (updated > 0) {
+            System.out.println("Stored annual salaries of " + updated + " job offers");
+        }
+        return updated;
+    }
+
     public void saveJobOffer(JobOffer offer) {
-        try {
-            Document doc = new Document()
-                    .append("title", offer.getTitle())
-                    .append("company", offer.getCompany())
-                    .append("description", offer.getDescription())
-                    .append("location", offer.getLocation())
-                    .append("requiredSkills", offer.getRequiredSkills())
-                    .append("salary", offer.getSalary())
-                    .append("sourceUrl", offer.getUrl())  // Ensure key matches retrieval
-                    .append("employmentType", offer.getEmploymentType())
-                    .append("experienceLevel", offer.getExperienceLevel())
-                    .append("workplaceType", offer.getWorkplaceType())
-                    .append("postedDate", offer.getPostedDate())
-                    .append("applicationDeadline", offer.getApplicationDeadline())
-                    .append("benefits", offer.getBenefits())
-                    .append("companyDescription", offer.getCompanyDescription())
-                    .append("scrapedDate", new Date());
-
-            collection.insertOne(doc);
+        BatchSaveReport report = saveJobOffers(List.of(offer), 1);
+        if (report.getFailed() == 0) {
             System.out.println("Successfully saved job offer: " + offer.getTitle());
-        } catch (Exception e) {
-            System.err.println("Error saving job offer: " + e.getMessage());
-            e.printStackTrace();
+        } else {
+            System.err.println("Error saving job offer: "
+                    + report.getBatches().get(0).getFailures().get(0).getMessage());
+        }
+    }
+
+    public BatchSaveReport saveJobOffers(Iterable<JobOffer> offers) {
+        return saveJobOffers(offers.iterator(), DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchSaveReport saveJobOffers(Iterable<JobOffer> offers, int batchSize) {
+        return saveJobOffers(offers.iterator(), batchSize);
+    }
+
+    // The stream is consumed one batch at a time, so a long crawl is never held in memory twice
+    public BatchSaveReport saveJobOffers(Stream<JobOffer> offers, int batchSize) {
+        return saveJobOffers(offers.iterator(), batchSize);
+    }
+
+    // One lookup and one unordered bulk write per batch instead of a round trip per job; a rejected
+    // document does not stop the rest of its batch
+    private BatchSaveReport saveJobOffers(Iterator<JobOffer> offers, int batchSize) {
+        int size = Math.max(1, batchSize);
+        long start = System.nanoTime();
+        BatchSaveReport report = new BatchSaveReport();
+        List<JobOffer> batch = new ArrayList<>(size);
+
+        while (offers.hasNext()) {
+            batch.add(offers.next());
+            if (batch.size() == size || !offers.hasNext()) {
+                report.add(writeBatch(report.getBatches().size() + 1, batch));
+                batch.clear();
+            }
         }
+
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        System.out.println(report.summary());
+        return report;
     }
 
+    private BatchSaveReport.BatchResult writeBatch(int batchNumber, List<JobOffer> batch) {
+        long start = System.nanoTime();
+        Date now = new Date();
+        List<BatchSaveReport.Failure> failures = new ArrayList<>();
+
+        // A job listed twice in the batch is saved once, from its last copy
+        Map<String, JobOffer> byKey = new LinkedHashMap<>();
+        for (JobOffer offer : batch) {
+            byKey.put(JobIdentity.storageKey(offer), offer);
+        }
+        int repeats = batch.size() - byKey.size();
+
+        Map<String, String> storedHashes = new HashMap<>();
+        try {
+            QueryPlanSampler.shared().sample("findStoredHashes", collection, Filters.in("jobKey", byKey.keySet()));
+            collection.find(Filters.in("jobKey", byKey.keySet()))
+                    .projection(Projections.include("jobKey", "contentHash"))
+                    .into(new ArrayList<>())
+                    .forEach(doc -> storedHashes.put(doc.getString("jobKey"), doc.getString("contentHash")));
+        } catch (MongoException e) {
+            failures.add(new BatchSaveReport.Failure(-1, "", e.getCode(), e.getMessage()));
+            return finishBatch(batchNumber, batch.size(), 0, 0, 0, failures, start);
+        }
+
+        // writeJobs.get(i) is the job behind writes.get(i); the lastSeen update of unchanged jobs has none
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        List<JobOffer> writeJobs = new ArrayList<>();
+        List<Boolean> isInsert = new ArrayList<>();
+        List<String> unchangedKeys = new ArrayList<>();
+        for (Map.Entry<String, JobOffer> entry : byKey.entrySet()) {
+            String contentHash = JobIdentity.contentHash(entry.getValue());
+            String storedHash = storedHashes.get(entry.getKey());
+            if (contentHash.equals(storedHash)) {
+                unchangedKeys.add(entry.getKey());
+                continue;
+            }
+
+            Document content = toDocument(entry.getValue()).append("jobKey", entry.getKey())
+                    .append("contentHash", contentHash);
+            Document update = storedHash == null && !storedHashes.containsKey(entry.getKey())
+                    // Upserted with $setOnInsert, so a copy saved meanwhile by another crawl is left alone
+                    ? new Document("$setOnInsert", content.append("firstSeen", now))
+                            .append("$set", new Document("lastSeen", now))
+                    : new Document("$set", content.append("lastSeen", now));
+            writes.add(new UpdateOneModel<>(Filters.eq("jobKey", entry.getKey()), update,
+                    new UpdateOptions().upsert(true)));
+            writeJobs.add(entry.getValue());
+            isInsert.add(update.containsKey("$setOnInsert"));
+        }
+        if (!unchangedKeys.isEmpty()) {
+            writes.add(new UpdateManyModel<>(Filters.in("jobKey", unchangedKeys),
+                    new Document("$set", new Document("lastSeen", now))));
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        if (!writes.isEmpty()) {
+            try {
+                collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    failed.add(error.getIndex());
+                    String title = error.getIndex() < writeJobs.size()
+                            ? writeJobs.get(error.getIndex()).getTitle()
+                            : "lastSeen of " + unchangedKeys.size() + " unchanged jobs";
+                    failures.add(new BatchSaveReport.Failure(error.getIndex(), title, error.getCode(), error.getMessage()));
+                }
+                if (e.getWriteConcernError() != null) {
+                    failures.add(new BatchSaveReport.Failure(-1, "", e.getWriteConcernError().getCode(),
+                            "Write concern: " + e.getWriteConcernError().getMessage()));
+                }
+            } catch (MongoException e) {
+                failures.add(new BatchSaveReport.Failure(-1, "", e.getCode(), e.getMessage()));
+                return finishBatch(batchNumber, batch.size(), 0, 0, 0, failures, start);
+            }
+        }
+
+        int inserted = 0;
+        int updated = 0;
+        for (int i = 0; i < writeJobs.size(); i++) {
+            if (!failed.contains(i)) {
+                if (isInsert.get(i)) {
+                    inserted++;
+                } else {
+                    updated++;
+                }
+            }
+        }
+        int unchanged = failed.contains(writeJobs.size()) ? 0 : unchangedKeys.size();
+        return finishBatch(batchNumber, batch.size(), inserted, updated, unchanged + repeats, failures, start);
+    }
+
+    private BatchSaveReport.BatchResult finishBatch(int batchNumber, int size, int inserted, int updated, int unchanged,
+                                                    List<BatchSaveReport.Failure> failures, long start) {
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Batch " + batchNumber + ": " + inserted + " new, " + updated + " changed, "
+                + unchanged + " unchanged of " + size + " job offers in " + elapsedMillis + " ms");
+        failures.forEach(failure -> System.err.println("Batch " + batchNumber + " failure: " + failure));
+        return new BatchSaveReport.BatchResult(batchNumber, size, inserted, updated, unchanged, failures, elapsedMillis);
+    }
+
+    private Document toDocument(JobOffer offer) {
+        return new Document()
+                .append("title", offer.getTitle())
+                .append("company", offer.getCompany())
+                .append("description", offer.getDescription())
+                .append("location", offer.getLocation())
+                .append("requiredSkills", offer.getRequiredSkills())
+                .append("salary", offer.getSalary())
+                .append("salaryAnnual", JobStats.annualSalary(offer.getSalary()))
+                .append("sourceUrl", offer.getUrl())  // Ensure key matches retrieval
+                .append("canonicalUrl", JobIdentity.canonicalUrl(offer.getUrl()))
+                .append("cardFingerprint", JobIdentity.cardFingerprint(offer))
+                .append("employmentType", offer.getEmploymentType())
+                .append("experienceLevel", offer.getExperienceLevel())
+                .append("workplaceType", offer.getWorkplaceType())
+                .append("postedDate", offer.getPostedDate())
+                .append("applicationDeadline", offer.getApplicationDeadline())
+                .append("benefits", offer.getBenefits())
+                .append("companyDescription", offer.getCompanyDescription())
+                .append("scrapedDate", new Date());
+    }
+
+    // Holds the whole collection in memory; prefer find(JobQuery) for anything large
     public List<JobOffer> getAllJobOffers() {
-        List<JobOffer> offers = new ArrayList<>();
-        collection.find().forEach(doc -> {
-            JobOffer offer = new JobOffer.Builder()
-                    .setTitle(doc.getString("title"))
-                    .setCompany(doc.getString("company"))
-                    .setDescription(doc.getString("description"))
-                    .setLocation(doc.getString("location"))
-                    .setUrl(doc.getString("sourceUrl"))
-                    .build();
-            offers.add(offer);
-        });
-        return offers;
-    }
-}
\ No newline at end of file
+        try (Stream<JobOffer> offers = find(JobQuery.all())) {
+            return offers.collect(Collectors.toList());
+        }
+    }
+
+    // The cursor is opened when the stream is first consumed and fetches batchSize documents per round
+    // trip; close the stream (try-with-resources) when it is not read to the end
+    public Stream<JobOffer> find(JobQuery query) {
+        AtomicReference<MongoCursor<Document>> cursor = new AtomicReference<>();
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        return StreamSupport.stream(() -> {
+                    cursor.set(findDocuments(query).iterator());
+                    return Spliterators.spliteratorUnknownSize(cursor.get(), characteristics);
+                }, characteristics, false)
+                .onClose(() -> {
+                    if (cursor.get() != null) {
+                        cursor.get().close();
+                    }
+                })
+                .map(this::toJobOffer);
+    }
+
+    // One page of at most the query's limit (DEFAULT_PAGE_SIZE without one), and the keyset query for the next
+    public JobPage findPage(JobQuery query) {
+        int pageSize = query.getLimit() > 0 ? query.getLimit() : DEFAULT_PAGE_SIZE;
+        List<Document> docs = findDocuments(query.toBuilder().limit(pageSize).build()).into(new ArrayList<>());
+        List<JobOffer> jobs = docs.stream().map(this::toJobOffer).collect(Collectors.toList());
+        if (docs.size() < pageSize) {
+            return new JobPage(jobs, null);
+        }
+        Document last = docs.get(docs.size() - 1);
+        JobQuery next = query.toBuilder()
+                .skip(0)
+                .after(last.get(query.getSortField()), last.getObjectId("_id"))
+                .build();
+        return new JobPage(jobs, next);
+    }
+
+    private FindIterable<Document> findDocuments(JobQuery query) {
+        QueryPlanSampler.shared().sample(query.describe(), collection, query.getFilter());
+        FindIterable<Document> found = collection.find(query.getFilter())
+                .sort(query.getSort())
+                .skip(query.getSkip())
+                .limit(query.getLimit())
+                .batchSize(query.getBatchSize());
+        return query.getProjection() != null ? found.projection(query.getProjection()) : found;
+    }
+
+    // Fields missing from the document (not stored, or left out by a projection) come back empty
+    private JobOffer toJobOffer(Document doc) {
+        return new JobOffer.Builder()
+                .setTitle(stringOf(doc, "title"))
+                .setCompany(stringOf(doc, "company"))
+                .setDescription(stringOf(doc, "description"))
+                .setLocation(stringOf(doc, "location"))
+                .setRequiredSkills(stringOf(doc, "requiredSkills"))
+                .setSalary(stringOf(doc, "salary"))
+                .setUrl(stringOf(doc, "sourceUrl"))
+                .setEmploymentType(stringOf(doc, "employmentType"))
+                .setExperienceLevel(stringOf(doc, "experienceLevel"))
+                .setWorkplaceType(stringOf(doc, "workplaceType"))
+                .setPostedDate(stringOf(doc, "postedDate"))
+                .setApplicationDeadline(stringOf(doc, "applicationDeadline"))
+                .setBenefits(stringOf(doc, "benefits"))
+                .setCompanyDescription(stringOf(doc, "companyDescription"))
+                .build();
+    }
+
+    private static String stringOf(Document doc, String field) {
+        Object value = doc.get(field);
+        return value == null ? "" : value.toString();
+    }
+
+    // Canonical URL -> card fingerprint of every stored job, for incremental scraping
+    public Map<String, String> findKnownJobFingerprints() {
+        Map<String, String> known = new HashMap<>();
+        collection.find()
+                .projection(Projections.include("sourceUrl", "canonicalUrl", "cardFingerprint",
+                        "title", "company", "location"))
+                .forEach(doc -> {
+                    String canonicalUrl = doc.getString("canonicalUrl");
+                    String fingerprint = doc.getString("cardFingerprint");
+                    if (canonicalUrl == null || fingerprint == null) {
+                        // Stored before fingerprints existed
+                        JobOffer offer = new JobOffer.Builder()
+                                .setTitle(doc.getString("title"))
+                                .setCompany(doc.getString("company"))
+                                .setLocation(doc.getString("location"))
+                                .setUrl(doc.getString("sourceUrl"))
+                                .build();
+                        canonicalUrl = JobIdentity.canonicalUrl(offer.getUrl());
+                        fingerprint = JobIdentity.cardFingerprint(offer);
+                    }
+                    if (!canonicalUrl.isEmpty()) {
+                        known.put(canonicalUrl, fingerprint);
+                    }
+                });
+        return known;
+    }
+}
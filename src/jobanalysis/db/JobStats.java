@@ -0,0 +1,132 @@
+package jobanalysis.db;
+
+import jobanalysis.models.JobOffer;
+import jobanalysis.scraping.SalaryScanner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Counts behind the dashboard and statistics charts: the largest company and location buckets, the
+ * employment and workplace types, and the salary ranges. Built by JobStatsRepository from the stored
+ * jobs, or with fromJobs from the results of a search.
+ */
+public class JobStats {
+    public static final String UNSPECIFIED = "Non spécifié";
+
+    // Lower bounds of the annual salary ranges, the last one is open-ended
+    static final List<Double> SALARY_BOUNDS = List.of(0d, 50_000d, 80_000d, 100_000d, 150_000d, Double.MAX_VALUE);
+    static final List<String> SALARY_RANGES = List.of("< 50K", "50K-80K", "80K-100K", "100K-150K", "150K+");
+
+    // Types only take a handful of values, all of them are kept up to this many
+    static final int TYPE_LIMIT = 20;
+
+    public static class Bucket {
+        private final String label;
+        private final long count;
+
+        Bucket(String label, long count) {
+            this.label = label;
+            this.count = count;
+        }
+
+        public String getLabel() { return label; }
+        public long getCount() { return count; }
+    }
+
+    private final long total;
+    private final List<Bucket> companies;
+    private final List<Bucket> locations;
+    private final List<Bucket> employmentTypes;
+    private final List<Bucket> workplaceTypes;
+    private final List<Bucket> salaryRanges;
+    private final long elapsedMillis;
+
+    JobStats(long total, List<Bucket> companies, List<Bucket> locations, List<Bucket> employmentTypes,
+             List<Bucket> workplaceTypes, List<Bucket> salaryRanges, long elapsedMillis) {
+        this.total = total;
+        this.companies = Collections.unmodifiableList(companies);
+        this.locations = Collections.unmodifiableList(locations);
+        this.employmentTypes = Collections.unmodifiableList(employmentTypes);
+        this.workplaceTypes = Collections.unmodifiableList(workplaceTypes);
+        this.salaryRanges = Collections.unmodifiableList(salaryRanges);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Same buckets as JobStatsRepository, counted in one pass over jobs already in memory
+    public static JobStats fromJobs(Collection<JobOffer> jobs, int top) {
+        long start = System.nanoTime();
+        Map<String, Long> salaries = new LinkedHashMap<>();
+        SALARY_RANGES.forEach(range -> salaries.put(range, 0L));
+        salaries.put(UNSPECIFIED, 0L);
+        for (JobOffer job : jobs) {
+            salaries.merge(salaryRange(annualSalary(job.getSalary())), 1L, Long::sum);
+        }
+        List<Bucket> salaryRanges = new ArrayList<>();
+        salaries.forEach((range, count) -> {
+            if (count > 0) {
+                salaryRanges.add(new Bucket(range, count));
+            }
+        });
+
+        return new JobStats(jobs.size(),
+                topBuckets(jobs, JobOffer::getCompany, top),
+                topBuckets(jobs, JobOffer::getLocation, top),
+                topBuckets(jobs, JobOffer::getEmploymentType, TYPE_LIMIT),
+                topBuckets(jobs, JobOffer::getWorkplaceType, TYPE_LIMIT),
+                salaryRanges,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public long getTotal() { return total; }
+    public List<Bucket> getCompanies() { return companies; }
+    public List<Bucket> getLocations() { return locations; }
+    public List<Bucket> getEmploymentTypes() { return employmentTypes; }
+    public List<Bucket> getWorkplaceTypes() { return workplaceTypes; }
+    // In range order, UNSPECIFIED last; empty ranges are left out
+    public List<Bucket> getSalaryRanges() { return salaryRanges; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    // Annual midpoint stored as salaryAnnual, null when the text has no recognizable amount
+    static Double annualSalary(String salary) {
+        if (salary == null || salary.isEmpty()) {
+            return null;
+        }
+        SalaryScanner.SalaryRange range = SalaryScanner.parse(salary);
+        return range != null ? range.getAnnualMidpoint() : null;
+    }
+
+    static String salaryRange(Double annualSalary) {
+        if (annualSalary == null || annualSalary < 0) {
+            return UNSPECIFIED;
+        }
+        for (int i = SALARY_RANGES.size() - 1; i >= 0; i--) {
+            if (annualSalary >= SALARY_BOUNDS.get(i)) {
+                return SALARY_RANGES.get(i);
+            }
+        }
+        return UNSPECIFIED;
+    }
+
+    static String labelOf(String value) {
+        return value == null || value.isEmpty() ? UNSPECIFIED : value;
+    }
+
+    private static List<Bucket> topBuckets(Collection<JobOffer> jobs, Function<JobOffer, String> field, int top) {
+        Map<String, Long> counts = new HashMap<>();
+        for (JobOffer job : jobs) {
+            counts.merge(labelOf(field.apply(job)), 1L, Long::sum);
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(entry -> new Bucket(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,111 @@
+package jobanalysis.db;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BucketOptions;
+import com.mongodb.client.model.Facet;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes JobStats inside MongoDB: one aggregation with a $facet branch per chart, each grouping,
+ * sorting and cutting to its largest buckets on the server. The reply is a single small document
+ * however many jobs are stored, instead of every job being loaded to be counted in memory.
+ *
+ * Salary ranges are bucketed on salaryAnnual, the numeric annual midpoint JobRepository stores next
+ * to the salary text.
+ */
+public class JobStatsRepository {
+    public static final int DEFAULT_TOP = 5;
+
+    private final MongoCollection<Document> collection;
+
+    public JobStatsRepository() {
+        this(MongoDBConfig.getInstance().getDatabase().getCollection("jobOffers"));
+    }
+
+    JobStatsRepository(MongoCollection<Document> collection) {
+        this.collection = collection;
+    }
+
+    public JobStats load(int top) {
+        return load(JobQuery.all(), top);
+    }
+
+    // Only the filter of the query is used, e.g. to chart one company or the jobs scraped this week
+    public JobStats load(JobQuery query, int top) {
+        long start = System.nanoTime();
+        Document result = collection.aggregate(pipeline(query.getFilter(), Math.max(1, top)))
+                .allowDiskUse(true)
+                .first();
+        if (result == null) {
+            result = new Document();
+        }
+
+        List<Document> total = result.getList("total", Document.class, List.of());
+        JobStats stats = new JobStats(
+                total.isEmpty() ? 0 : ((Number) total.get(0).get("count")).longValue(),
+                buckets(result, "companies"),
+                buckets(result, "locations"),
+                buckets(result, "employmentTypes"),
+                buckets(result, "workplaceTypes"),
+                salaryBuckets(result),
+                (System.nanoTime() - start) / 1_000_000);
+        System.out.println("Job stats over " + stats.getTotal() + " stored jobs computed in "
+                + stats.getElapsedMillis() + " ms");
+        return stats;
+    }
+
+    static List<Bson> pipeline(Bson filter, int top) {
+        List<Bson> pipeline = new ArrayList<>();
+        if (!filter.toBsonDocument().isEmpty()) {
+            pipeline.add(Aggregates.match(filter));
+        }
+        pipeline.add(Aggregates.facet(
+                new Facet("total", Aggregates.count("count")),
+                new Facet("companies", Aggregates.sortByCount(labelOf("company")), Aggregates.limit(top)),
+                new Facet("locations", Aggregates.sortByCount(labelOf("location")), Aggregates.limit(top)),
+                new Facet("employmentTypes", Aggregates.sortByCount(labelOf("employmentType")),
+                        Aggregates.limit(JobStats.TYPE_LIMIT)),
+                new Facet("workplaceTypes", Aggregates.sortByCount(labelOf("workplaceType")),
+                        Aggregates.limit(JobStats.TYPE_LIMIT)),
+                // Missing, null or out-of-range salaries land in the default bucket
+                new Facet("salaryRanges", Aggregates.bucket("$salaryAnnual", JobStats.SALARY_BOUNDS,
+                        new BucketOptions().defaultBucket(JobStats.UNSPECIFIED)))
+        ));
+        return pipeline;
+    }
+
+    // Same labels as JobStats.labelOf: empty and missing values count as UNSPECIFIED
+    private static Document labelOf(String field) {
+        return new Document("$cond", List.of(
+                new Document("$gt", List.of(new Document("$ifNull", List.of("$" + field, "")), "")),
+                "$" + field,
+                JobStats.UNSPECIFIED));
+    }
+
+    private static List<JobStats.Bucket> buckets(Document result, String facet) {
+        List<JobStats.Bucket> buckets = new ArrayList<>();
+        for (Document bucket : result.getList(facet, Document.class, List.of())) {
+            buckets.add(new JobStats.Bucket(String.valueOf(bucket.get("_id")),
+                    ((Number) bucket.get("count")).longValue()));
+        }
+        return buckets;
+    }
+
+    // $bucket names each range by its lower bound
+    private static List<JobStats.Bucket> salaryBuckets(Document result) {
+        List<JobStats.Bucket> buckets = new ArrayList<>();
+        for (Document bucket : result.getList("salaryRanges", Document.class, List.of())) {
+            Object id = bucket.get("_id");
+            String range = id instanceof Number bound
+                    ? JobStats.salaryRange(bound.doubleValue())
+                    : JobStats.UNSPECIFIED;
+            buckets.add(new JobStats.Bucket(range, ((Number) bucket.get("count")).longValue()));
+        }
+        return buckets;
+    }
+}
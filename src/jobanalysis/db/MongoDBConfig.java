@@ -25,6 +25,16 @@ public class MongoDBConfig {
             System.err.println("Erreur de connexion à MongoDB: " + e.getMessage());
             throw e;
         }
+
+        // Les index manquants sont créés au démarrage ; un échec n'empêche pas l'application de démarrer
+        try {
+            new IndexBootstrapper(database, mongoClient.getDatabase("admin")).run();
+        } catch (MongoException e) {
+            System.err.println("Erreur lors de la création des index: " + e.getMessage());
+        }
+
+        // Les migrations des offres enregistrées tournent une seule fois, en arrière-plan, hors du chemin de connexion
+        new SchemaMigrations(database).startInBackground();
     }
 
     public static MongoDBConfig getInstance() {
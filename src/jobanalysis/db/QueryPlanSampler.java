@@ -0,0 +1,78 @@
+package jobanalysis.db;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Explains a sample of the DAOs' queries and warns when MongoDB answers one with a collection scan,
+ * which means an index the query needs is missing. The first run of each named query and every
+ * sampleEvery-th one after it are explained; each query is only reported once.
+ */
+public class QueryPlanSampler {
+    private static final QueryPlanSampler SHARED = new QueryPlanSampler(100);
+
+    private final int sampleEvery;
+    private final Map<String, AtomicLong> runs = new ConcurrentHashMap<>();
+    private final Set<String> flagged = ConcurrentHashMap.newKeySet();
+
+    public QueryPlanSampler(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    public static QueryPlanSampler shared() {
+        return SHARED;
+    }
+
+    // Returns true when this run was explained and scanned the whole collection
+    public boolean sample(String queryName, MongoCollection<Document> collection, Bson filter) {
+        long run = runs.computeIfAbsent(queryName, key -> new AtomicLong()).getAndIncrement();
+        if (run % sampleEvery != 0) {
+            return false;
+        }
+
+        try {
+            Document explain = collection.find(filter).explain();
+            if (explain == null || !usesCollectionScan(explain)) {
+                return false;
+            }
+            if (flagged.add(queryName)) {
+                System.err.println("Query " + queryName + " on " + collection.getNamespace().getCollectionName()
+                        + " ran without an index (COLLSCAN), filter: " + filter.toBsonDocument().toJson());
+            }
+            return true;
+        } catch (MongoException e) {
+            return false;
+        }
+    }
+
+    public Set<String> getFlaggedQueries() {
+        return Set.copyOf(flagged);
+    }
+
+    // Looks for a COLLSCAN stage anywhere in the winning plan, classic or slot-based engine
+    static boolean usesCollectionScan(Document explain) {
+        Document planner = explain.get("queryPlanner", Document.class);
+        return planner != null && containsStage(planner.get("winningPlan"), "COLLSCAN");
+    }
+
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.getString("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+package jobanalysis.db;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One-time rewrites of stored job offers, numbered in the order they were added. The version
+ * reached is kept in a marker document of the migrations collection, so each step runs once per
+ * database. They run on a background thread after startup, never on the login path; a step that
+ * fails is retried at the next start.
+ */
+public class SchemaMigrations {
+    static final String COLLECTION = "migrations";
+    static final String MARKER_ID = "jobOffers";
+
+    @FunctionalInterface
+    interface Step {
+        void apply(JobRepository repository);
+    }
+
+    // Step i brings the stored documents to version i + 1
+    static final List<Step> STEPS = List.of(
+            JobRepository::backfillJobKeys,
+            JobRepository::backfillSalaries
+    );
+
+    private final MongoCollection<Document> markers;
+    private final JobRepository repository;
+    private final List<Step> steps;
+
+    public SchemaMigrations(MongoDatabase database) {
+        this(database.getCollection(COLLECTION), new JobRepository(database.getCollection("jobOffers")), STEPS);
+    }
+
+    SchemaMigrations(MongoCollection<Document> markers, JobRepository repository, List<Step> steps) {
+        this.markers = markers;
+        this.repository = repository;
+        this.steps = steps;
+    }
+
+    public Thread startInBackground() {
+        Thread thread = new Thread(this::run, "schema-migrations");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // Returns the version the stored documents are at afterwards
+    public int run() {
+        int version;
+        try {
+            version = currentVersion();
+        } catch (MongoException e) {
+            System.err.println("Could not read the migration version: " + e.getMessage());
+            return -1;
+        }
+
+        while (version < steps.size()) {
+            long start = System.nanoTime();
+            try {
+                steps.get(version).apply(repository);
+                version++;
+                markers.replaceOne(Filters.eq("_id", MARKER_ID),
+                        new Document("_id", MARKER_ID).append("version", version).append("updatedAt", new Date()),
+                        new ReplaceOptions().upsert(true));
+            } catch (MongoException e) {
+                System.err.println("Migration to version " + (version + 1) + " failed, retried at next start: "
+                        + e.getMessage());
+                break;
+            }
+            System.out.println("Migrated job offers to version " + version + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        return version;
+    }
+
+    private int currentVersion() {
+        Document marker = markers.find(Filters.eq("_id", MARKER_ID)).first();
+        return marker != null && marker.get("version") instanceof Number number ? number.intValue() : 0;
+    }
+}
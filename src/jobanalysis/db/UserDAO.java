@@ -35,6 +35,7 @@ public class UserDAO {
     }
 
     public User findByUsername(String username) {
+        QueryPlanSampler.shared().sample("findByUsername", collection, Filters.eq("username", username));
         Document doc = collection.find(Filters.eq("username", username)).first();
         if (doc == null) return null;
         
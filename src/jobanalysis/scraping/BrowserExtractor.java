@@ -0,0 +1,216 @@
+package jobanalysis.scraping;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs card and field selectors inside the browser and brings back only the extracted fields as
+ * one small JSON string, instead of serializing the whole DOM with getPageSource() and parsing it
+ * again with Jsoup.
+ *
+ * Selectors are the JobSelectors lists the Jsoup parsers use. The script emulates the Jsoup
+ * extensions they rely on (":contains(text)", optionally followed by "+ sibling" or "> child"), and
+ * like SelectorSet.selectText takes the first selector whose first match has non-blank text. Text is
+ * read the way Jsoup's Element.text() reads it, not with textContent, so words in adjacent blocks do
+ * not run together.
+ */
+public class BrowserExtractor {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final String SCRIPT =
+            "var spec = JSON.parse(arguments[0]);" +
+            "function norm(t) { return (t || '').replace(/\\s+/g, ' ').trim(); }" +
+            // Jsoup's Element.text(): whitespace collapsed outside <pre>, a space around block elements
+            // and at <br>, no script or style text
+            "var BLOCK = /^(html|head|body|frameset|script|noscript|style|meta|link|title|frame|noframes|section|nav|" +
+            "aside|hgroup|header|footer|p|h[1-6]|ul|ol|pre|div|blockquote|hr|address|figure|figcaption|form|fieldset|" +
+            "ins|del|dl|dt|dd|li|table|caption|thead|tfoot|tbody|colgroup|col|tr|th|td|video|audio|canvas|details|" +
+            "menu|plaintext|template|article|main|center|dir|applet|marquee|listing|button|svg|math)$/;" +
+            "var FORMAT_AS_BLOCK = /^(search|dialog)$/;" +
+            "var PRESERVE = /^(pre|plaintext|title|textarea)$/;" +
+            "function text(el) {" +
+            "  var out = '';" +
+            "  function space() { if (out && out.charAt(out.length - 1) !== ' ') out += ' '; }" +
+            "  (function walk(node, preserve) {" +
+            "    if (node.nodeType === 3) {" +
+            "      if (preserve) { out += node.nodeValue; return; }" +
+            "      var t = node.nodeValue.replace(/[\\u200b\\u00ad]/g, '').replace(/[ \\t\\n\\f\\r\\u00a0]+/g, ' ');" +
+            "      out += (!out || out.charAt(out.length - 1) === ' ') ? t.replace(/^ /, '') : t;" +
+            "      return;" +
+            "    }" +
+            "    if (node.nodeType !== 1) return;" +
+            "    var tag = node.nodeName.toLowerCase(), block = BLOCK.test(tag);" +
+            "    if (block || tag === 'br') space();" +
+            "    if (tag !== 'script' && tag !== 'style') {" +
+            "      for (var c = node.firstChild; c; c = c.nextSibling) walk(c, preserve || PRESERVE.test(tag));" +
+            "    }" +
+            "    var next = node.nextSibling;" +
+            "    if (block && next && (next.nodeType === 3 || (next.nodeType === 1" +
+            "        && !BLOCK.test(next.nodeName.toLowerCase()) && !FORMAT_AS_BLOCK.test(next.nodeName.toLowerCase())))) {" +
+            "      space();" +
+            "    }" +
+            "  })(el, false);" +
+            "  return out.trim();" +
+            "}" +
+            "function groups(sel) {" +
+            "  var out = [], depth = 0, start = 0;" +
+            "  for (var i = 0; i < sel.length; i++) {" +
+            "    var c = sel.charAt(i);" +
+            "    if (c === '(') depth++;" +
+            "    else if (c === ')') depth--;" +
+            "    else if (c === ',' && depth === 0) { out.push(sel.substring(start, i).trim()); start = i + 1; }" +
+            "  }" +
+            "  out.push(sel.substring(start).trim());" +
+            "  return out;" +
+            "}" +
+            "function query(root, sel) {" +
+            "  var found;" +
+            "  if (sel.indexOf(':contains(') < 0) {" +
+            "    found = Array.prototype.slice.call(root.querySelectorAll(sel));" +
+            "    if (root.matches && root.matches(sel)) found.unshift(root);" +
+            "    return found;" +
+            "  }" +
+            "  found = [];" +
+            "  groups(sel).forEach(function (group) {" +
+            "    var m = /^(.*?):contains\\(([^)]*)\\)(.*)$/.exec(group);" +
+            "    if (!m) { found = found.concat(query(root, group)); return; }" +
+            "    var needle = norm(m[2]).toLowerCase(), rest = m[3].trim();" +
+            "    query(root, m[1] || '*').forEach(function (el) {" +
+            "      if (text(el).toLowerCase().indexOf(needle) < 0) return;" +
+            "      if (!rest) { found.push(el); }" +
+            "      else if (rest.charAt(0) === '+') {" +
+            "        var next = el.nextElementSibling;" +
+            "        if (next && next.matches(rest.substring(1).trim())) found.push(next);" +
+            "      } else if (rest.charAt(0) === '>') {" +
+            "        Array.prototype.forEach.call(el.children, function (c) {" +
+            "          if (c.matches(rest.substring(1).trim())) found.push(c);" +
+            "        });" +
+            "      } else { found = found.concat(Array.prototype.slice.call(el.querySelectorAll(rest))); }" +
+            "    });" +
+            "  });" +
+            "  found = found.filter(function (el, i) { return found.indexOf(el) === i; });" +
+            "  found.sort(function (a, b) { return a === b ? 0 : (a.compareDocumentPosition(b) & 4 ? -1 : 1); });" +
+            "  return found;" +
+            "}" +
+            "function first(root, selectors) {" +
+            "  for (var i = 0; i < selectors.length; i++) {" +
+            "    try {" +
+            "      var els = query(root, selectors[i]);" +
+            "      if (els.length) {" +
+            "        var t = text(els[0]);" +
+            "        if (t && !/^[\\s*]+$/.test(t)) return t;" +
+            "      }" +
+            "    } catch (e) {}" +
+            "  }" +
+            "  return '';" +
+            "}" +
+            "function fields(root) {" +
+            "  var item = {};" +
+            "  Object.keys(spec.fields).forEach(function (k) { item[k] = first(root, spec.fields[k]); });" +
+            "  Object.keys(spec.attributes).forEach(function (k) {" +
+            "    var el = query(root, spec.attributes[k][0])[0];" +
+            "    item[k] = el ? (el.getAttribute(spec.attributes[k][1]) || '') : '';" +
+            "  });" +
+            "  return item;" +
+            "}" +
+            "var roots = spec.cards ? query(document, spec.cards) : [document];" +
+            "return JSON.stringify({" +
+            "  title: document.title," +
+            "  throttled: !!document.querySelector(spec.challengeSelector)" +
+            "      && !document.querySelector(spec.jobContentSelector)," +
+            "  items: roots.map(fields)," +
+            "  jsonLd: spec.jsonLd ? Array.prototype.map.call(" +
+            "      document.querySelectorAll('script[type=\"application/ld+json\"]')," +
+            "      function (s) { return s.textContent; }) : []" +
+            "});";
+
+    // What to extract from a page; serialized once and passed to the script as its argument
+    public static class Spec {
+        private final String json;
+
+        private Spec(String cards, Map<String, String[]> fields, Map<String, String[]> attributes, boolean jsonLd) {
+            Map<String, Object> spec = new HashMap<>();
+            spec.put("cards", cards);
+            spec.put("fields", fields);
+            spec.put("attributes", attributes);
+            spec.put("jsonLd", jsonLd);
+            spec.put("challengeSelector", HostRateLimiter.CHALLENGE_SELECTOR);
+            spec.put("jobContentSelector", HostRateLimiter.JOB_CONTENT_SELECTOR);
+            try {
+                this.json = MAPPER.writeValueAsString(spec);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid extraction spec", e);
+            }
+        }
+
+        // One item per card, with its fields and the href of linkSelector as "url"
+        public static Spec forCards(String cardSelector, Map<String, String[]> fields, String linkSelector) {
+            return new Spec(cardSelector, fields, Map.of("url", new String[]{linkSelector, "href"}), false);
+        }
+
+        // A single item for the whole page, plus its JSON-LD blocks
+        public static Spec forPage(Map<String, String[]> fields, Map<String, String[]> attributes) {
+            return new Spec(null, fields, attributes, true);
+        }
+    }
+
+    public static class Page {
+        private final String title;
+        private final boolean throttled;
+        private final List<Map<String, String>> items;
+        private final List<String> jsonLd;
+
+        private Page(String title, boolean throttled, List<Map<String, String>> items, List<String> jsonLd) {
+            this.title = title;
+            this.throttled = throttled;
+            this.items = items;
+            this.jsonLd = jsonLd;
+        }
+
+        public String getTitle() { return title; }
+        public List<Map<String, String>> getItems() { return items; }
+        public List<String> getJsonLd() { return jsonLd; }
+
+        // Same checks as for page sources, with the challenge markup checked in the browser
+        public boolean looksThrottled() {
+            return throttled || HostRateLimiter.isThrottleTitle(title);
+        }
+    }
+
+    public Page extract(WebDriver driver, Spec spec) {
+        Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT, spec.json);
+        try {
+            return parse(String.valueOf(result));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable extraction result: " + e.getMessage(), e);
+        }
+    }
+
+    static Page parse(String json) throws JsonProcessingException {
+        JsonNode root = MAPPER.readTree(json);
+        List<Map<String, String>> items = new ArrayList<>();
+        for (JsonNode itemNode : root.path("items")) {
+            Map<String, String> item = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = itemNode.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                item.put(field.getKey(), field.getValue().asText());
+            }
+            items.add(item);
+        }
+        List<String> jsonLd = new ArrayList<>();
+        for (JsonNode block : root.path("jsonLd")) {
+            jsonLd.add(block.asText());
+        }
+        return new Page(root.path("title").asText(), root.path("throttled").asBoolean(), items, jsonLd);
+    }
+}
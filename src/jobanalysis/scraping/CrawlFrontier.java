@@ -0,0 +1,363 @@
+package jobanalysis.scraping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jobanalysis.models.JobOffer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistent record of crawl progress: listing pages queued and finished (with the jobs they
+ * produced) and detail pages already enriched. Every change is appended to frontier.log; from time
+ * to time the whole state is written to checkpoint.json and the log starts over.
+ *
+ * Each job is kept once, under its JobIdentity.storageKey; finished pages and details only refer
+ * to those keys, and a page-done event only carries the jobs that are new or changed. A checkpoint
+ * is written once the log holds at least as many changes as there are stored jobs (and never more
+ * often than every checkpointInterval changes), so checkpoints cost a bounded amount per change
+ * however large the crawl grows.
+ *
+ * On open the checkpoint is loaded and the log replayed on top of it, so a killed crawl resumes
+ * with the pages and details it had finished. Replaying is idempotent, which keeps a crash between
+ * writing the checkpoint and truncating the log harmless. One frontier can be shared by several
+ * queries: details are keyed by canonical URL, so a posting found again is not fetched twice.
+ */
+public class CrawlFrontier implements Closeable {
+    private static final String LOG_FILE = "frontier.log";
+    private static final String CHECKPOINT_FILE = "checkpoint.json";
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 200;
+
+    private final Path directory;
+    private final int checkpointInterval;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // page url -> portal name, in the order pages were queued
+    private final Map<String, String> pendingPages = new LinkedHashMap<>();
+    // page url -> keys of the jobs it produced
+    private final Map<String, List<String>> completedPages = new LinkedHashMap<>();
+    // Completed pages on which every job was already known (incremental crawls stop paginating there)
+    private final Set<String> onlyKnownPages = new HashSet<>();
+    // Keys of the jobs whose detail page was enriched
+    private final Set<String> completedDetails = new LinkedHashSet<>();
+    // storage key -> latest copy of the job
+    private final Map<String, JobOffer> jobs = new LinkedHashMap<>();
+
+    private BufferedWriter log;
+    private int changesSinceCheckpoint;
+
+    public CrawlFrontier(Path directory) throws IOException {
+        this(directory, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public CrawlFrontier(Path directory, int checkpointInterval) throws IOException {
+        this.directory = directory;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+        Files.createDirectories(directory);
+        loadCheckpoint();
+        replayLog();
+        openLog();
+        System.out.println("Crawl frontier: " + pendingPages.size() + " pending pages, "
+                + completedPages.size() + " completed pages, " + completedDetails.size() + " completed details");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Queues a listing page unless it is already queued or finished
+    public synchronized void addPage(String url, String portal) {
+        if (pendingPages.containsKey(url) || completedPages.containsKey(url)) {
+            return;
+        }
+        pendingPages.put(url, portal);
+        ObjectNode event = event("page-added");
+        event.put("url", url);
+        event.put("portal", portal);
+        append(event);
+    }
+
+    public synchronized boolean isPageDone(String url) {
+        return completedPages.containsKey(url);
+    }
+
+    public synchronized boolean isPageOnlyKnown(String url) {
+        return onlyKnownPages.contains(url);
+    }
+
+    public synchronized List<JobOffer> getPageJobs(String url) {
+        List<JobOffer> pageJobs = new ArrayList<>();
+        for (String key : completedPages.getOrDefault(url, List.of())) {
+            JobOffer job = jobs.get(key);
+            if (job != null) {
+                pageJobs.add(job);
+            }
+        }
+        return pageJobs;
+    }
+
+    public synchronized void completePage(String url, List<JobOffer> pageJobs) {
+        completePage(url, pageJobs, false);
+    }
+
+    public synchronized void completePage(String url, List<JobOffer> pageJobs, boolean onlyKnownJobs) {
+        List<String> keys = new ArrayList<>();
+        List<JobOffer> changed = new ArrayList<>();
+        for (JobOffer job : pageJobs) {
+            String key = JobIdentity.storageKey(job);
+            keys.add(key);
+            JobOffer stored = jobs.get(key);
+            if (stored == null || !JobIdentity.contentHash(stored).equals(JobIdentity.contentHash(job))) {
+                jobs.put(key, job);
+                changed.add(job);
+            }
+        }
+        pendingPages.remove(url);
+        completedPages.put(url, keys);
+        if (onlyKnownJobs) {
+            onlyKnownPages.add(url);
+        }
+
+        ObjectNode event = event("page-done");
+        event.put("url", url);
+        ArrayNode keyArray = event.putArray("keys");
+        keys.forEach(keyArray::add);
+        event.set("jobs", jobsToJson(changed));
+        if (onlyKnownJobs) {
+            event.put("onlyKnown", true);
+        }
+        append(event);
+    }
+
+    // Page url -> portal name of every page queued but not finished, across all queries
+    public synchronized Map<String, String> getPendingPages() {
+        return new LinkedHashMap<>(pendingPages);
+    }
+
+    public synchronized JobOffer getCompletedDetail(String url) {
+        String key = JobIdentity.canonicalUrl(url);
+        return completedDetails.contains(key) ? jobs.get(key) : null;
+    }
+
+    public synchronized void completeDetail(JobOffer job) {
+        String key = JobIdentity.storageKey(job);
+        jobs.put(key, job);
+        completedDetails.add(key);
+        ObjectNode event = event("detail-done");
+        event.set("job", mapper.valueToTree(job));
+        append(event);
+    }
+
+    public synchronized void checkpoint() {
+        try {
+            ObjectNode state = mapper.createObjectNode();
+            ObjectNode pending = state.putObject("pendingPages");
+            pendingPages.forEach(pending::put);
+            ObjectNode pages = state.putObject("pages");
+            completedPages.forEach((url, keys) -> {
+                ArrayNode keyArray = pages.putArray(url);
+                keys.forEach(keyArray::add);
+            });
+            ArrayNode onlyKnown = state.putArray("onlyKnownPages");
+            onlyKnownPages.forEach(onlyKnown::add);
+            ArrayNode details = state.putArray("details");
+            completedDetails.forEach(details::add);
+            ObjectNode jobNodes = state.putObject("jobs");
+            jobs.forEach((key, job) -> jobNodes.set(key, mapper.valueToTree(job)));
+
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            mapper.writeValue(temp.toFile(), state);
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // Everything in the log is now covered by the checkpoint
+            closeLog();
+            Files.deleteIfExists(directory.resolve(LOG_FILE));
+            openLog();
+            changesSinceCheckpoint = 0;
+        } catch (IOException e) {
+            System.err.println("Error writing crawl checkpoint: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        checkpoint();
+        closeLog();
+    }
+
+    private ObjectNode event(String type) {
+        ObjectNode event = mapper.createObjectNode();
+        event.put("type", type);
+        return event;
+    }
+
+    private void append(ObjectNode event) {
+        if (log == null) {
+            System.err.println("Crawl frontier is closed, progress not recorded");
+            return;
+        }
+        try {
+            log.write(mapper.writeValueAsString(event));
+            log.newLine();
+            log.flush();
+        } catch (IOException e) {
+            System.err.println("Error appending to crawl log: " + e.getMessage());
+        }
+        if (++changesSinceCheckpoint >= Math.max(checkpointInterval, jobs.size())) {
+            checkpoint();
+        }
+    }
+
+    private void loadCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return;
+        }
+        JsonNode state = mapper.readTree(checkpoint.toFile());
+        state.path("pendingPages").fields()
+                .forEachRemaining(field -> pendingPages.put(field.getKey(), field.getValue().asText()));
+        state.path("jobs").fields()
+                .forEachRemaining(field -> jobs.put(field.getKey(), jobFromJson(field.getValue())));
+        state.path("pages").fields().forEachRemaining(field -> {
+            List<String> keys = new ArrayList<>();
+            field.getValue().forEach(key -> keys.add(key.asText()));
+            completedPages.put(field.getKey(), keys);
+        });
+        state.path("details").forEach(key -> completedDetails.add(key.asText()));
+        state.path("onlyKnownPages").forEach(url -> onlyKnownPages.add(url.asText()));
+
+        // Checkpoints written before jobs were stored once held full job lists
+        state.path("completedPages").fields()
+                .forEachRemaining(field -> completedPages.put(field.getKey(), storeJobs(jobsFromJson(field.getValue()))));
+        for (JobOffer job : jobsFromJson(state.path("completedDetails"))) {
+            completedDetails.addAll(storeJobs(List.of(job)));
+        }
+    }
+
+    private void replayLog() throws IOException {
+        Path logFile = directory.resolve(LOG_FILE);
+        if (!Files.exists(logFile)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    apply(mapper.readTree(line));
+                    changesSinceCheckpoint++;
+                } catch (IOException e) {
+                    // A crash while appending can leave a truncated last line
+                    System.err.println("Skipping unreadable crawl log line: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void apply(JsonNode event) {
+        String url = event.path("url").asText();
+        switch (event.path("type").asText()) {
+            case "page-added" -> {
+                if (!completedPages.containsKey(url)) {
+                    pendingPages.put(url, event.path("portal").asText());
+                }
+            }
+            case "page-done" -> {
+                pendingPages.remove(url);
+                List<String> changedKeys = storeJobs(jobsFromJson(event.path("jobs")));
+                List<String> keys = new ArrayList<>();
+                event.path("keys").forEach(key -> keys.add(key.asText()));
+                // Events written before keys were logged list every job of the page
+                completedPages.put(url, event.has("keys") ? keys : changedKeys);
+                if (event.path("onlyKnown").asBoolean(false)) {
+                    onlyKnownPages.add(url);
+                }
+            }
+            case "detail-done" -> completedDetails.addAll(storeJobs(List.of(jobFromJson(event.path("job")))));
+            default -> System.err.println("Unknown crawl log event: " + event.path("type").asText());
+        }
+    }
+
+    // Stores the jobs under their keys and returns the keys in order
+    private List<String> storeJobs(List<JobOffer> newJobs) {
+        List<String> keys = new ArrayList<>();
+        for (JobOffer job : newJobs) {
+            String key = JobIdentity.storageKey(job);
+            jobs.put(key, job);
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private void openLog() throws IOException {
+        log = Files.newBufferedWriter(directory.resolve(LOG_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void closeLog() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Error closing crawl log: " + e.getMessage());
+        }
+        log = null;
+    }
+
+    private ArrayNode jobsToJson(Iterable<JobOffer> jobs) {
+        ArrayNode array = mapper.createArrayNode();
+        for (JobOffer job : jobs) {
+            array.add(mapper.<JsonNode>valueToTree(job));
+        }
+        return array;
+    }
+
+    private static List<JobOffer> jobsFromJson(JsonNode array) {
+        List<JobOffer> jobs = new ArrayList<>();
+        for (JsonNode node : array) {
+            jobs.add(jobFromJson(node));
+        }
+        return jobs;
+    }
+
+    private static JobOffer jobFromJson(JsonNode node) {
+        return new JobOffer.Builder()
+                .setTitle(node.path("title").asText(""))
+                .setCompany(node.path("company").asText(""))
+                .setLocation(node.path("location").asText(""))
+                .setDescription(node.path("description").asText(""))
+                .setRequiredSkills(node.path("requiredSkills").asText(""))
+                .setSalary(node.path("salary").asText(""))
+                .setUrl(node.path("url").asText(""))
+                .setEmploymentType(node.path("employmentType").asText(""))
+                .setExperienceLevel(node.path("experienceLevel").asText(""))
+                .setWorkplaceType(node.path("workplaceType").asText(""))
+                .setPostedDate(node.path("postedDate").asText(""))
+                .setApplicationDeadline(node.path("applicationDeadline").asText(""))
+                .setBenefits(node.path("benefits").asText(""))
+                .setCompanyDescription(node.path("companyDescription").asText(""))
+                .build();
+    }
+}
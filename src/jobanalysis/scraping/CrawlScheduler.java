@@ -0,0 +1,366 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Crawls the result pages of several queries within a time and page budget, aiming for a target
+ * number of unique jobs. The next page always goes to the query with the best recent yield (an
+ * exponential moving average of new unique jobs per page); queries nobody has tried yet go first.
+ *
+ * A query stops paginating when its pages run out, only list known jobs, or its yield falls below
+ * minYield, so the rest of the budget goes to the queries still finding new jobs. Each query has
+ * at most one page in flight, so its yield is known before its next page is chosen.
+ */
+public class CrawlScheduler {
+    public enum StopReason {
+        // Still had pages to crawl when the budget, the target or the crawl ended
+        BUDGET,
+        // A page listed no jobs at all
+        EXHAUSTED,
+        // A page only listed jobs the known-job index has seen unchanged
+        KNOWN_JOBS,
+        // Recent pages found fewer than minYield new jobs each
+        YIELD_COLLAPSED,
+        MAX_PAGES
+    }
+
+    public static class QueryStats {
+        private final String name;
+        private final String portalName;
+        private int pages;
+        private int newJobs;
+        private double yield;
+        private StopReason stopReason = StopReason.BUDGET;
+
+        QueryStats(String name, String portalName) {
+            this.name = name;
+            this.portalName = portalName;
+        }
+
+        public String getName() { return name; }
+        public String getPortalName() { return portalName; }
+        public int getPages() { return pages; }
+        public int getNewJobs() { return newJobs; }
+        public double getYield() { return yield; }
+        public StopReason getStopReason() { return stopReason; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d pages, %d new jobs, yield %.1f, %s", name, pages, newJobs, yield, stopReason);
+        }
+    }
+
+    public static class Report {
+        private final List<JobOffer> jobs;
+        private final List<QueryStats> queries;
+        private final int pages;
+        private final long elapsedMillis;
+
+        Report(List<JobOffer> jobs, List<QueryStats> queries, int pages, long elapsedMillis) {
+            this.jobs = jobs;
+            this.queries = queries;
+            this.pages = pages;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<JobOffer> getJobs() { return jobs; }
+        public List<QueryStats> getQueries() { return queries; }
+        public int getPages() { return pages; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public String summary() {
+            StringBuilder summary = new StringBuilder(String.format("Crawled %d pages in %d s, %d unique jobs",
+                    pages, elapsedMillis / 1000, jobs.size()));
+            queries.forEach(query -> summary.append(System.lineSeparator()).append("  ").append(query));
+            return summary.toString();
+        }
+    }
+
+    private static class Query {
+        private final String name;
+        private final String portalName;
+        private final IntFunction<String> pageUrls;
+
+        Query(String name, String portalName, IntFunction<String> pageUrls) {
+            this.name = name;
+            this.portalName = portalName;
+            this.pageUrls = pageUrls;
+        }
+    }
+
+    private static class PageOutcome {
+        private final QueryStats query;
+        private final int seen;
+        private final int newJobs;
+        private final boolean onlyKnownJobs;
+
+        PageOutcome(QueryStats query, int seen, int newJobs, boolean onlyKnownJobs) {
+            this.query = query;
+            this.seen = seen;
+            this.newJobs = newJobs;
+            this.onlyKnownJobs = onlyKnownJobs;
+        }
+    }
+
+    private final ListingScraper scraper;
+    private final Supplier<NearDuplicateIndex> nearDuplicates;
+    private final List<Query> queries;
+    private final Duration timeBudget;
+    private final int pageBudget;
+    private final int targetJobs;
+    private final int maxPagesPerQuery;
+    private final double minYield;
+    private final double smoothing;
+    private final int workers;
+
+    private CrawlScheduler(Builder builder) {
+        this.scraper = builder.scraper;
+        this.nearDuplicates = builder.nearDuplicates;
+        this.queries = List.copyOf(builder.queries);
+        this.timeBudget = builder.timeBudget;
+        this.pageBudget = builder.pageBudget;
+        this.targetJobs = builder.targetJobs;
+        this.maxPagesPerQuery = builder.maxPagesPerQuery;
+        this.minYield = builder.minYield;
+        this.smoothing = builder.smoothing;
+        this.workers = builder.workers;
+    }
+
+    public Report run() {
+        return run(job -> {});
+    }
+
+    // Jobs reach the sink as soon as they are found unique; the report lists them all again
+    public Report run(Consumer<JobOffer> sink) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        List<JobOffer> jobs = new ArrayList<>();
+        Set<String> emitted = new HashSet<>();
+        NearDuplicateIndex index = nearDuplicates.get();
+
+        List<QueryStats> stats = new ArrayList<>();
+        Map<QueryStats, Query> byStats = new HashMap<>();
+        for (Query query : queries) {
+            QueryStats queryStats = new QueryStats(query.name, query.portalName);
+            stats.add(queryStats);
+            byStats.put(queryStats, query);
+        }
+
+        List<QueryStats> active = new ArrayList<>(stats);
+        Set<QueryStats> inFlight = new HashSet<>();
+        Map<Future<PageOutcome>, QueryStats> futures = new HashMap<>();
+        ExecutorService pool = JSoupScraper.newWorkerPool("crawl-worker", workers);
+        CompletionService<PageOutcome> completed = new ExecutorCompletionService<>(pool);
+        int dispatched = 0;
+
+        try {
+            while (true) {
+                while (inFlight.size() < workers && dispatched < pageBudget && System.nanoTime() < deadline
+                        && uniqueCount(jobs) < targetJobs) {
+                    QueryStats next = mostProductive(active, inFlight);
+                    if (next == null) {
+                        break;
+                    }
+                    Query query = byStats.get(next);
+                    int page = next.pages + 1;
+                    String url = query.pageUrls.apply(page);
+                    inFlight.add(next);
+                    dispatched++;
+                    futures.put(completed.submit(() -> {
+                        AtomicInteger seen = new AtomicInteger();
+                        AtomicInteger newJobs = new AtomicInteger();
+                        boolean onlyKnownJobs = scraper.scrape(query.portalName, url, job -> {
+                            seen.incrementAndGet();
+                            synchronized (jobs) {
+                                if (emitted.add(JSoupScraper.jobKey(job)) && (index == null || index.addIfNew(job))) {
+                                    newJobs.incrementAndGet();
+                                    jobs.add(job);
+                                    sink.accept(job);
+                                }
+                            }
+                        });
+                        return new PageOutcome(next, seen.get(), newJobs.get(), onlyKnownJobs);
+                    }), next);
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                Future<PageOutcome> done = completed.poll(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    System.out.println("Crawl time budget used up with " + inFlight.size() + " pages in flight");
+                    break;
+                }
+                QueryStats query = futures.remove(done);
+                inFlight.remove(query);
+                query.pages++;
+                try {
+                    record(done.get(), active);
+                } catch (ExecutionException e) {
+                    System.err.println("Error crawling " + query.name + " page " + query.pages + ": "
+                            + e.getCause().getMessage());
+                    stop(query, StopReason.EXHAUSTED, active);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<JobOffer> found;
+        synchronized (jobs) {
+            found = new ArrayList<>(jobs);
+        }
+        Report report = new Report(found, Collections.unmodifiableList(stats), dispatched,
+                (System.nanoTime() - start) / 1_000_000);
+        System.out.println(report.summary());
+        return report;
+    }
+
+    private void record(PageOutcome outcome, List<QueryStats> active) {
+        QueryStats query = outcome.query;
+        query.newJobs += outcome.newJobs;
+        query.yield = query.pages == 1 ? outcome.newJobs : smoothing * outcome.newJobs + (1 - smoothing) * query.yield;
+
+        if (outcome.onlyKnownJobs) {
+            stop(query, StopReason.KNOWN_JOBS, active);
+        } else if (outcome.seen == 0) {
+            stop(query, StopReason.EXHAUSTED, active);
+        } else if (query.yield < minYield) {
+            stop(query, StopReason.YIELD_COLLAPSED, active);
+        } else if (query.pages >= maxPagesPerQuery) {
+            stop(query, StopReason.MAX_PAGES, active);
+        }
+    }
+
+    private void stop(QueryStats query, StopReason reason, List<QueryStats> active) {
+        query.stopReason = reason;
+        active.remove(query);
+        System.out.println("Stopped " + query.name + " after " + query.pages + " pages: " + reason);
+    }
+
+    // Untried queries first, in the order they were added, then the best yield
+    private static QueryStats mostProductive(List<QueryStats> active, Set<QueryStats> inFlight) {
+        QueryStats best = null;
+        for (QueryStats query : active) {
+            if (inFlight.contains(query)) {
+                continue;
+            }
+            if (query.pages == 0) {
+                return query;
+            }
+            if (best == null || query.yield > best.yield) {
+                best = query;
+            }
+        }
+        return best;
+    }
+
+    private static int uniqueCount(List<JobOffer> jobs) {
+        synchronized (jobs) {
+            return jobs.size();
+        }
+    }
+
+    public static class Builder {
+        private final ListingScraper scraper;
+        // Supplies null when near-duplicate filtering is off
+        private final Supplier<NearDuplicateIndex> nearDuplicates;
+        private final List<Query> queries = new ArrayList<>();
+        private Duration timeBudget = Duration.ofHours(1);
+        private int pageBudget = Integer.MAX_VALUE;
+        private int targetJobs = Integer.MAX_VALUE;
+        private int maxPagesPerQuery = 50;
+        private double minYield = 1.0;
+        private double smoothing = 0.5;
+        private int workers;
+
+        Builder(ListingScraper scraper, Supplier<NearDuplicateIndex> nearDuplicates, int workers) {
+            this.scraper = scraper;
+            this.nearDuplicates = nearDuplicates;
+            this.workers = Math.max(1, workers);
+        }
+
+        // pageUrls maps a 1-based page number to its URL
+        public Builder addQuery(String name, String portalName, IntFunction<String> pageUrls) {
+            queries.add(new Query(name, portalName, pageUrls));
+            return this;
+        }
+
+        // Pages follow the same page=, p= or start= scheme as scrapeMultiplePages
+        public Builder addQuery(String portalName, String baseUrl) {
+            return addQuery(baseUrl, portalName, page -> JSoupScraper.constructPageUrl(baseUrl, page));
+        }
+
+        public Builder addSearch(String portalName, FederatedSearch.UrlBuilder urlBuilder, String keywords, String location) {
+            return addQuery(portalName + ": " + keywords + (location.isBlank() ? "" : " in " + location), portalName,
+                    page -> urlBuilder.build(keywords, location, page));
+        }
+
+        // No new page is started after it; pages still loading when it runs out are abandoned
+        public Builder setTimeBudget(Duration timeBudget) {
+            this.timeBudget = timeBudget;
+            return this;
+        }
+
+        // Pages fetched across all queries
+        public Builder setPageBudget(int pageBudget) {
+            this.pageBudget = Math.max(1, pageBudget);
+            return this;
+        }
+
+        // Unique jobs after which no new page is started
+        public Builder setTargetJobs(int targetJobs) {
+            this.targetJobs = Math.max(1, targetJobs);
+            return this;
+        }
+
+        public Builder setMaxPagesPerQuery(int maxPagesPerQuery) {
+            this.maxPagesPerQuery = Math.max(1, maxPagesPerQuery);
+            return this;
+        }
+
+        // New unique jobs per page, smoothed, under which a query stops paginating
+        public Builder setMinYield(double minYield) {
+            this.minYield = minYield;
+            return this;
+        }
+
+        // Weight of the latest page in the yield average, between 0 and 1
+        public Builder setSmoothing(double smoothing) {
+            this.smoothing = Math.min(1, Math.max(0.01, smoothing));
+            return this;
+        }
+
+        // Pages crawled at the same time, each from a different query
+        public Builder setWorkers(int workers) {
+            this.workers = Math.max(1, workers);
+            return this;
+        }
+
+        public CrawlScheduler build() {
+            return new CrawlScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package jobanalysis.scraping;
+
+import static jobanalysis.scraping.ScanSupport.isDigit;
+import static jobanalysis.scraping.ScanSupport.isTokenStart;
+import static jobanalysis.scraping.ScanSupport.matchAnyWord;
+import static jobanalysis.scraping.ScanSupport.matchWord;
+import static jobanalysis.scraping.ScanSupport.numberEnd;
+import static jobanalysis.scraping.ScanSupport.parseNumber;
+import static jobanalysis.scraping.ScanSupport.skipSpaces;
+
+/**
+ * Hand-written scanner for required years of experience, in English and French: "5+ years of
+ * experience", "3-5 yrs experience", "5 ans d'expérience", "expérience de 2 ans minimum". One pass
+ * over the characters, no regex and no intermediate Strings.
+ *
+ * A number followed by a year unit counts when an "exp..." word (experience, expérience, exp.)
+ * appears in the same sentence, shortly before or after it. For ranges the lower bound is returned.
+ */
+public final class ExperienceScanner {
+    private static final int KEYWORD_WINDOW = 40;
+
+    private static final String[] RANGE_SEPARATORS = {"-", "–", "to", "à", "a", "or", "ou"};
+    private static final String[] YEAR_UNITS = {"years", "year", "yrs", "yr", "années", "année", "ans", "an"};
+
+    private ExperienceScanner() {
+    }
+
+    // Years of experience asked for in text, or -1 when none is stated
+    public static double scanYears(CharSequence text) {
+        if (text == null) {
+            return -1;
+        }
+        int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            if (!isDigit(text.charAt(pos)) || !isTokenStart(text, pos)) {
+                pos++;
+                continue;
+            }
+
+            int start = pos;
+            int end = numberEnd(text, start);
+            double years = parseNumber(text, start, end);
+            pos = end;
+
+            int unit = yearUnitAfter(text, end);
+            if (unit >= 0 && (keywordAfter(text, unit) || keywordBefore(text, start))) {
+                return years;
+            }
+        }
+        return -1;
+    }
+
+    // Position after "+ years", "- 5 years", "to 5 ans"... following a number, or -1
+    private static int yearUnitAfter(CharSequence text, int pos) {
+        int length = text.length();
+        pos = skipPlus(text, skipSpaces(text, pos));
+
+        int separator = matchAnyWord(text, pos, RANGE_SEPARATORS);
+        if (separator >= 0) {
+            int upper = skipSpaces(text, separator);
+            if (upper < length && isDigit(text.charAt(upper))) {
+                pos = skipPlus(text, skipSpaces(text, numberEnd(text, upper)));
+            }
+        }
+
+        int unit = matchAnyWord(text, pos, YEAR_UNITS);
+        if (unit < 0) {
+            return -1;
+        }
+        // years' experience
+        if (unit < length && (text.charAt(unit) == '\'' || text.charAt(unit) == '’')) {
+            unit++;
+        }
+        return unit;
+    }
+
+    private static int skipPlus(CharSequence text, int pos) {
+        if (pos < text.length() && text.charAt(pos) == '+') {
+            return skipSpaces(text, pos + 1);
+        }
+        return pos;
+    }
+
+    private static boolean keywordAfter(CharSequence text, int from) {
+        int limit = Math.min(text.length(), from + KEYWORD_WINDOW);
+        for (int i = from; i < limit; i++) {
+            if (isSentenceEnd(text, i)) {
+                return false;
+            }
+            if (isKeywordAt(text, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean keywordBefore(CharSequence text, int to) {
+        int limit = Math.max(0, to - KEYWORD_WINDOW);
+        for (int i = to - 1; i >= limit; i--) {
+            if (isSentenceEnd(text, i)) {
+                return false;
+            }
+            if (isKeywordAt(text, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // experience, expérience, experiência, "exp." but not expert, expected...
+    private static boolean isKeywordAt(CharSequence text, int pos) {
+        if (pos > 0 && Character.isLetter(text.charAt(pos - 1))) {
+            return false;
+        }
+        if (matchWord(text, pos, "exp") >= 0) {
+            return true;
+        }
+        return startsWithIgnoreCase(text, pos, "experi") || startsWithIgnoreCase(text, pos, "expéri");
+    }
+
+    private static boolean startsWithIgnoreCase(CharSequence text, int pos, String prefix) {
+        if (pos + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(text.charAt(pos + i)) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // '.' ends a sentence unless it is part of a number or an abbreviation like "exp."
+    private static boolean isSentenceEnd(CharSequence text, int pos) {
+        char c = text.charAt(pos);
+        if (c == '\n' || c == ';' || c == '!' || c == '?') {
+            return true;
+        }
+        return c == '.' && (pos + 1 == text.length() || ScanSupport.isSpace(text.charAt(pos + 1)))
+                && !(pos >= 3 && startsWithIgnoreCase(text, pos - 3, "exp"));
+    }
+}
@@ -0,0 +1,164 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs one keyword/location query against several portals at once and merges their jobs into a
+ * single stream, in the order they finish scraping.
+ *
+ * Every portal gets its own pool of portalWorkers threads for its result pages, so a slow or
+ * throttled portal only holds up its own pages and a search takes about as long as its slowest
+ * portal. A job already emitted for another portal is dropped by URL, and as a near-duplicate when
+ * ScraperConfig turns that filtering on.
+ */
+public class FederatedSearch {
+
+    @FunctionalInterface
+    public interface UrlBuilder {
+        String build(String keywords, String location, int page);
+    }
+
+    private final ListingScraper scraper;
+    private final int portalWorkers;
+    // Supplies null when near-duplicate filtering is off
+    private final Supplier<NearDuplicateIndex> nearDuplicates;
+    private final Map<String, UrlBuilder> portals = new LinkedHashMap<>();
+
+    FederatedSearch(ListingScraper scraper, int portalWorkers, Supplier<NearDuplicateIndex> nearDuplicates) {
+        this.scraper = scraper;
+        this.portalWorkers = Math.max(1, portalWorkers);
+        this.nearDuplicates = nearDuplicates;
+        portals.put("linkedin", FederatedSearch::linkedInUrl);
+        portals.put("indeed", FederatedSearch::indeedUrl);
+    }
+
+    public static String linkedInUrl(String keywords, String location, int page) {
+        return "https://www.linkedin.com/jobs/search?keywords=" + encode(keywords) + "&location=" + encode(location)
+                + (page > 1 ? "&start=" + (page - 1) * 25 : "");
+    }
+
+    public static String indeedUrl(String keywords, String location, int page) {
+        return "https://www.indeed.com/jobs?q=" + encode(keywords) + "&l=" + encode(location)
+                + (page > 1 ? "&start=" + (page - 1) * 10 : "");
+    }
+
+    // Portals other than linkedin and indeed are parsed with the generic card selectors
+    public FederatedSearch addPortal(String portalName, UrlBuilder urlBuilder) {
+        portals.put(portalName.toLowerCase(), urlBuilder);
+        return this;
+    }
+
+    public FederatedSearch removePortal(String portalName) {
+        portals.remove(portalName.toLowerCase());
+        return this;
+    }
+
+    public Set<String> getPortals() {
+        return Collections.unmodifiableSet(portals.keySet());
+    }
+
+    public String buildUrl(String portalName, String keywords, String location, int page) {
+        UrlBuilder urlBuilder = portals.get(portalName.toLowerCase());
+        if (urlBuilder == null) {
+            throw new IllegalArgumentException("Unknown portal: " + portalName);
+        }
+        return urlBuilder.build(keywords, location, page);
+    }
+
+    // The search starts when a subscriber arrives, like the other streamed scrapes
+    public Flow.Publisher<JobOffer> search(String keywords, String location, int pagesPerPortal) {
+        return new JobOfferPublisher("federated-search", sink -> run(keywords, location, pagesPerPortal, sink));
+    }
+
+    public List<JobOffer> searchAll(String keywords, String location, int pagesPerPortal) {
+        List<JobOffer> jobs = Collections.synchronizedList(new ArrayList<>());
+        try {
+            run(keywords, location, pagesPerPortal, jobs::add);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new ArrayList<>(jobs);
+    }
+
+    void run(String keywords, String location, int pagesPerPortal, Consumer<JobOffer> sink) throws InterruptedException {
+        long start = System.nanoTime();
+        int pages = Math.max(1, pagesPerPortal);
+        Set<String> emitted = ConcurrentHashMap.newKeySet();
+        NearDuplicateIndex index = nearDuplicates.get();
+        Map<String, AtomicInteger> emittedPerPortal = new LinkedHashMap<>();
+        List<ExecutorService> pools = new ArrayList<>();
+        List<Future<?>> pageResults = new ArrayList<>();
+        List<String> pageUrls = new ArrayList<>();
+
+        try {
+            for (Map.Entry<String, UrlBuilder> portal : portals.entrySet()) {
+                String portalName = portal.getKey();
+                ExecutorService pool = JSoupScraper.newWorkerPool(portalName + "-search", Math.min(portalWorkers, pages));
+                pools.add(pool);
+                AtomicInteger lastUsefulPage = new AtomicInteger(pages);
+                AtomicInteger count = new AtomicInteger();
+                emittedPerPortal.put(portalName, count);
+
+                // The merge is serialized so the stream order is the order jobs arrived in
+                Consumer<JobOffer> portalSink = job -> {
+                    synchronized (emitted) {
+                        if (emitted.add(JSoupScraper.jobKey(job)) && (index == null || index.addIfNew(job))) {
+                            count.incrementAndGet();
+                            sink.accept(job);
+                        }
+                    }
+                };
+
+                for (int page = 1; page <= pages; page++) {
+                    final int pageNumber = page;
+                    String url = portal.getValue().build(keywords, location, page);
+                    pageUrls.add(url);
+                    pageResults.add(pool.submit(() -> {
+                        if (pageNumber > lastUsefulPage.get()) {
+                            return null;
+                        }
+                        if (scraper.scrape(portalName, url, portalSink)) {
+                            lastUsefulPage.accumulateAndGet(pageNumber, Math::min);
+                            System.out.println(portalName + " page " + pageNumber + " only lists known jobs, stopping pagination");
+                        }
+                        return null;
+                    }));
+                }
+            }
+
+            for (int i = 0; i < pageResults.size(); i++) {
+                try {
+                    pageResults.get(i).get();
+                } catch (ExecutionException e) {
+                    System.err.println("Error scraping " + pageUrls.get(i) + ": " + e.getCause().getMessage());
+                }
+            }
+        } finally {
+            pools.forEach(ExecutorService::shutdownNow);
+        }
+
+        System.out.println("Federated search for '" + keywords + "' found " + emitted.size() + " unique jobs in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms " + emittedPerPortal);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value.trim(), StandardCharsets.UTF_8);
+    }
+}
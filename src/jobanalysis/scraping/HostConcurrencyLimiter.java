@@ -0,0 +1,37 @@
+package jobanalysis.scraping;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+// Caps how many requests the scraper has in flight against a single host
+class HostConcurrencyLimiter {
+    private final int permitsPerHost;
+    private final Map<String, Semaphore> hosts = new ConcurrentHashMap<>();
+
+    HostConcurrencyLimiter(int permitsPerHost) {
+        this.permitsPerHost = Math.max(1, permitsPerHost);
+    }
+
+    void acquire(String host) throws InterruptedException {
+        semaphoreFor(host).acquire();
+    }
+
+    void release(String host) {
+        semaphoreFor(host).release();
+    }
+
+    private Semaphore semaphoreFor(String host) {
+        return hosts.computeIfAbsent(host, h -> new Semaphore(permitsPerHost, true));
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host != null ? host.toLowerCase() : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package jobanalysis.scraping;
+
+import org.jsoup.nodes.Document;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket per host shared by every scraping thread. The rate adapts to how the host
+ * responds: it is halved with a cool-down whenever the host throttles us (429/503, captcha)
+ * and grows back slowly while responses stay healthy.
+ */
+public class HostRateLimiter {
+    private static final double INCREASE_STEP = 0.05;
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final long COOL_DOWN_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    // Whole titles of the status and interstitial pages hosts serve instead of results, lower-cased
+    private static final Set<String> THROTTLE_TITLES = Set.of(
+            "429 too many requests", "too many requests", "503 service unavailable",
+            "503 service temporarily unavailable", "just a moment...", "just a moment…",
+            "attention required! | cloudflare", "security check", "captcha");
+
+    // Challenge forms and captcha frames; a page is only a challenge when it has no job content too,
+    // so an apply form with a captcha widget next to the postings does not count
+    static final String CHALLENGE_SELECTOR = "form#challenge-form, form[action*='__cf_chl'], #cf-challenge-running, "
+            + "iframe[src*='recaptcha'], iframe[src*='hcaptcha'], iframe[src*='captcha-delivery'], "
+            + "iframe[src*='challenges.cloudflare.com']";
+    static final String JOB_CONTENT_SELECTOR = "[class*='job'], [id*='job'], [data-jk], [data-job-id], "
+            + "script[type='application/ld+json']";
+
+    private final double initialRate;
+    private final double minRate;
+    private final double maxRate;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public HostRateLimiter(double initialRate, double minRate, double maxRate) {
+        this.minRate = minRate;
+        this.maxRate = Math.max(minRate, maxRate);
+        this.initialRate = Math.min(this.maxRate, Math.max(minRate, initialRate));
+    }
+
+    private class Bucket {
+        private double rate = initialRate;
+        private double tokens = 1;
+        private long lastRefill = System.nanoTime();
+        private long blockedUntil;
+
+        // Takes a token, possibly going into debt, and returns how long the caller must wait for it
+        private synchronized long reserve() {
+            long now = System.nanoTime();
+            double capacity = Math.max(1, rate);
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / 1e9 * rate);
+            lastRefill = now;
+            tokens -= 1;
+
+            long wait = tokens >= 0 ? 0 : (long) (-tokens / rate * 1e9);
+            return Math.max(wait, blockedUntil - now);
+        }
+
+        private synchronized void increase() {
+            rate = Math.min(maxRate, rate + INCREASE_STEP);
+        }
+
+        private synchronized void decrease() {
+            rate = Math.max(minRate, rate * DECREASE_FACTOR);
+            tokens = Math.min(tokens, 0);
+            blockedUntil = System.nanoTime() + COOL_DOWN_NANOS;
+        }
+
+        private synchronized double getRate() {
+            return rate;
+        }
+    }
+
+    public void acquire(String host) throws InterruptedException {
+        long waitNanos = bucketFor(host).reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public void onSuccess(String host) {
+        bucketFor(host).increase();
+    }
+
+    public void onThrottled(String host) {
+        bucketFor(host).decrease();
+        System.err.println("Host " + host + " is throttling us, slowing down to "
+                + String.format("%.2f", getCurrentRate(host)) + " requests/s");
+    }
+
+    // Requests per second currently allowed for the host
+    public double getCurrentRate(String host) {
+        return bucketFor(host).getRate();
+    }
+
+    public Map<String, Double> getCurrentRates() {
+        Map<String, Double> rates = new TreeMap<>();
+        buckets.forEach((host, bucket) -> rates.put(host, bucket.getRate()));
+        return rates;
+    }
+
+    private Bucket bucketFor(String host) {
+        return buckets.computeIfAbsent(host, h -> new Bucket());
+    }
+
+    // Status codes and page markers that mean the host wants us to back off
+    public static boolean isThrottleStatus(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    public static boolean isThrottleTitle(String title) {
+        return title != null && THROTTLE_TITLES.contains(title.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public static boolean looksThrottled(Document doc) {
+        return isThrottleTitle(doc.title()) || isChallengePage(doc);
+    }
+
+    static boolean isChallengePage(Document doc) {
+        return doc.selectFirst(CHALLENGE_SELECTOR) != null && doc.selectFirst(JOB_CONTENT_SELECTOR) == null;
+    }
+}
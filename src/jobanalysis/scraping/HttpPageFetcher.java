@@ -0,0 +1,126 @@
+package jobanalysis.scraping;
+
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fetches server-rendered pages with a plain HTTP GET and remembers, per site and page kind,
+ * whether that was enough or the site needs a real browser.
+ *
+ * A site moves to the browser at once when it rejects plain requests (403, LinkedIn's 999, a
+ * challenge page), or after several pages in a row came back without content, so one empty page
+ * past the last result does not decide it. Sites on the browser are probed over HTTP again every
+ * REPROBE_INTERVAL pages.
+ */
+class HttpPageFetcher {
+    enum PageKind { LISTING, DETAIL }
+
+    // What a plain GET gave for a page
+    enum Outcome { CONTENT, EMPTY, REJECTED }
+
+    private static final int EMPTY_PAGES_BEFORE_BROWSER = 3;
+    private static final int REPROBE_INTERVAL = 20;
+    // Jsoup cuts bodies at 2 MB by default, without an error; listing pages can be several MB
+    private static final int MAX_BODY_SIZE = 32 * 1024 * 1024;
+
+    static class Response {
+        private final int statusCode;
+        private final String body;
+        private final Document document;
+
+        private Response(int statusCode, String body, Document document) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.document = document;
+        }
+
+        int getStatusCode() { return statusCode; }
+        String getBody() { return body; }
+        Document getDocument() { return document; }
+        boolean isOk() { return statusCode >= 200 && statusCode < 300; }
+    }
+
+    private final String[] userAgents;
+    private final int timeout;
+    private final Random random;
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+
+    private static class Decision {
+        private boolean browser;
+        private int emptyPages;
+        private int skippedPages;
+    }
+
+    HttpPageFetcher(String[] userAgents, int timeout, Random random) {
+        this.userAgents = userAgents;
+        this.timeout = timeout;
+        this.random = random;
+    }
+
+    // Returns null when the request itself failed (network error, non-HTML content...)
+    Response fetch(String url) {
+        try {
+            Connection.Response response = Jsoup.connect(url)
+                    .userAgent(userAgents[random.nextInt(userAgents.length)])
+                    .header("Accept-Language", "en-US,en;q=0.9,fr;q=0.8")
+                    .timeout(timeout)
+                    .maxBodySize(MAX_BODY_SIZE)
+                    .followRedirects(true)
+                    .ignoreHttpErrors(true)
+                    .execute();
+            String body = response.body();
+            return new Response(response.statusCode(), body, Jsoup.parse(body, url));
+        } catch (IOException e) {
+            System.err.println("HTTP fetch failed for " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Sites are tried over HTTP until they are moved to the browser, and then on every REPROBE_INTERVAL-th page
+    boolean shouldTryHttp(String host, PageKind kind) {
+        Decision decision = decisionFor(host, kind);
+        synchronized (decision) {
+            if (!decision.browser) {
+                return true;
+            }
+            if (++decision.skippedPages >= REPROBE_INTERVAL) {
+                decision.skippedPages = 0;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    void remember(String host, PageKind kind, Outcome outcome) {
+        Decision decision = decisionFor(host, kind);
+        boolean switched;
+        synchronized (decision) {
+            boolean wasBrowser = decision.browser;
+            if (outcome == Outcome.CONTENT) {
+                decision.emptyPages = 0;
+                decision.browser = false;
+            } else if (outcome == Outcome.REJECTED || ++decision.emptyPages >= EMPTY_PAGES_BEFORE_BROWSER) {
+                decision.browser = true;
+            }
+            switched = wasBrowser != decision.browser;
+        }
+        if (switched) {
+            System.out.println(kind + " pages on " + host + " will be fetched "
+                    + (outcome == Outcome.CONTENT ? "over plain HTTP" : "with the browser"));
+        }
+    }
+
+    private Decision decisionFor(String host, PageKind kind) {
+        return decisions.computeIfAbsent(key(host, kind), key -> new Decision());
+    }
+
+    private String key(String host, PageKind kind) {
+        return host + "|" + kind;
+    }
+}
@@ -0,0 +1,21 @@
+package jobanalysis.scraping;
+
+public class IndeedPortalParser implements PortalParser {
+    private static final SelectorSet SELECTORS = new SelectorSet.Builder()
+            .cards(JobSelectors.INDEED_CARDS)
+            .link(JobSelectors.INDEED_LINK)
+            .fields(JobSelectors.INDEED_FIELDS)
+            .build();
+
+    @Override
+    public String getName() { return "indeed"; }
+
+    @Override
+    public String getLabel() { return "Indeed"; }
+
+    @Override
+    public String getOrigin() { return "https://www.indeed.com"; }
+
+    @Override
+    public SelectorSet getSelectors() { return SELECTORS; }
+}
@@ -5,16 +5,30 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.devtools.DevToolsException;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import java.time.Duration;
 import java.io.IOException;
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class JSoupScraper {
     private static final String[] USER_AGENTS = {
@@ -26,96 +40,771 @@ public class JSoupScraper {
 
     private static final int TIMEOUT = 30000;
     private static final int MAX_RETRIES = 3;
-    private static final int BASE_DELAY = 2000;
+    private static final Duration CAPTURE_MAX_WAIT = Duration.ofSeconds(15);
+    private static final Duration CAPTURE_QUIET_PERIOD = Duration.ofMillis(800);
     private final Random random = new Random();
-
-    private static final Pattern SALARY_PATTERN = Pattern.compile(
-            "\\$?(\\d{1,3}(?:,\\d{3})*(?:\\.\\d{2})?(?:k|K)?)\\s*-?\\s*" +
-                    "\\$?(\\d{1,3}(?:,\\d{3})*(?:\\.\\d{2})?(?:k|K)?)?\\s*" +
-                    "(?:per|a|/)?\\s*(?:year|yr|month|mo|hour|hr|annual|annually)?",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    private static final Pattern EXPERIENCE_PATTERN = Pattern.compile(
-            "(\\d+(?:\\.\\d+)?)[+]?\\s*(?:-\\s*\\d+)?\\s*(?:year|yr)s?\\s*(?:of)?\\s*experience",
-            Pattern.CASE_INSENSITIVE
-    );
+    private final ScraperConfig config;
+    private final WebDriverPool driverPool;
+    private final ExecutorService detailExecutor;
+    private final HostConcurrencyLimiter hostLimiter;
+    private final HostRateLimiter rateLimiter;
+    private final HttpPageFetcher httpFetcher;
+    private final PageArchive archive;
+    private final PageReadiness readiness = new PageReadiness();
+    private final BrowserExtractor browserExtractor = new BrowserExtractor();
+    private static final JobCardMatcher CARD_MATCHER = new JobCardMatcher();
+    private static final BrowserExtractor.Spec DETAIL_SPEC = BrowserExtractor.Spec.forPage(JobSelectors.DETAIL_FIELDS,
+            Map.of("postedDateTime", new String[]{JobSelectors.DETAIL_POSTED_DATETIME, "datetime"}));
+    private static final SelectorSet DETAIL_SELECTORS = new SelectorSet.Builder()
+            .fields(JobSelectors.DETAIL_FIELDS)
+            .build();
+    // Fallbacks for generic cards, for fields their structured data did not provide
+    private static final SelectorSet GENERIC_CARD_SELECTORS = new SelectorSet.Builder()
+            .field("title",
+                    "h1,h2,h3,h4",
+                    "[class*=job-title], [class*=jobtitle], [class*=job_title]",
+                    "[data-test*=title], [data-automation*=title]",
+                    "[class*=title]:not(html):not(head):not(body)")
+            .field("company",
+                    "[class*=company-name], [class*=companyName]",
+                    "[class*=employer], [class*=organization]",
+                    "*:contains(Company:), *:contains(Employer:)")
+            .field("location",
+                    "[class*=location], [class*=address]",
+                    "[class*=city], [class*=region]",
+                    "*:contains(Location:)")
+            .field("salary",
+                    "[class*=salary], [class*=compensation]",
+                    "*:contains($), *:contains(€), *:contains(£)",
+                    "*:contains(Salary:)")
+            .field("description", "[class*=description]")
+            .field("employmentType", "[class*=employment-type], [class*=job-type]")
+            .field("workplaceType", "[class*=workplace-type], [class*=work-type]")
+            .field("postedDate", "time[datetime], [class*=posted]")
+            // .field("experienceLevel", "[class*=experience], [class*=seniority]")
+            .field("requiredSkills", "[class*=skills], [class*=requirements]")
+            .field("benefits", "[class*=benefits], [class*=perks]")
+            .build();
+    private static final Evaluator JOB_LINK = QueryParser.parse("a[href*=job], a[href*=career], a[href*=position]");
+    private static final Evaluator TITLE_TEXT = QueryParser.parse("[class*=title]");
+    private static final Evaluator ANY_LINK = QueryParser.parse("a[href]");
+    private final Map<String, BrowserExtractor.Spec> cardSpecs = new ConcurrentHashMap<>();
+    private final ScraperMetrics metrics = new ScraperMetrics();
 
     @FunctionalInterface
     private interface JobParser {
         List<JobOffer> parseJobs(Document doc);
     }
 
+    private static class PageResult {
+        private final List<JobOffer> jobs;
+        private final boolean onlyKnownJobs;
+        // The listing could not be fetched; an empty page is not a failure
+        private final boolean failed;
+
+        private PageResult(List<JobOffer> jobs, boolean onlyKnownJobs) {
+            this(jobs, onlyKnownJobs, false);
+        }
+
+        private PageResult(List<JobOffer> jobs, boolean onlyKnownJobs, boolean failed) {
+            this.jobs = jobs;
+            this.onlyKnownJobs = onlyKnownJobs;
+            this.failed = failed;
+        }
+    }
+
+    public JSoupScraper() {
+        this(ScraperConfig.defaults());
+    }
+
+    public JSoupScraper(ScraperConfig config) {
+        this.config = config;
+        this.driverPool = new WebDriverPool(this::initializeDriver,
+                config.getBrowserPoolSize(), config.getMaxDriverReuse());
+        this.detailExecutor = newWorkerPool("detail-worker", config.getDetailWorkers());
+        this.hostLimiter = new HostConcurrencyLimiter(config.getMaxDetailsPerHost());
+        this.rateLimiter = new HostRateLimiter(config.getInitialRequestsPerSecond(),
+                config.getMinRequestsPerSecond(), config.getMaxRequestsPerSecond());
+        this.httpFetcher = new HttpPageFetcher(USER_AGENTS, TIMEOUT, random);
+        this.archive = openArchive(config);
+    }
+
+    private static PageArchive openArchive(ScraperConfig config) {
+        if (config.getArchiveDirectory() == null) {
+            return null;
+        }
+        try {
+            return new PageArchive(config.getArchiveDirectory());
+        } catch (IOException e) {
+            System.err.println("Page archive disabled, cannot open " + config.getArchiveDirectory()
+                    + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Launches browsers ahead of the first scrape
+    public void warmUp() {
+        driverPool.warmUp(config.getBrowserPoolSize());
+    }
+
+    public ScraperMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void shutdown() {
+        detailExecutor.shutdownNow();
+        driverPool.close();
+    }
+
     // Public methods
     public List<JobOffer> scrapeJobPortal(String portalName, String url) {
         System.out.println("Starting scrape for " + portalName + " at URL: " + url);
-        return switch (portalName.toLowerCase()) {
-            case "linkedin" -> scrapeWithSelenium(url, this::parseLinkedInJob);
-            case "indeed" -> scrapeWithSelenium(url, this::parseIndeedJob);
-            default -> scrapeWithSelenium(url, this::parseGenericJob);
-        };
+        return dropNearDuplicates(scrapeTrackedListing(portalName, url, job -> {}).jobs, nearDuplicateIndex());
+
+    }
+
+    // Emits each job as soon as its details are in; the scrape starts when a subscriber arrives
+    public Flow.Publisher<JobOffer> streamJobPortal(String portalName, String url) {
+        return new JobOfferPublisher("scrape-" + portalName, sink -> {
+            System.out.println("Starting streamed scrape for " + portalName + " at URL: " + url);
+            scrapeTrackedListing(portalName, url, dropNearDuplicates(sink, nearDuplicateIndex()));
+        });
+    }
+
+    // One keyword/location query across LinkedIn, Indeed and any portal added to the returned search
+    public FederatedSearch federatedSearch() {
+        return new FederatedSearch(listingScraper(), config.getPortalWorkers(), this::nearDuplicateIndex);
+    }
+
+    // Budgeted crawl over many queries, paginating the most productive ones; see CrawlScheduler
+    public CrawlScheduler.Builder crawlScheduler() {
+        return new CrawlScheduler.Builder(listingScraper(), this::nearDuplicateIndex, config.getPageWorkers());
+    }
+
+    private ListingScraper listingScraper() {
+        return (portalName, url, sink) -> scrapeTrackedListing(portalName, url, sink).onlyKnownJobs;
+    }
 
+    public Flow.Publisher<JobOffer> streamMultiplePages(String baseUrl, int numberOfPages) {
+        return new JobOfferPublisher("scrape-pages", sink -> streamPages(baseUrl, numberOfPages, sink));
     }
 
     public List<JobOffer> scrapeMultiplePages(String baseUrl, int numberOfPages) {
+        return scrapeMultiplePages(baseUrl, numberOfPages, config.getPageWorkers());
+    }
+
+    public List<JobOffer> scrapeMultiplePages(String baseUrl, int numberOfPages, int workers) {
+        int poolSize = Math.max(1, Math.min(workers, numberOfPages));
+        ExecutorService executor = newWorkerPool("page-worker", poolSize);
+        List<Future<List<JobOffer>>> pageResults = new ArrayList<>();
         List<JobOffer> allJobs = new ArrayList<>();
-        for (int page = 1; page <= numberOfPages; page++) {
-            try {
-                System.out.println("Scraping page " + page + " of " + numberOfPages);
+        AtomicInteger lastUsefulPage = new AtomicInteger(numberOfPages);
+        NearDuplicateIndex nearDuplicates = nearDuplicateIndex();
+
+        try {
+            for (int page = 1; page <= numberOfPages; page++) {
+                final int pageNumber = page;
                 String pageUrl = constructPageUrl(baseUrl, page);
-                List<JobOffer> pageJobs = scrapeJobPortal("generic", pageUrl);
-                allJobs.addAll(pageJobs);
-                Thread.sleep(BASE_DELAY + random.nextInt(2000));
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception e) {
-                System.err.println("Error scraping page " + page + ": " + e.getMessage());
+                queuePage(pageUrl, "generic");
+                pageResults.add(executor.submit(
+                        () -> scrapePage(pageUrl, pageNumber, numberOfPages, lastUsefulPage, job -> {})));
             }
+
+            // Merge in page order, dropping jobs already seen on an earlier page or, when enabled, near-duplicates of them
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < pageResults.size(); i++) {
+                if (i + 1 > lastUsefulPage.get()) {
+                    break;
+                }
+                try {
+                    for (JobOffer job : pageResults.get(i).get()) {
+                        if (seen.add(jobKey(job)) && (nearDuplicates == null || nearDuplicates.addIfNew(job))) {
+                            allJobs.add(job);
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    System.err.println("Error scraping page " + (i + 1) + ": " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
         }
+
+        System.out.println("Collected " + allJobs.size() + " unique jobs from " + numberOfPages
+                + " pages using " + poolSize + " workers");
+        System.out.println(metrics.summary());
         return allJobs;
     }
 
-    // Core scraping functionality
-    private List<JobOffer> scrapeWithSelenium(String url, JobParser parser) {
-        WebDriver driver = null;
-        List<JobOffer> jobs = new ArrayList<>();
+    // Jobs from different pages arrive interleaved; repeats of an already emitted job are dropped
+    private void streamPages(String baseUrl, int numberOfPages, Consumer<JobOffer> sink) throws InterruptedException {
+        int poolSize = Math.max(1, Math.min(config.getPageWorkers(), numberOfPages));
+        ExecutorService executor = newWorkerPool("page-worker", poolSize);
+        AtomicInteger lastUsefulPage = new AtomicInteger(numberOfPages);
+        Set<String> emitted = ConcurrentHashMap.newKeySet();
+        Consumer<JobOffer> nearDuplicateFilter = dropNearDuplicates(sink, nearDuplicateIndex());
+        Consumer<JobOffer> uniqueSink = job -> {
+            if (emitted.add(jobKey(job))) {
+                nearDuplicateFilter.accept(job);
+            }
+        };
 
         try {
-            driver = initializeDriver();
-            System.out.println("Loading page: " + url);
-            driver.get(url);
-            waitAndScroll(driver);
+            List<Future<List<JobOffer>>> pageResults = new ArrayList<>();
+            for (int page = 1; page <= numberOfPages; page++) {
+                final int pageNumber = page;
+                String pageUrl = constructPageUrl(baseUrl, page);
+                queuePage(pageUrl, "generic");
+                pageResults.add(executor.submit(() -> {
+                    scrapePage(pageUrl, pageNumber, numberOfPages, lastUsefulPage, uniqueSink);
+                    return List.<JobOffer>of();
+                }));
+            }
+            for (int i = 0; i < pageResults.size(); i++) {
+                try {
+                    pageResults.get(i).get();
+                } catch (ExecutionException e) {
+                    System.err.println("Error scraping page " + (i + 1) + ": " + e.getCause().getMessage());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
 
-            String pageSource = driver.getPageSource();
-            System.out.println("Page source length: " + pageSource.length());
-            Document doc = Jsoup.parse(pageSource);
+        System.out.println("Streamed jobs from " + emitted.size() + " unique URLs on " + numberOfPages + " pages");
+        System.out.println(metrics.summary());
+    }
 
-            List<JobOffer> basicJobs = parser.parseJobs(doc);
-            System.out.println("Found " + basicJobs.size() + " jobs, fetching details...");
+    // Finishes every page left pending in the crawl frontier, whichever query queued it
+    public List<JobOffer> resumePendingPages() {
+        CrawlFrontier frontier = config.getFrontier();
+        if (frontier == null) {
+            return new ArrayList<>();
+        }
 
-            for (JobOffer basicJob : basicJobs) {
+        Map<String, String> pending = frontier.getPendingPages();
+        System.out.println("Resuming " + pending.size() + " pending pages from " + frontier.getDirectory());
+        ExecutorService executor = newWorkerPool("page-worker", config.getPageWorkers());
+        List<Future<PageResult>> pageResults = new ArrayList<>();
+        Map<String, JobOffer> jobs = new LinkedHashMap<>();
+
+        try {
+            pending.forEach((url, portal) ->
+                    pageResults.add(executor.submit(() -> scrapeTrackedListing(portal, url, job -> {}))));
+            for (Future<PageResult> pageResult : pageResults) {
                 try {
-                    JobOffer detailedJob = scrapeJobDetails(basicJob, driver);
-                    jobs.add(detailedJob);
-                    Thread.sleep(BASE_DELAY + random.nextInt(1000));
-                } catch (Exception e) {
-                    System.err.println("Error getting details for job: " + basicJob.getTitle());
-                    System.err.println("Error: " + e.getMessage());
+                    pageResult.get().jobs.forEach(job -> jobs.putIfAbsent(jobKey(job), job));
+                } catch (ExecutionException e) {
+                    System.err.println("Error resuming page: " + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return dropNearDuplicates(new ArrayList<>(jobs.values()), nearDuplicateIndex());
+    }
+
+    // Re-runs the parsers over archived pages, without any network access
+    public List<JobOffer> replayArchive(PageArchive pageArchive) throws IOException {
+        List<PageArchive.Entry> listings = new ArrayList<>();
+        Map<String, PageArchive.Entry> latestDetails = new HashMap<>();
+        for (PageArchive.Entry entry : pageArchive.entries()) {
+            if (entry.isListing()) {
+                listings.add(entry);
+            } else {
+                latestDetails.merge(entry.getUrl(), entry,
+                        (a, b) -> b.getCapturedAt().isAfter(a.getCapturedAt()) ? b : a);
+            }
+        }
+        listings.sort(Comparator.comparing(PageArchive.Entry::getCapturedAt));
+        System.out.println("Replaying " + listings.size() + " listing pages and "
+                + latestDetails.size() + " detail pages from " + pageArchive.getDirectory());
+
+        List<List<JobOffer>> replayed = listings.parallelStream()
+                .map(listing -> replayListing(pageArchive, listing, latestDetails))
+                .collect(Collectors.toList());
+
+        // Later captures of the same job replace earlier ones
+        Map<String, JobOffer> jobs = new LinkedHashMap<>();
+        replayed.forEach(page -> page.forEach(job -> jobs.put(jobKey(job), job)));
+        return dropNearDuplicates(new ArrayList<>(jobs.values()), nearDuplicateIndex());
+    }
+
+    private List<JobOffer> replayListing(PageArchive pageArchive, PageArchive.Entry listing,
+                                         Map<String, PageArchive.Entry> latestDetails) {
+        List<JobOffer> jobs = new ArrayList<>();
+        try {
+            Document doc = Jsoup.parse(pageArchive.load(listing), listing.getUrl());
+            for (JobOffer basicJob : parserFor(listing.getPortal()).parseJobs(doc)) {
+                PageArchive.Entry detail = latestDetails.get(basicJob.getUrl());
+                if (detail == null) {
                     jobs.add(basicJob);
+                } else {
+                    jobs.add(enhanceJobOffer(basicJob, Jsoup.parse(pageArchive.load(detail), detail.getUrl())));
                 }
             }
+        } catch (IOException e) {
+            System.err.println("Error replaying " + listing.getUrl() + ": " + e.getMessage());
+        }
+        return jobs;
+    }
+
+    // Listings are stored under their portal name so replay picks the same parser; detail pages pass null
+    private void archivePage(String url, String portalName, String pageSource) {
+        if (archive == null) {
+            return;
+        }
+        if (portalName == null) {
+            archive.store(url, "", HttpPageFetcher.PageKind.DETAIL, pageSource);
+        } else {
+            archive.store(url, portalName.toLowerCase(), HttpPageFetcher.PageKind.LISTING, pageSource);
+        }
+    }
+
+    // Registered portal parsers first, the generic card matcher for any other board
+    private JobParser parserFor(String portalName) {
+        PortalParser portal = PortalParsers.forPortal(portalName);
+        if (portal == null) {
+            return this::parseGenericJob;
+        }
+        return doc -> {
+            List<Map<String, String>> cards = portal.parseCards(doc);
+            System.out.println("Found " + cards.size() + " " + portal.getLabel() + " job cards");
+            return toCardJobs(cards, portal.getOrigin(), portal.getLabel());
+        };
+    }
+
+    private PageReadiness.Profile profileFor(String portalName) {
+        PortalParser portal = PortalParsers.forPortal(portalName);
+        return portal != null ? portal.getProfile() : PageReadiness.Profile.forPortal(portalName);
+    }
+
+    private List<JobOffer> scrapePage(String pageUrl, int page, int numberOfPages, AtomicInteger lastUsefulPage,
+                                      Consumer<JobOffer> sink) {
+        if (page > lastUsefulPage.get()) {
+            return new ArrayList<>();
+        }
+        System.out.println("Scraping page " + page + " of " + numberOfPages);
+        PageResult result = scrapeTrackedListing("generic", pageUrl, sink);
+        if (result.onlyKnownJobs) {
+            lastUsefulPage.accumulateAndGet(page, Math::min);
+            System.out.println("Page " + page + " only lists known jobs, stopping pagination");
+        }
+        return result.jobs;
+    }
+
+    // null when near-duplicate filtering is off; the configured index spans calls and portals, without
+    // one duplicates are only caught within a call
+    private NearDuplicateIndex nearDuplicateIndex() {
+        if (!config.isNearDuplicateFiltering()) {
+            return null;
+        }
+        return config.getNearDuplicates() != null ? config.getNearDuplicates() : new NearDuplicateIndex();
+    }
+
+    private List<JobOffer> dropNearDuplicates(List<JobOffer> jobs, NearDuplicateIndex index) {
+        if (index == null) {
+            return jobs;
+        }
+        List<JobOffer> unique = new ArrayList<>();
+        for (JobOffer job : jobs) {
+            if (index.addIfNew(job)) {
+                unique.add(job);
+            }
+        }
+        if (unique.size() < jobs.size()) {
+            System.out.println("Dropped " + (jobs.size() - unique.size()) + " near-duplicate jobs");
+        }
+        return unique;
+    }
+
+    private Consumer<JobOffer> dropNearDuplicates(Consumer<JobOffer> sink, NearDuplicateIndex index) {
+        if (index == null) {
+            return sink;
+        }
+        return job -> {
+            if (index.addIfNew(job)) {
+                sink.accept(job);
+            }
+        };
+    }
+
+    static String jobKey(JobOffer job) {
+        if (!job.getUrl().isEmpty()) {
+            return JobIdentity.canonicalUrl(job.getUrl());
+        }
+        return (job.getTitle() + "|" + job.getCompany()).toLowerCase();
+    }
+
+    static ExecutorService newWorkerPool(String name, int size) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void queuePage(String url, String portalName) {
+        if (config.getFrontier() != null) {
+            config.getFrontier().addPage(url, portalName);
+        }
+    }
+
+    // Pages the frontier already finished are answered from its log instead of the network
+    private PageResult scrapeTrackedListing(String portalName, String url, Consumer<JobOffer> sink) {
+        CrawlFrontier frontier = config.getFrontier();
+        if (frontier == null) {
+            return scrapeListing(portalName, url, sink);
+        }
+
+        if (frontier.isPageDone(url)) {
+            List<JobOffer> jobs = frontier.getPageJobs(url);
+            System.out.println("Page already crawled, restoring " + jobs.size() + " jobs: " + url);
+            jobs.forEach(sink);
+            return new PageResult(jobs, frontier.isPageOnlyKnown(url));
+        }
+
+        frontier.addPage(url, portalName);
+        PageResult result = scrapeListing(portalName, url, sink);
+        // A failed or interrupted page may be missing jobs or details, leave it pending for the next run
+        if (!result.failed && !Thread.currentThread().isInterrupted()) {
+            frontier.completePage(url, result.jobs, result.onlyKnownJobs);
+        }
+        return result;
+    }
+
+    // Core scraping functionality
+    // Every job is also handed to the sink as soon as it is final
+    private PageResult scrapeListing(String portalName, String url, Consumer<JobOffer> sink) {
+        List<JobOffer> basicJobs = loadJobList(url, portalName);
+        if (basicJobs == null) {
+            return new PageResult(new ArrayList<>(), false, true);
+        }
+        if (basicJobs.isEmpty()) {
+            return new PageResult(basicJobs, false);
+        }
+
+        KnownJobIndex knownJobs = config.getKnownJobs();
+        if (knownJobs != null) {
+            List<JobOffer> newJobs = new ArrayList<>();
+            for (JobOffer job : basicJobs) {
+                if (!knownJobs.isKnownUnchanged(job)) {
+                    newJobs.add(job);
+                }
+            }
+            System.out.println("Skipping " + (basicJobs.size() - newJobs.size()) + " known unchanged jobs");
+            if (newJobs.isEmpty()) {
+                return new PageResult(newJobs, true);
+            }
+            basicJobs = newJobs;
+        }
+
+        System.out.println("Found " + basicJobs.size() + " jobs, fetching details...");
+        Consumer<JobOffer> emit = knownJobs == null ? sink : job -> {
+            knownJobs.remember(job);
+            sink.accept(job);
+        };
+        return new PageResult(fetchDetails(basicJobs, emit), false);
+    }
+
+    // null when the page could not be fetched
+    private List<JobOffer> loadJobList(String url, String portalName) {
+        JobParser parser = parserFor(portalName);
+        String host = HostConcurrencyLimiter.hostOf(url);
+        ScraperConfig.FetchMode fetchMode = config.getFetchMode();
+
+        try {
+            // HTTP_ONLY has no browser to fall back on, so HTTP is always tried there
+            if (fetchMode == ScraperConfig.FetchMode.HTTP_ONLY || (fetchMode != ScraperConfig.FetchMode.BROWSER
+                    && httpFetcher.shouldTryHttp(host, HttpPageFetcher.PageKind.LISTING))) {
+                HttpPageFetcher.Response response = fetchOverHttp(url, HttpPageFetcher.PageKind.LISTING);
+                if (response != null) {
+                    List<JobOffer> jobs = parser.parseJobs(response.getDocument());
+                    httpFetcher.remember(host, HttpPageFetcher.PageKind.LISTING,
+                            jobs.isEmpty() ? HttpPageFetcher.Outcome.EMPTY : HttpPageFetcher.Outcome.CONTENT);
+                    if (!jobs.isEmpty() || fetchMode == ScraperConfig.FetchMode.HTTP_ONLY) {
+                        metrics.recordFetch(HttpPageFetcher.PageKind.LISTING, true);
+                        archivePage(url, portalName, response.getBody());
+                        return jobs;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        if (fetchMode == ScraperConfig.FetchMode.HTTP_ONLY) {
+            return null;
+        }
+        return loadJobListWithBrowser(url, portalName, parser);
+    }
+
+    // null when the browser failed to load the page
+    private List<JobOffer> loadJobListWithBrowser(String url, String portalName, JobParser parser) {
+        PageReadiness.Profile profile = profileFor(portalName);
+        WebDriverPool.PooledDriver pooled = null;
+        boolean healthy = true;
+
+        try {
+            pooled = driverPool.borrow(config.getBrowserBorrowTimeout());
+            System.out.println("Loading page: " + url);
+            if (capturesNetwork(pooled.getDriver(), profile)) {
+                List<JobOffer> jobs = loadJobListFromPayloads(pooled.getDriver(), url, portalName, parser, profile);
+                if (jobs != null) {
+                    metrics.recordFetch(HttpPageFetcher.PageKind.LISTING, false);
+                    return jobs;
+                }
+            }
+            List<JobOffer> jobs = loadPage(pooled.getDriver(), url, profile,
+                    loaded -> readRenderedList(loaded, url, portalName, parser));
+            metrics.recordFetch(HttpPageFetcher.PageKind.LISTING, false);
+            return jobs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (WebDriverException e) {
+            healthy = false;
+            System.err.println("Browser error during scraping: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("Error during scraping: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            if (driver != null) {
-                driver.quit();
+            if (pooled != null) {
+                driverPool.release(pooled, healthy);
+            }
+        }
+        return null;
+    }
+
+    // Archiving needs the full page source, so in-browser extraction is off while an archive is configured
+    private boolean extractsInBrowser() {
+        return config.isBrowserExtraction() && archive == null;
+    }
+
+    // Generic listings need JobCardMatcher, which runs on a Jsoup document
+    private BrowserExtractor.Spec cardSpecFor(PortalParser portal) {
+        if (portal == null || portal.getSelectors().getCardSelector() == null) {
+            return null;
+        }
+        return cardSpecs.computeIfAbsent(portal.getName(), name -> {
+            SelectorSet selectors = portal.getSelectors();
+            return BrowserExtractor.Spec.forCards(selectors.getCardSelector(), selectors.getFieldSelectors(),
+                    selectors.getLinkSelector());
+        });
+    }
+
+    private boolean capturesNetwork(WebDriver driver, PageReadiness.Profile profile) {
+        return config.isNetworkCapture()
+                && (profile == PageReadiness.Profile.LINKEDIN || profile == PageReadiness.Profile.INDEED)
+                && NetworkCapture.isSupported(driver);
+    }
+
+    // Reads the listing from the JSON calls the page makes; no scrolling and no page source transfer.
+    // Pages read from payloads are not archived since replay parses HTML. When no payload carries
+    // jobs the page already loaded is read instead, so it is not navigated to a second time.
+    // null when the capture failed or the page was throttled, for loadPage to retry
+    private List<JobOffer> loadJobListFromPayloads(WebDriver driver, String url, String portalName, JobParser parser,
+                                                   PageReadiness.Profile profile) throws InterruptedException {
+        String host = HostConcurrencyLimiter.hostOf(url);
+        rateLimiter.acquire(host);
+        // The blocker is closed first; closing either one clears all DevTools listeners
+        try (NetworkCapture capture = NetworkCapture.start(driver,
+                responseUrl -> JobPayloadMapper.isJobPayload(profile, responseUrl));
+             ResourceBlocker blocker = ResourceBlocker.start(driver, config.getResourceBlocking(), profile, url)) {
+            driver.get(url);
+            List<NetworkCapture.Payload> payloads = capture.awaitPayloads(CAPTURE_MAX_WAIT, CAPTURE_QUIET_PERIOD,
+                    () -> PageReadiness.isDocumentComplete(driver));
+            List<JobOffer> jobs = JobPayloadMapper.mapAll(profile, payloads);
+            System.out.println("Captured " + payloads.size() + " payloads with " + jobs.size() + " jobs");
+            if (jobs.isEmpty()) {
+                System.out.println("No job payloads captured, reading the rendered page");
+                waitUntilReady(driver, profile);
+                jobs = readRenderedList(driver, url, portalName, parser);
+            }
+            recordResourceUsage(blocker, profile, url);
+            if (jobs == null) {
+                recordThrottled(host);
+                return null;
+            }
+            recordSuccess(host);
+            return jobs;
+        } catch (DevToolsException e) {
+            System.err.println("Network capture failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Cards of the listing loaded in the browser; null when it is a throttling or captcha page
+    private List<JobOffer> readRenderedList(WebDriver driver, String url, String portalName, JobParser parser) {
+        PortalParser portal = PortalParsers.forPortal(portalName);
+        BrowserExtractor.Spec spec = cardSpecFor(portal);
+        if (spec != null && extractsInBrowser()) {
+            BrowserExtractor.Page page = browserExtractor.extract(driver, spec);
+            return page.looksThrottled() ? null : toCardJobs(page.getItems(), portal.getOrigin(), portal.getLabel());
+        }
+        String pageSource = driver.getPageSource();
+        // Parsed once, for the throttle check and the parser
+        Document doc = Jsoup.parse(pageSource, url);
+        if (HostRateLimiter.looksThrottled(doc)) {
+            return null;
+        }
+        System.out.println("Page source length: " + pageSource.length());
+        archivePage(url, portalName, pageSource);
+        return parser.parseJobs(doc);
+    }
+
+    // Enriches all cards concurrently; cards not done by the deadline keep their basic data.
+    // Jobs reach the sink in completion order, the returned list keeps the card order.
+    private List<JobOffer> fetchDetails(List<JobOffer> basicJobs, Consumer<JobOffer> sink) {
+        long deadline = System.nanoTime() + config.getDetailDeadline().toNanos();
+        CompletionService<JobOffer> completion = new ExecutorCompletionService<>(detailExecutor);
+        Map<Future<JobOffer>, Integer> pending = new HashMap<>();
+        for (int i = 0; i < basicJobs.size(); i++) {
+            JobOffer basicJob = basicJobs.get(i);
+            pending.put(completion.submit(() -> fetchDetail(basicJob)), i);
+        }
+
+        List<JobOffer> jobs = new ArrayList<>(basicJobs);
+        boolean interrupted = false;
+        try {
+            while (!pending.isEmpty()) {
+                Future<JobOffer> done = completion.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    break;
+                }
+                int index = pending.remove(done);
+                try {
+                    jobs.set(index, done.get());
+                } catch (ExecutionException e) {
+                    System.err.println("Error getting details for job: " + basicJobs.get(index).getTitle());
+                    System.err.println("Error: " + e.getCause().getMessage());
+                }
+                sink.accept(jobs.get(index));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = true;
+        }
+
+        if (!pending.isEmpty()) {
+            pending.keySet().forEach(future -> future.cancel(true));
+            if (!interrupted) {
+                System.out.println("Detail deadline reached, " + pending.size() + " jobs kept with card data only");
+                pending.values().stream().sorted().forEach(index -> sink.accept(jobs.get(index)));
             }
         }
         return jobs;
     }
 
+    private JobOffer fetchDetail(JobOffer basicJob) throws InterruptedException {
+        CrawlFrontier frontier = config.getFrontier();
+        if (frontier == null || basicJob.getUrl().isEmpty()) {
+            return fetchDetailFromSite(basicJob);
+        }
+
+        // Reuse details fetched by an earlier run or query, unless the card has changed since
+        JobOffer done = frontier.getCompletedDetail(basicJob.getUrl());
+        if (done != null && JobIdentity.cardFingerprint(done).equals(JobIdentity.cardFingerprint(basicJob))) {
+            return done;
+        }
+
+        JobOffer detailedJob = fetchDetailFromSite(basicJob);
+        if (detailedJob != basicJob) {
+            frontier.completeDetail(detailedJob);
+        }
+        return detailedJob;
+    }
+
+    private JobOffer fetchDetailFromSite(JobOffer basicJob) throws InterruptedException {
+        if (basicJob.getUrl().isEmpty()) {
+            return basicJob;
+        }
+
+        String host = HostConcurrencyLimiter.hostOf(basicJob.getUrl());
+        hostLimiter.acquire(host);
+        try {
+            JobOffer detailedJob = fetchDetailOverHttp(basicJob, host);
+            if (detailedJob != null) {
+                return detailedJob;
+            }
+            if (config.getFetchMode() == ScraperConfig.FetchMode.HTTP_ONLY) {
+                return basicJob;
+            }
+
+            WebDriverPool.PooledDriver pooled = driverPool.borrow(config.getBrowserBorrowTimeout());
+            boolean healthy = true;
+            try {
+                detailedJob = scrapeJobDetails(basicJob, pooled.getDriver());
+            } catch (WebDriverException | InterruptedException e) {
+                // A timed-out or crashed session is not safe to hand to the next job
+                healthy = false;
+                throw e;
+            } finally {
+                driverPool.release(pooled, healthy);
+            }
+            metrics.recordFetch(HttpPageFetcher.PageKind.DETAIL, false);
+            return detailedJob;
+        } finally {
+            hostLimiter.release(host);
+        }
+    }
+
+    // Returns null when the detail page has to be rendered by the browser
+    private JobOffer fetchDetailOverHttp(JobOffer basicJob, String host) throws InterruptedException {
+        ScraperConfig.FetchMode fetchMode = config.getFetchMode();
+        if (fetchMode == ScraperConfig.FetchMode.BROWSER || (fetchMode != ScraperConfig.FetchMode.HTTP_ONLY
+                && !httpFetcher.shouldTryHttp(host, HttpPageFetcher.PageKind.DETAIL))) {
+            return null;
+        }
+
+        HttpPageFetcher.Response response = fetchOverHttp(basicJob.getUrl(), HttpPageFetcher.PageKind.DETAIL);
+        if (response == null) {
+            return null;
+        }
+        Document doc = response.getDocument();
+        boolean hasContent = !extractDetailField(doc, "description").isEmpty();
+        httpFetcher.remember(host, HttpPageFetcher.PageKind.DETAIL,
+                hasContent ? HttpPageFetcher.Outcome.CONTENT : HttpPageFetcher.Outcome.EMPTY);
+        if (!hasContent) {
+            return null;
+        }
+        metrics.recordFetch(HttpPageFetcher.PageKind.DETAIL, true);
+        archivePage(basicJob.getUrl(), null, response.getBody());
+        return enhanceJobOffer(basicJob, doc);
+    }
+
+    // Plain GET under the host's rate limit; null when the response is unusable. Rejected and
+    // throttled responses move the host's pages of this kind to the browser.
+    private HttpPageFetcher.Response fetchOverHttp(String url, HttpPageFetcher.PageKind kind) throws InterruptedException {
+        String host = HostConcurrencyLimiter.hostOf(url);
+        rateLimiter.acquire(host);
+        HttpPageFetcher.Response response = httpFetcher.fetch(url);
+        if (response == null) {
+            httpFetcher.remember(host, kind, HttpPageFetcher.Outcome.EMPTY);
+            return null;
+        }
+
+        Document doc = response.getDocument();
+        if (HostRateLimiter.isThrottleStatus(response.getStatusCode())
+                || HostRateLimiter.looksThrottled(doc)) {
+            recordThrottled(host);
+            httpFetcher.remember(host, kind, HttpPageFetcher.Outcome.REJECTED);
+            return null;
+        }
+        if (!response.isOk()) {
+            System.err.println("HTTP " + response.getStatusCode() + " for " + url);
+            httpFetcher.remember(host, kind, HttpPageFetcher.Outcome.REJECTED);
+            return null;
+        }
+        recordSuccess(host);
+        return response;
+    }
+
     private WebDriver initializeDriver() {
         ChromeOptions options = new ChromeOptions();
         options.addArguments(
@@ -129,33 +818,88 @@ public class JSoupScraper {
         return new ChromeDriver(options);
     }
 
-    private void waitAndScroll(WebDriver driver) {
-        try {
-            JavascriptExecutor js = (JavascriptExecutor) driver;
-            Thread.sleep(5000);
+    // Navigates under the host's rate limit and retries pages that come back throttled
+    // The page is parsed once, for the throttle check and the caller; usable pages are archived
+    private Document loadDocument(WebDriver driver, String url, PageReadiness.Profile profile) throws InterruptedException {
+        return loadPage(driver, url, profile, loaded -> {
+            String pageSource = loaded.getPageSource();
+            Document doc = Jsoup.parse(pageSource, url);
+            if (HostRateLimiter.looksThrottled(doc)) {
+                return null;
+            }
+            archivePage(url, null, pageSource);
+            return doc;
+        });
+    }
 
-            long lastHeight = (long) js.executeScript("return document.documentElement.scrollHeight");
-            int noChangeCount = 0;
+    private BrowserExtractor.Page extractPage(WebDriver driver, String url, PageReadiness.Profile profile,
+                                              BrowserExtractor.Spec spec) throws InterruptedException {
+        return loadPage(driver, url, profile, loaded -> {
+            BrowserExtractor.Page page = browserExtractor.extract(loaded, spec);
+            return page.looksThrottled() ? null : page;
+        });
+    }
 
-            while (noChangeCount < 3) {
-                js.executeScript("window.scrollTo(0, document.documentElement.scrollHeight)");
-                Thread.sleep(3000);
+    // read returns null when the loaded page is a throttling or captcha page
+    private <T> T loadPage(WebDriver driver, String url, PageReadiness.Profile profile,
+                           Function<WebDriver, T> read) throws InterruptedException {
+        String host = HostConcurrencyLimiter.hostOf(url);
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire(host);
+            T result;
+            try (ResourceBlocker blocker = ResourceBlocker.start(driver, config.getResourceBlocking(), profile, url)) {
+                driver.get(url);
+                waitUntilReady(driver, profile);
+                result = read.apply(driver);
+                recordResourceUsage(blocker, profile, url);
+            }
+            if (result != null) {
+                recordSuccess(host);
+                return result;
+            }
 
-                long newHeight = (long) js.executeScript("return document.documentElement.scrollHeight");
-                if (newHeight == lastHeight) {
-                    noChangeCount++;
-                } else {
-                    noChangeCount = 0;
-                    lastHeight = newHeight;
-                }
-                Thread.sleep(1000);
+            recordThrottled(host);
+            if (attempt >= MAX_RETRIES) {
+                throw new IllegalStateException("Blocked by " + host + " after " + attempt + " attempts");
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
         }
     }
 
-    private String constructPageUrl(String baseUrl, int page) {
+    private void recordResourceUsage(ResourceBlocker blocker, PageReadiness.Profile profile, String url) {
+        if (blocker == null) {
+            return;
+        }
+        metrics.recordResourceUsage(profile, !blocker.isControl(), blocker.getBytes(), blocker.getElapsedMillis(),
+                blocker.getBlocked());
+        if (blocker.isControl()) {
+            System.out.println("Resources (unblocked sample): " + ScraperMetrics.formatBytes(blocker.getBytes())
+                    + " in " + blocker.getElapsedMillis() + " ms for " + url);
+        } else {
+            System.out.println("Resources: " + ScraperMetrics.formatBytes(blocker.getBytes()) + " in "
+                    + blocker.getElapsedMillis() + " ms, " + blocker.getBlocked() + " requests blocked, saved ~"
+                    + ScraperMetrics.formatBytes(metrics.getBytesSavedPerPage(profile)) + " and ~"
+                    + metrics.getMillisSavedPerPage(profile) + " ms vs unblocked pages, for " + url);
+        }
+    }
+
+    private void recordSuccess(String host) {
+        rateLimiter.onSuccess(host);
+        metrics.recordHostRate(host, rateLimiter.getCurrentRate(host));
+    }
+
+    private void recordThrottled(String host) {
+        rateLimiter.onThrottled(host);
+        metrics.recordThrottled(host);
+        metrics.recordHostRate(host, rateLimiter.getCurrentRate(host));
+    }
+
+    private void waitUntilReady(WebDriver driver, PageReadiness.Profile profile) throws InterruptedException {
+        PageReadiness.Report report = readiness.waitUntilReady(driver, profile);
+        metrics.recordPageReady(report);
+        System.out.println(report);
+    }
+
+    static String constructPageUrl(String baseUrl, int page) {
         if (baseUrl.contains("page=")) {
             return baseUrl.replaceAll("page=\\d+", "page=" + page);
         } else if (baseUrl.contains("p=")) {
@@ -170,10 +914,11 @@ public class JSoupScraper {
         System.out.println("Getting details for: " + basicJob.getTitle());
 
         try {
-            driver.get(basicJob.getUrl());
-            Thread.sleep(2000);
-
-            Document doc = Jsoup.parse(driver.getPageSource());
+            if (extractsInBrowser()) {
+                BrowserExtractor.Page page = extractPage(driver, basicJob.getUrl(), PageReadiness.Profile.DETAIL, DETAIL_SPEC);
+                return enhanceJobOffer(basicJob, page);
+            }
+            Document doc = loadDocument(driver, basicJob.getUrl(), PageReadiness.Profile.DETAIL);
             return enhanceJobOffer(basicJob, doc);
         } catch (Exception e) {
             System.err.println("Error scraping job details: " + e.getMessage());
@@ -183,130 +928,117 @@ public class JSoupScraper {
 
     private JobOffer enhanceJobOffer(JobOffer basicJob, Document doc) {
         try {
-            String fullDescription = extractFullDescription(doc);
-            String requirements = extractRequirements(doc);
-            String experienceLevel = extractExperienceLevel(doc, fullDescription);
-            String benefits = extractBenefits(doc);
-            String companyInfo = extractCompanyInfo(doc);
-            String applicationDeadline = extractApplicationDeadline(doc);
-            String postedDate = extractPostedDate(doc);
-            String salary = parseSalaryRange(basicJob.getSalary());
-
-            return new JobOffer.Builder()
-                    .setTitle(basicJob.getTitle())
-                    .setCompany(basicJob.getCompany())
-                    .setLocation(basicJob.getLocation())
-                    .setSalary(salary)
-                    .setDescription(fullDescription)
-                    .setRequiredSkills(requirements)
-                    .setEmploymentType(basicJob.getEmploymentType())
-                    .setExperienceLevel(experienceLevel)
-                    .setWorkplaceType(basicJob.getWorkplaceType())
-                    .setPostedDate(postedDate)
-                    .setApplicationDeadline(applicationDeadline)
-                    .setBenefits(benefits)
-                    .setCompanyDescription(companyInfo)
-                    .setUrl(basicJob.getUrl())
-                    .build();
+            // Fields from embedded JobPosting data; selectors only run for the ones it lacks
+            Map<String, String> structured = StructuredJobData.extractFirst(doc);
+            Map<String, String> detail = new HashMap<>();
+            for (String field : JobSelectors.DETAIL_FIELDS.keySet()) {
+                if (!structured.containsKey(field) && !field.equals("experienceLevel") && !field.equals("postedDate")) {
+                    detail.put(field, extractDetailField(doc, field));
+                }
+            }
+            if (!structured.containsKey("experienceLevel")) {
+                String description = structured.getOrDefault("description", detail.get("description"));
+                detail.put("experienceLevel", extractExperienceLevel(doc, description));
+            }
+            if (!structured.containsKey("postedDate")) {
+                detail.put("postedDate", extractPostedDate(doc));
+            }
+            return buildDetailedJob(basicJob, structured, detail);
         } catch (Exception e) {
             System.err.println("Error enhancing job offer: " + e.getMessage());
             return basicJob;
         }
     }
 
-    // Data extraction methods
-    private String extractFullDescription(Document doc) {
-        return findFirstMatch(doc,
-                "#job-details",
-                ".description__text",
-                "#jobDescriptionText",
-                "[class*=description]",
-                ".content",
-                "[class*=job-details]",
-                "[data-automation*=description]"
-        );
+    // Same as above from fields extracted in the browser
+    private JobOffer enhanceJobOffer(JobOffer basicJob, BrowserExtractor.Page page) {
+        try {
+            List<Map<String, String>> postings = new ArrayList<>();
+            for (String block : page.getJsonLd()) {
+                StructuredJobData.readJsonLd(block, postings);
+            }
+            Map<String, String> structured = postings.isEmpty() ? new HashMap<>() : postings.get(0);
+            Map<String, String> detail = page.getItems().isEmpty() ? new HashMap<>() : new HashMap<>(page.getItems().get(0));
+
+            String description = structured.getOrDefault("description", detail.getOrDefault("description", ""));
+            detail.put("experienceLevel", experienceOrScan(detail.getOrDefault("experienceLevel", ""), description));
+            if (detail.getOrDefault("postedDate", "").isEmpty()) {
+                detail.put("postedDate", detail.getOrDefault("postedDateTime", ""));
+            }
+            return buildDetailedJob(basicJob, structured, detail);
+        } catch (Exception e) {
+            System.err.println("Error enhancing job offer: " + e.getMessage());
+            return basicJob;
+        }
     }
 
-    private String extractRequirements(Document doc) {
-        return findFirstMatch(doc,
-                ".description__text ul",
-                "#jobDetailsSection",
-                "[class*=requirements]",
-                "[class*=qualifications]",
-                "div:contains(Requirements) + ul",
-                "div:contains(Qualifications) + ul",
-                "[data-automation*=requirements]"
-        );
+    // Structured values win over selector ones; card values win over both for the card fields
+    private JobOffer buildDetailedJob(JobOffer basicJob, Map<String, String> structured, Map<String, String> detail) {
+        String experienceLevel = structured.containsKey("experienceLevel")
+                ? categorizeExperienceText(structured.get("experienceLevel"))
+                : detail.getOrDefault("experienceLevel", "");
+        String salary = parseSalaryRange(orStructured(basicJob.getSalary(), structured, "salary"));
+
+        return new JobOffer.Builder()
+                .setTitle(orStructured(basicJob.getTitle(), structured, "title"))
+                .setCompany(orStructured(basicJob.getCompany(), structured, "company"))
+                .setLocation(orStructured(basicJob.getLocation(), structured, "location"))
+                .setSalary(salary)
+                .setDescription(detailField(structured, detail, "description"))
+                .setRequiredSkills(detailField(structured, detail, "requiredSkills"))
+                .setEmploymentType(orStructured(basicJob.getEmploymentType(), structured, "employmentType"))
+                .setExperienceLevel(experienceLevel)
+                .setWorkplaceType(orStructured(basicJob.getWorkplaceType(), structured, "workplaceType"))
+                .setPostedDate(detailField(structured, detail, "postedDate"))
+                .setApplicationDeadline(detailField(structured, detail, "applicationDeadline"))
+                .setBenefits(detailField(structured, detail, "benefits"))
+                .setCompanyDescription(detailField(structured, detail, "companyDescription"))
+                .setUrl(basicJob.getUrl())
+                .build();
     }
 
-    private String extractExperienceLevel(Document doc, String description) {
-        String experienceText = findFirstMatch(doc,
-                //"li:contains(Seniority level)",
-                "div[class*=experience-level]",
-                "span[class*=experience]",
-                "[data-automation*=experience]",
-                "div:contains(Experience)",
-                "div:contains(Years of experience)"
-        );
+    private String detailField(Map<String, String> structured, Map<String, String> detail, String field) {
+        return structured.containsKey(field) ? structured.get(field) : detail.getOrDefault(field, "");
+    }
 
-        if (experienceText.isEmpty() && description != null) {
-            Matcher matcher = EXPERIENCE_PATTERN.matcher(description);
-            if (matcher.find()) {
-                try {
-                    int years = Integer.parseInt(matcher.group(1));
-                    return categorizeExperience(years);
-                } catch (NumberFormatException e) {
-                    System.err.println("Error parsing experience years: " + e.getMessage());
-                }
-            }
+    private String orStructured(String value, Map<String, String> structured, String field) {
+        if (value != null && !value.isEmpty()) {
+            return value;
         }
-        return experienceText;
+        return structured.getOrDefault(field, "");
     }
 
-    private String extractBenefits(Document doc) {
-        return findFirstMatch(doc,
-                "[class*=benefits]",
-                "div:contains(Benefits)",
-                "section:contains(Benefits)",
-                "[data-automation*=benefits]",
-                "ul:contains(Health Insurance)",
-                "div:contains(What we offer)"
-        );
+    // experienceRequirements is free text; bucket it like descriptions when it states a number of years
+    private String categorizeExperienceText(String text) {
+        double years = ExperienceScanner.scanYears(text);
+        return years >= 0 ? categorizeExperience((int) years) : text;
     }
 
-    private String extractCompanyInfo(Document doc) {
-        return findFirstMatch(doc,
-                ".company-description",
-                "[class*=about-company]",
-                "#companyDetails",
-                "[data-automation*=company-info]",
-                "div:contains(About the company)",
-                "section:contains(About us)"
-        );
+    // Data extraction methods
+    private String extractDetailField(Document doc, String field) {
+        return DETAIL_SELECTORS.selectText(doc, field);
     }
 
-    private String extractApplicationDeadline(Document doc) {
-        return findFirstMatch(doc,
-                "[class*=deadline]",
-                "[class*=closing-date]",
-                "div:contains(Application Deadline)",
-                "span:contains(Apply by)",
-                "div:contains(Closing Date)"
-        );
+    private String extractExperienceLevel(Document doc, String description) {
+        return experienceOrScan(extractDetailField(doc, "experienceLevel"), description);
+    }
+
+    // Falls back to the years of experience stated in the description
+    private String experienceOrScan(String experienceText, String description) {
+        if (experienceText.isEmpty() && description != null) {
+            double years = ExperienceScanner.scanYears(description);
+            if (years >= 0) {
+                return categorizeExperience((int) years);
+            }
+        }
+        return experienceText;
     }
 
     private String extractPostedDate(Document doc) {
-        String dateText = findFirstMatch(doc,
-                "time[datetime]",
-                "span[class*=posted]",
-                "div[class*=posted]",
-                "span[class*=date]",
-                "div:contains(Posted on)",
-                "div:contains(Date posted)"
-        );
+        String dateText = extractDetailField(doc, "postedDate");
 
         if (dateText.isEmpty()) {
-            Element timeElement = doc.select("time[datetime]").first();
+            Element timeElement = doc.select(JobSelectors.DETAIL_POSTED_DATETIME).first();
             if (timeElement != null) {
                 return timeElement.attr("datetime");
             }
@@ -324,23 +1056,6 @@ public class JSoupScraper {
     }
 
     // Utility methods
-    private String findFirstMatch(Element element, String... selectors) {
-        for (String selector : selectors) {
-            try {
-                Elements found = element.select(selector);
-                if (!found.isEmpty()) {
-                    String text = found.first().text().trim();
-                    if (!text.isEmpty() && !text.matches("^[\\s*]+$")) {
-                        return text;
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error with selector " + selector + ": " + e.getMessage());
-            }
-        }
-        return "";
-    }
-
     private String cleanText(String text) {
         if (text == null) return "";
         return text.replaceAll("[\\s\\u00A0]+", " ")
@@ -375,203 +1090,34 @@ public class JSoupScraper {
             return "";
         }
 
-        Matcher matcher = SALARY_PATTERN.matcher(salaryText);
-        if (matcher.find()) {
-            String min = matcher.group(1);
-            String max = matcher.group(2);
-
-            if (min != null && max != null) {
-                return min + " - " + max + " per year";
-            } else if (min != null) {
-                return min + "+ per year";
-            }
-        }
-        return salaryText;
+        SalaryScanner.SalaryRange range = SalaryScanner.parse(salaryText);
+        return range != null ? range.toString() : salaryText;
     }
-    // LinkedIn specific parser
-    private List<JobOffer> parseLinkedInJob(Document doc) {
+    // Card fields from a PortalParser or from BrowserExtractor; relative links are resolved against origin
+    private List<JobOffer> toCardJobs(List<Map<String, String>> cards, String origin, String portalLabel) {
         List<JobOffer> jobs = new ArrayList<>();
-        Elements jobCards = doc.select(".jobs-search__results-list > li");
-
-        System.out.println("Found " + jobCards.size() + " LinkedIn job cards");
-
-        for (Element card : jobCards) {
-            try {
-                Map<String, String> jobData = new HashMap<>();
-
-                // Core job data
-                jobData.put("title", findFirstMatch(card,
-                        "h3.base-search-card__title",
-                        "h3[class*=title]",
-                        ".job-search-card__title",
-                        ".base-card__title",
-                        ".job-card-list__title"
-                ));
-
-                jobData.put("company", findFirstMatch(card,
-                        ".base-search-card__subtitle",
-                        ".company-name",
-                        ".job-search-card__subtitle",
-                        "[data-test-id=company-name]",
-                        ".base-card__subtitle"
-                ));
-
-                jobData.put("location", findFirstMatch(card,
-                        ".job-search-card__location",
-                        ".base-search-card__metadata",
-                        "[data-test-id=location]",
-                        ".job-card-container__metadata-item"
-                ));
-
-                jobData.put("salary", findFirstMatch(card,
-                        ".job-search-card__salary-info",
-                        "span[class*=salary]",
-                        "div[class*=compensation]",
-                        ".compensation-information"
-                ));
-
-                // Additional metadata
-                jobData.put("employmentType", findFirstMatch(card,
-                        ".job-search-card__employment-type",
-                        "span[class*=job-type]",
-                        ".employment-type"
-                ));
-
-                jobData.put("workplaceType", findFirstMatch(card,
-                        ".workplace-type",
-                        "span[class*=workplace]",
-                        ".work-type-information"
-                ));
-
-                jobData.put("postedDate", findFirstMatch(card,
-                        "time[datetime]",
-                        ".job-search-card__listdate",
-                        ".posted-time-ago__text"
-                ));
-
-                // URL handling
-                String url = card.select("a.base-card__full-link").attr("href");
-                if (!url.startsWith("http")) {
-                    url = "https://www.linkedin.com" + url;
-                }
-                jobData.put("url", url);
-
-                if (!jobData.get("title").isEmpty() && !jobData.get("company").isEmpty()) {
-                    JobOffer job = new JobOffer.Builder()
-                            .setTitle(cleanText(jobData.get("title")))
-                            .setCompany(cleanText(jobData.get("company")))
-                            .setLocation(cleanText(jobData.get("location")))
-                            .setSalary(cleanText(jobData.get("salary")))
-                            .setEmploymentType(cleanText(jobData.get("employmentType")))
-                            .setWorkplaceType(cleanText(jobData.get("workplaceType")))
-                            .setPostedDate(cleanText(jobData.get("postedDate")))
-                            .setUrl(jobData.get("url"))
-                            .build();
-
-                    jobs.add(job);
-                    System.out.println("Parsed LinkedIn job: " + jobData.get("title") + " at " + jobData.get("company"));
-                }
-            } catch (Exception e) {
-                System.err.println("Error parsing LinkedIn job: " + e.getMessage());
+        for (Map<String, String> jobData : cards) {
+            String url = jobData.getOrDefault("url", "");
+            if (!url.isEmpty() && !url.startsWith("http")) {
+                url = origin + url;
             }
-        }
-        return jobs;
-    }
-
-    // Indeed specific parser
-    private List<JobOffer> parseIndeedJob(Document doc) {
-        List<JobOffer> jobs = new ArrayList<>();
-        Elements jobCards = doc.select("div.job_seen_beacon, div.jobsearch-ResultsList > div.cardOutline");
-
-        System.out.println("Found " + jobCards.size() + " Indeed job cards");
-
-        for (Element card : jobCards) {
-            try {
-                Map<String, String> jobData = new HashMap<>();
-
-                // Core job data
-                jobData.put("title", findFirstMatch(card,
-                        "h2.jobTitle span[title]",
-                        "h2.jobTitle",
-                        "a.jcs-JobTitle",
-                        "div[class*=title] span[title]",
-                        "td.resultContent a[data-jk]"
-                ));
-
-                jobData.put("company", findFirstMatch(card,
-                        "span.companyName",
-                        "a.companyName",
-                        "[data-testid=company-name]",
-                        "span[class*=companyName]",
-                        "div.company_location > pre"
-                ));
-
-                jobData.put("location", findFirstMatch(card,
-                        ".companyLocation",
-                        "div[class*=location]",
-                        ".job-location",
-                        "div.company_location > div"
-                ));
-
-                jobData.put("salary", findFirstMatch(card,
-                        ".salary-snippet",
-                        ".estimated-salary",
-                        "div[class*=salary]",
-                        ".metadata.salary-snippet-container",
-                        "div[class*=metadata] > div:contains($)"
-                ));
-
-                // Additional metadata
-                jobData.put("employmentType", findFirstMatch(card,
-                        ".metadata > div:contains(Full-time)",
-                        ".metadata > div:contains(Part-time)",
-                        ".metadata > div:contains(Contract)",
-                        "[class*=jobTypes]"
-                ));
-
-                jobData.put("workplaceType", findFirstMatch(card,
-                        ".metadata > div:contains(Remote)",
-                        ".metadata > div:contains(Hybrid)",
-                        ".metadata > div:contains(On-site)",
-                        "[class*=workplace]"
-                ));
-
-                jobData.put("postedDate", findFirstMatch(card,
-                        ".date",
-                        "span.date",
-                        ".posting-date",
-                        "span[class*=posted]"
-                ));
-
-                // URL handling
-                Element linkElement = card.select("a[id^=job_], a[data-jk], h2.jobTitle a").first();
-                String url = "";
-                if (linkElement != null) {
-                    url = linkElement.attr("href");
-                    if (!url.startsWith("http")) {
-                        url = "https://www.indeed.com" + url;
-                    }
-                }
-                jobData.put("url", url);
-
-                if (!jobData.get("title").isEmpty() && !jobData.get("company").isEmpty()) {
-                    JobOffer job = new JobOffer.Builder()
-                            .setTitle(cleanText(jobData.get("title")))
-                            .setCompany(cleanText(jobData.get("company")))
-                            .setLocation(cleanText(jobData.get("location")))
-                            .setSalary(cleanText(jobData.get("salary")))
-                            .setEmploymentType(cleanText(jobData.get("employmentType")))
-                            .setWorkplaceType(cleanText(jobData.get("workplaceType")))
-                            .setPostedDate(cleanText(jobData.get("postedDate")))
-                            .setUrl(jobData.get("url"))
-                            .build();
-
-                    jobs.add(job);
-                    System.out.println("Parsed Indeed job: " + jobData.get("title") + " at " + jobData.get("company"));
-                }
-            } catch (Exception e) {
-                System.err.println("Error parsing Indeed job: " + e.getMessage());
+            String title = jobData.getOrDefault("title", "");
+            String company = jobData.getOrDefault("company", "");
+            if (title.isEmpty() || company.isEmpty()) {
+                continue;
             }
+
+            jobs.add(new JobOffer.Builder()
+                    .setTitle(cleanText(title))
+                    .setCompany(cleanText(company))
+                    .setLocation(cleanText(jobData.get("location")))
+                    .setSalary(cleanText(jobData.get("salary")))
+                    .setEmploymentType(cleanText(jobData.get("employmentType")))
+                    .setWorkplaceType(cleanText(jobData.get("workplaceType")))
+                    .setPostedDate(cleanText(jobData.get("postedDate")))
+                    .setUrl(url)
+                    .build());
+            System.out.println("Parsed " + portalLabel + " job: " + title + " at " + company);
         }
         return jobs;
     }
@@ -583,137 +1129,93 @@ public class JSoupScraper {
 
         System.out.println("Found " + jobCards.size() + " potential job cards");
 
+        // JSON-LD postings are matched to cards by URL; the rest are added after the cards
+        Map<String, Map<String, String>> postingsByUrl = new LinkedHashMap<>();
+        List<Map<String, String>> unmatchedPostings = new ArrayList<>();
+        for (Map<String, String> posting : StructuredJobData.extractJsonLd(doc)) {
+            String url = normalizeUrl(posting.getOrDefault("url", ""), doc.baseUri());
+            if (url.isEmpty() || postingsByUrl.putIfAbsent(url, posting) != null) {
+                unmatchedPostings.add(posting);
+            }
+        }
+
         for (Element card : jobCards) {
             try {
-                Map<String, String> jobData = extractGenericJobData(card, doc.baseUri());
-
-                if (!jobData.get("title").isEmpty() && (!jobData.get("company").isEmpty() || !jobData.get("url").isEmpty())) {
-                    JobOffer job = new JobOffer.Builder()
-                            .setTitle(cleanText(jobData.get("title")))
-                            .setCompany(cleanText(jobData.get("company")))
-                            .setLocation(cleanText(jobData.get("location")))
-                            .setSalary(cleanText(jobData.get("salary")))
-                            .setDescription(cleanText(jobData.get("description")))
-                            .setEmploymentType(cleanText(jobData.get("employmentType")))
-                            .setWorkplaceType(cleanText(jobData.get("workplaceType")))
-                            .setPostedDate(cleanText(jobData.get("postedDate")))
-                            .setExperienceLevel(cleanText(jobData.get("experienceLevel")))
-                            .setRequiredSkills(cleanText(jobData.get("requiredSkills")))
-                            .setBenefits(cleanText(jobData.get("benefits")))
-                            .setUrl(jobData.get("url"))
-                            .build();
-
-                    jobs.add(job);
-                    System.out.println("Found job: " + jobData.get("title") + " at " + jobData.get("company"));
+                Map<String, String> known;
+                if (card.hasAttr("itemscope") && card.attr("itemtype").contains("JobPosting")) {
+                    known = StructuredJobData.readMicrodata(card);
+                } else {
+                    known = new HashMap<>();
+                    known.put("url", findAndNormalizeUrl(card, doc.baseUri()));
+                    Map<String, String> posting = postingsByUrl.remove(known.get("url"));
+                    if (posting != null) {
+                        known.putAll(posting);
+                        known.put("url", normalizeUrl(posting.get("url"), doc.baseUri()));
+                    }
                 }
+                addGenericJob(jobs, extractGenericJobData(card, doc.baseUri(), known));
             } catch (Exception e) {
                 System.err.println("Error parsing generic job card: " + e.getMessage());
             }
         }
+
+        unmatchedPostings.addAll(postingsByUrl.values());
+        for (Map<String, String> posting : unmatchedPostings) {
+            Map<String, String> jobData = new HashMap<>(posting);
+            jobData.put("url", normalizeUrl(posting.getOrDefault("url", ""), doc.baseUri()));
+            jobData.put("salary", parseSalaryRange(posting.getOrDefault("salary", "")));
+            addGenericJob(jobs, jobData);
+        }
         return jobs;
     }
 
-    private Elements findJobCards(Document doc) {
-        Elements cards = new Elements();
-
-        String[] containerSelectors = {
-                // Semantic containers
-                "article[class*=job], article[class*=position]",
-                "div[itemtype*=JobPosting]",
-                // Common class patterns
-                "div[class*=job-card], div[class*=jobCard]",
-                "div[class*=vacancy], div[class*=position]",
-                "div[class*=job-listing], div[class*=jobListing]",
-                // List items
-                "li[class*=job-item], li[class*=jobItem]",
-                // Data attributes
-                "div[data-test*=job], div[data-automation*=job]",
-                "div[data-type=job], div[data-entity-type=job]",
-                // Generic job-related classes
-                ".job-result, .search-result, .listing-item",
-                // Broader patterns as fallback
-                "div[class*=job], div[class*=career], div[class*=posting]"
-        };
-
-        for (String selector : containerSelectors) {
-            try {
-                Elements found = doc.select(selector);
-                if (!found.isEmpty()) {
-                    cards.addAll(found);
-                }
-            } catch (Exception e) {
-                System.err.println("Error with selector " + selector + ": " + e.getMessage());
-            }
+    private void addGenericJob(List<JobOffer> jobs, Map<String, String> jobData) {
+        String title = jobData.getOrDefault("title", "");
+        String company = jobData.getOrDefault("company", "");
+        String url = jobData.getOrDefault("url", "");
+        if (title.isEmpty() || (company.isEmpty() && url.isEmpty())) {
+            return;
         }
 
-        return deduplicateCards(cards);
+        JobOffer job = new JobOffer.Builder()
+                .setTitle(cleanText(title))
+                .setCompany(cleanText(company))
+                .setLocation(cleanText(jobData.get("location")))
+                .setSalary(cleanText(jobData.get("salary")))
+                .setDescription(cleanText(jobData.get("description")))
+                .setEmploymentType(cleanText(jobData.get("employmentType")))
+                .setWorkplaceType(cleanText(jobData.get("workplaceType")))
+                .setPostedDate(cleanText(jobData.get("postedDate")))
+                .setExperienceLevel(cleanText(jobData.get("experienceLevel")))
+                .setRequiredSkills(cleanText(jobData.get("requiredSkills")))
+                .setBenefits(cleanText(jobData.get("benefits")))
+                .setUrl(url)
+                .build();
+
+        jobs.add(job);
+        System.out.println("Found job: " + title + " at " + company);
     }
 
-    private Elements deduplicateCards(Elements cards) {
-        Set<String> seen = new HashSet<>();
-        Elements uniqueCards = new Elements();
+    private Elements findJobCards(Document doc) {
+        return CARD_MATCHER.findCards(doc);
+    }
 
-        for (Element card : cards) {
-            String titleText = card.select("[class*=title]").text();
-            String companyText = card.select("[class*=company]").text();
-            String signature = (titleText + companyText).trim().toLowerCase();
+    // Fills the fields known does not already have from the card's markup
+    private Map<String, String> extractGenericJobData(Element card, String baseUri, Map<String, String> known) {
+        Map<String, String> data = new HashMap<>(known);
 
-            if (signature.isEmpty()) {
-                signature = card.text().trim().substring(0, Math.min(100, card.text().trim().length()));
-            }
-
-            if (seen.add(signature)) {
-                uniqueCards.add(card);
+        for (String field : GENERIC_CARD_SELECTORS.getFieldSelectors().keySet()) {
+            String value = data.get(field);
+            if (value == null || value.isEmpty()) {
+                data.put(field, GENERIC_CARD_SELECTORS.selectText(card, field));
             }
         }
-
-        return uniqueCards;
-    }
-
-    private Map<String, String> extractGenericJobData(Element card, String baseUri) {
-        Map<String, String> data = new HashMap<>();
-
-        // Title
-        data.put("title", findFirstMatch(card,
-                "h1,h2,h3,h4",
-                "[class*=job-title], [class*=jobtitle], [class*=job_title]",
-                "[data-test*=title], [data-automation*=title]",
-                "[class*=title]:not(html):not(head):not(body)"
-        ));
-
-        // Company
-        data.put("company", findFirstMatch(card,
-                "[class*=company-name], [class*=companyName]",
-                "[class*=employer], [class*=organization]",
-                "*:contains(Company:), *:contains(Employer:)"
-        ));
-
-        // Location
-        data.put("location", findFirstMatch(card,
-                "[class*=location], [class*=address]",
-                "[class*=city], [class*=region]",
-                "*:contains(Location:)"
-        ));
-
-        // Salary
-        String salary = findFirstMatch(card,
-                "[class*=salary], [class*=compensation]",
-                "*:contains($), *:contains(€), *:contains(£)",
-                "*:contains(Salary:)"
-        );
-        data.put("salary", parseSalaryRange(salary));
-
-        // Other fields
-        data.put("description", findFirstMatch(card, "[class*=description]"));
-        data.put("employmentType", findFirstMatch(card, "[class*=employment-type], [class*=job-type]"));
-        data.put("workplaceType", findFirstMatch(card, "[class*=workplace-type], [class*=work-type]"));
-        data.put("postedDate", findFirstMatch(card, "time[datetime], [class*=posted]"));
-        // data.put("experienceLevel", findFirstMatch(card, "[class*=experience], [class*=seniority]"));
-        data.put("requiredSkills", findFirstMatch(card, "[class*=skills], [class*=requirements]"));
-        data.put("benefits", findFirstMatch(card, "[class*=benefits], [class*=perks]"));
+        data.put("salary", parseSalaryRange(data.get("salary")));
 
         // URL handling
-        data.put("url", findAndNormalizeUrl(card, baseUri));
+        String url = data.get("url");
+        data.put("url", url == null || url.isEmpty()
+                ? findAndNormalizeUrl(card, baseUri) : normalizeUrl(url, baseUri));
 
         return data;
     }
@@ -722,12 +1224,12 @@ public class JSoupScraper {
         Element link = null;
 
         // Try direct job links first
-        link = card.select("a[href*=job], a[href*=career], a[href*=position]").first();
+        link = card.selectFirst(JOB_LINK);
 
         // Try links containing the job title
         if (link == null) {
-            String titleText = card.select("[class*=title]").text();
-            for (Element a : card.select("a[href]")) {
+            String titleText = card.select(TITLE_TEXT).text();
+            for (Element a : card.select(ANY_LINK)) {
                 if (a.text().contains(titleText)) {
                     link = a;
                     break;
@@ -737,7 +1239,7 @@ public class JSoupScraper {
 
         // Fallback to any link
         if (link == null) {
-            link = card.select("a[href]").first();
+            link = card.selectFirst(ANY_LINK);
         }
 
         if (link != null) {
@@ -0,0 +1,273 @@
+package jobanalysis.scraping;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds job cards on an arbitrary listing page in one walk over the DOM.
+ *
+ * Every element is checked against all card patterns at once (the same patterns findJobCards used
+ * to run as separate selector queries, concatenating every match). Matches are arranged into a tree
+ * as they are found, which lets nested matches be resolved structurally: a match whose linked
+ * matched children are cards is a list wrapper and is replaced by those children, and anything
+ * matched inside a card (title, company blocks...) is dropped. The title and company elements used
+ * for the card signature are picked up during the same walk.
+ */
+public class JobCardMatcher {
+
+    private enum Kind { CLASS_CONTAINS, CLASS_TOKEN, ATTR_CONTAINS, ATTR_EQUALS }
+
+    private static class Rule {
+        private final String tag;
+        private final Kind kind;
+        private final String attribute;
+        private final String value;
+
+        private Rule(String tag, Kind kind, String attribute, String value) {
+            this.tag = tag;
+            this.kind = kind;
+            this.attribute = attribute;
+            this.value = value.toLowerCase(Locale.ROOT);
+        }
+
+        private boolean matches(Element element, String tagName, String classValue) {
+            if (tag != null && !tag.equals(tagName)) {
+                return false;
+            }
+            return switch (kind) {
+                case CLASS_CONTAINS -> classValue.contains(value);
+                case CLASS_TOKEN -> hasClassToken(classValue, value);
+                case ATTR_CONTAINS -> element.attr(attribute).toLowerCase(Locale.ROOT).contains(value);
+                case ATTR_EQUALS -> element.attr(attribute).equalsIgnoreCase(value);
+            };
+        }
+    }
+
+    // Same patterns and order as the selector groups findJobCards used to run one by one
+    private static final List<Rule> RULES = List.of(
+            new Rule("article", Kind.CLASS_CONTAINS, "class", "job"),
+            new Rule("article", Kind.CLASS_CONTAINS, "class", "position"),
+            new Rule("div", Kind.ATTR_CONTAINS, "itemtype", "JobPosting"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "job-card"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "jobCard"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "vacancy"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "position"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "job-listing"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "jobListing"),
+            new Rule("li", Kind.CLASS_CONTAINS, "class", "job-item"),
+            new Rule("li", Kind.CLASS_CONTAINS, "class", "jobItem"),
+            new Rule("div", Kind.ATTR_CONTAINS, "data-test", "job"),
+            new Rule("div", Kind.ATTR_CONTAINS, "data-automation", "job"),
+            new Rule("div", Kind.ATTR_EQUALS, "data-type", "job"),
+            new Rule("div", Kind.ATTR_EQUALS, "data-entity-type", "job"),
+            new Rule(null, Kind.CLASS_TOKEN, "class", "job-result"),
+            new Rule(null, Kind.CLASS_TOKEN, "class", "search-result"),
+            new Rule(null, Kind.CLASS_TOKEN, "class", "listing-item"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "job"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "career"),
+            new Rule("div", Kind.CLASS_CONTAINS, "class", "posting")
+    );
+
+    private static class Match {
+        private final Element element;
+        private final int rule;
+        private final List<Match> children = new ArrayList<>();
+        private Element title;
+        private Element company;
+        private boolean hasLink;
+
+        private Match(Element element, int rule) {
+            this.element = element;
+            this.rule = rule;
+        }
+    }
+
+    public Elements findCards(Document doc) {
+        List<Match> roots = collectMatches(doc);
+
+        List<Match> cards = new ArrayList<>();
+        for (Match root : roots) {
+            resolve(root, cards);
+        }
+
+        Set<String> seen = new HashSet<>();
+        Elements uniqueCards = new Elements();
+        for (Match card : cards) {
+            if (seen.add(signature(card))) {
+                uniqueCards.add(card.element);
+            }
+        }
+        return uniqueCards;
+    }
+
+    private List<Match> collectMatches(Document doc) {
+        List<Match> roots = new ArrayList<>();
+        Deque<Match> open = new ArrayDeque<>();
+
+        NodeTraversor.traverse(new NodeVisitor() {
+            @Override
+            public void head(Node node, int depth) {
+                if (!(node instanceof Element element) || element.attributesSize() == 0) {
+                    return;
+                }
+
+                if (element.normalName().equals("a") && element.hasAttr("href")) {
+                    open.forEach(match -> match.hasLink = true);
+                }
+
+                String classValue = element.className().toLowerCase(Locale.ROOT);
+                if (!classValue.isEmpty()) {
+                    recordSignatureParts(element, classValue);
+                }
+
+                int rule = matchingRule(element, classValue);
+                if (rule >= 0) {
+                    Match match = new Match(element, rule);
+                    if (open.isEmpty()) {
+                        roots.add(match);
+                    } else {
+                        open.peek().children.add(match);
+                    }
+                    open.push(match);
+                }
+            }
+
+            @Override
+            public void tail(Node node, int depth) {
+                if (!open.isEmpty() && open.peek().element == node) {
+                    open.pop();
+                }
+            }
+
+            // The first title and company elements inside every card still open around this element
+            private void recordSignatureParts(Element element, String classValue) {
+                boolean isTitle = classValue.contains("title");
+                boolean isCompany = classValue.contains("company");
+                if (!isTitle && !isCompany) {
+                    return;
+                }
+                for (Match match : open) {
+                    if (isTitle && match.title == null) {
+                        match.title = element;
+                    }
+                    if (isCompany && match.company == null) {
+                        match.company = element;
+                    }
+                }
+            }
+        }, doc);
+
+        return roots;
+    }
+
+    // Index of the first rule the element matches, -1 when it is not a card
+    private int matchingRule(Element element, String classValue) {
+        String tagName = element.normalName();
+        for (int i = 0; i < RULES.size(); i++) {
+            if (RULES.get(i).matches(element, tagName, classValue)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void resolve(Match match, List<Match> cards) {
+        if (isListWrapper(match)) {
+            for (Match child : match.children) {
+                resolve(child, cards);
+            }
+        } else {
+            cards.add(match);
+        }
+    }
+
+    // A wrapper holds linked, matched children that are cards themselves: two or more sharing a class
+    // token ("job-card featured" and "job-card"; the matched rule for elements without a class), or
+    // a single card-shaped one when the list has one result. Blocks without links (tags, badges) and
+    // the card's own title or company block are parts of a single card.
+    private boolean isListWrapper(Match match) {
+        List<Match> linked = new ArrayList<>();
+        for (Match child : match.children) {
+            if (child.hasLink && !isCardPart(match, child)) {
+                linked.add(child);
+            }
+        }
+        if (linked.size() == 1) {
+            return isLoneCard(match, linked.get(0));
+        }
+
+        Map<String, Integer> shapes = new HashMap<>();
+        for (Match child : linked) {
+            Set<String> childShapes = new HashSet<>();
+            for (String token : child.element.classNames()) {
+                childShapes.add(token.toLowerCase(Locale.ROOT));
+            }
+            if (childShapes.isEmpty()) {
+                childShapes.add("rule:" + child.rule);
+            }
+            for (String shape : childShapes) {
+                if (shapes.merge(shape, 1, Integer::sum) >= 2) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // A lone child is the only result of a list when it has its own title and company and holds most
+    // of the text; a card's linked header block leaves the description and salary outside it
+    private boolean isLoneCard(Match match, Match child) {
+        if (child.title == null || child.company == null) {
+            return false;
+        }
+        int childText = child.element.text().length();
+        return match.element.text().length() - childText < childText;
+    }
+
+    private boolean isCardPart(Match match, Match child) {
+        if (child.element == match.title || child.element == match.company) {
+            return true;
+        }
+        String classValue = child.element.className().toLowerCase(Locale.ROOT);
+        return classValue.contains("title") || classValue.contains("company");
+    }
+
+    private String signature(Match card) {
+        String titleText = card.title != null ? card.title.text() : "";
+        String companyText = card.company != null ? card.company.text() : "";
+        String signature = (titleText + companyText).trim().toLowerCase();
+        if (signature.isEmpty()) {
+            String text = card.element.text().trim();
+            signature = text.substring(0, Math.min(100, text.length()));
+        }
+        return signature;
+    }
+
+    private static boolean hasClassToken(String classValue, String token) {
+        int from = 0;
+        while ((from = classValue.indexOf(token, from)) >= 0) {
+            int end = from + token.length();
+            boolean startsToken = from == 0 || Character.isWhitespace(classValue.charAt(from - 1));
+            boolean endsToken = end == classValue.length() || Character.isWhitespace(classValue.charAt(end));
+            if (startsToken && endsToken) {
+                return true;
+            }
+            from = end;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,146 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stable identifiers for job postings: a canonical URL without tracking noise, and a fingerprint
+ * of the card fields that tells whether a posting changed since it was last stored.
+ */
+public final class JobIdentity {
+    // Ad and analytics trackers, stripped on every host (utm_* too)
+    private static final Set<String> TRACKING_PARAMS = Set.of(
+            "fbclid", "gclid", "msclkid", "mc_cid", "mc_eid", "_ga"
+    );
+
+    // Portal parameters that only describe how the posting was reached. Names such as position or
+    // from can identify the posting on other boards, so they are only stripped on these hosts.
+    private static final Set<String> LINKEDIN_TRACKING_PARAMS = Set.of(
+            "trk", "trkinfo", "refid", "trackingid", "position", "pagenum", "originalsubdomain",
+            "lipi", "licu", "eborigin"
+    );
+    private static final Set<String> INDEED_TRACKING_PARAMS = Set.of(
+            "from", "tk", "advn", "adid", "vjs", "sjdu", "acatk"
+    );
+    private static final Pattern INDEED_HOST = Pattern.compile("(^|\\.)indeed\\.");
+
+    // An ISO date at the start of a datetime attribute or JSON-LD datePosted, e.g. 2024-05-02T09:00:00Z
+    private static final Pattern ABSOLUTE_DATE = Pattern.compile("^\\s*(\\d{4}-\\d{2}-\\d{2})");
+
+    private JobIdentity() {
+    }
+
+    public static String canonicalUrl(String url) {
+        if (url == null || url.isBlank()) {
+            return "";
+        }
+
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getHost() == null) {
+                return url.trim();
+            }
+
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            // Country subdomains (ma.linkedin.com, fr.indeed.com...) serve the same postings
+            if (host.endsWith(".linkedin.com")) {
+                host = "www.linkedin.com";
+            }
+
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+
+            Set<String> portalParams = portalTrackingParams(host);
+            List<String> kept = new ArrayList<>();
+            if (uri.getRawQuery() != null) {
+                for (String param : uri.getRawQuery().split("&")) {
+                    String name = param.split("=", 2)[0].toLowerCase(Locale.ROOT);
+                    if (!param.isEmpty() && !name.startsWith("utm_") && !TRACKING_PARAMS.contains(name)
+                            && !portalParams.contains(name)) {
+                        kept.add(param);
+                    }
+                }
+            }
+            kept.sort(null);
+
+            String scheme = uri.getScheme() == null ? "https" : uri.getScheme().toLowerCase(Locale.ROOT);
+            return scheme + "://" + host + path + (kept.isEmpty() ? "" : "?" + String.join("&", kept));
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    private static Set<String> portalTrackingParams(String host) {
+        if (host.equals("linkedin.com") || host.endsWith(".linkedin.com")) {
+            return LINKEDIN_TRACKING_PARAMS;
+        }
+        if (INDEED_HOST.matcher(host).find()) {
+            return INDEED_TRACKING_PARAMS;
+        }
+        return Set.of();
+    }
+
+    // Hash of the card fields that detail enrichment never rewrites; a change means the posting was edited
+    public static String cardFingerprint(JobOffer job) {
+        return sha256(normalize(job.getTitle()) + "|" + normalize(job.getCompany()) + "|"
+                + normalize(job.getLocation()));
+    }
+
+    // Storage key: the canonical URL, or for jobs without one a fingerprint of title, company and location
+    public static String storageKey(JobOffer job) {
+        String url = canonicalUrl(job.getUrl());
+        return url.isEmpty() ? "fp:" + cardFingerprint(job) : url;
+    }
+
+    // Hash of every stored field, so an unchanged posting can be recognized without comparing documents.
+    // Relative posted dates ("2 weeks ago") change every day without the posting changing, so only an
+    // absolute posted date counts.
+    public static String contentHash(JobOffer job) {
+        return sha256(String.join("\u0000", nullToEmpty(job.getTitle()), nullToEmpty(job.getCompany()),
+                nullToEmpty(job.getLocation()), nullToEmpty(job.getSalary()), nullToEmpty(job.getDescription()),
+                nullToEmpty(job.getRequiredSkills()), nullToEmpty(job.getEmploymentType()),
+                nullToEmpty(job.getExperienceLevel()), nullToEmpty(job.getWorkplaceType()),
+                absoluteDate(job.getPostedDate()), nullToEmpty(job.getApplicationDeadline()),
+                nullToEmpty(job.getBenefits()), nullToEmpty(job.getCompanyDescription()), nullToEmpty(job.getUrl())));
+    }
+
+    static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // The yyyy-MM-dd date of value, or "" when it is relative text or missing
+    static String absoluteDate(String value) {
+        if (value == null) {
+            return "";
+        }
+        Matcher matcher = ABSOLUTE_DATE.matcher(value);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,55 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+
+/**
+ * Cold publisher over a scrape: every subscriber gets its own run, started when it subscribes.
+ *
+ * Jobs go through a SubmissionPublisher, so a subscriber that stops requesting blocks the scrape
+ * once its buffer is full instead of letting results pile up. Cancelling the subscription
+ * interrupts the scrape.
+ */
+class JobOfferPublisher implements Flow.Publisher<JobOffer> {
+
+    @FunctionalInterface
+    interface Scrape {
+        void run(Consumer<JobOffer> sink) throws Exception;
+    }
+
+    private final Scrape scrape;
+    private final String name;
+
+    JobOfferPublisher(String name, Scrape scrape) {
+        this.name = name;
+        this.scrape = scrape;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super JobOffer> subscriber) {
+        SubmissionPublisher<JobOffer> publisher = new SubmissionPublisher<>();
+        publisher.subscribe(subscriber);
+
+        Thread producer = new Thread(() -> {
+            Thread current = Thread.currentThread();
+            try {
+                scrape.run(job -> {
+                    if (!publisher.hasSubscribers()) {
+                        // Subscriber cancelled, stop fetching
+                        current.interrupt();
+                        return;
+                    }
+                    publisher.submit(job);
+                });
+                publisher.close();
+            } catch (Exception e) {
+                publisher.closeExceptionally(e);
+            }
+        }, name);
+        producer.setDaemon(true);
+        producer.start();
+    }
+}
@@ -0,0 +1,193 @@
+package jobanalysis.scraping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jobanalysis.models.JobOffer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps the JSON a portal's result list is built from to JobOffers, for pages read through
+ * NetworkCapture instead of their HTML.
+ *
+ * LinkedIn: voyager job card responses, where cards are entries of the "included" array typed
+ * ...JobPostingCard. Indeed: the job search GraphQL response (data.jobSearch.results[].job).
+ * Payloads of any other shape map to no jobs, so the caller can fall back to the page source.
+ */
+public final class JobPayloadMapper {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JobPayloadMapper() {
+    }
+
+    // Whether a response URL is one of the portal's job list calls
+    public static boolean isJobPayload(PageReadiness.Profile profile, String url) {
+        if (url == null) {
+            return false;
+        }
+        return switch (profile) {
+            case LINKEDIN -> url.contains("/voyager/api/") && url.toLowerCase(Locale.ROOT).contains("job");
+            case INDEED -> url.contains("indeed.com") && url.contains("graphql");
+            default -> false;
+        };
+    }
+
+    public static List<JobOffer> map(PageReadiness.Profile profile, String payload) {
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(payload);
+        } catch (IOException e) {
+            System.err.println("Skipping unreadable " + profile + " payload: " + e.getMessage());
+            return new ArrayList<>();
+        }
+        if (root == null) {
+            return new ArrayList<>();
+        }
+        return switch (profile) {
+            case LINKEDIN -> mapLinkedIn(root);
+            case INDEED -> mapIndeed(root);
+            default -> new ArrayList<>();
+        };
+    }
+
+    // Several payloads of one page may repeat a job; the first one with that URL is kept
+    public static List<JobOffer> mapAll(PageReadiness.Profile profile, List<NetworkCapture.Payload> payloads) {
+        Map<String, JobOffer> jobs = new LinkedHashMap<>();
+        for (NetworkCapture.Payload payload : payloads) {
+            for (JobOffer job : map(profile, payload.getBody())) {
+                jobs.putIfAbsent(job.getUrl(), job);
+            }
+        }
+        return new ArrayList<>(jobs.values());
+    }
+
+    private static List<JobOffer> mapLinkedIn(JsonNode root) {
+        List<JobOffer> jobs = new ArrayList<>();
+        for (JsonNode item : root.path("included")) {
+            if (!item.path("$type").asText().endsWith("JobPostingCard")) {
+                continue;
+            }
+            String title = text(item, "jobPostingTitle");
+            if (title.isEmpty()) {
+                title = text(item, "title", "text");
+            }
+            String jobId = lastUrnPart(text(item, "*jobPosting").isEmpty()
+                    ? text(item, "jobPostingUrn") : text(item, "*jobPosting"));
+            if (title.isEmpty() || jobId.isEmpty()) {
+                continue;
+            }
+
+            String postedDate = "";
+            for (JsonNode footer : item.path("footerItems")) {
+                if ("LISTED_DATE".equals(footer.path("type").asText()) && footer.has("timeAt")) {
+                    postedDate = isoDate(footer.path("timeAt").asLong());
+                }
+            }
+
+            jobs.add(new JobOffer.Builder()
+                    .setTitle(title)
+                    .setCompany(text(item, "primaryDescription", "text"))
+                    .setLocation(text(item, "secondaryDescription", "text"))
+                    .setSalary(text(item, "tertiaryDescription", "text"))
+                    .setPostedDate(postedDate)
+                    .setUrl("https://www.linkedin.com/jobs/view/" + jobId + "/")
+                    .build());
+        }
+        return jobs;
+    }
+
+    private static List<JobOffer> mapIndeed(JsonNode root) {
+        List<JobOffer> jobs = new ArrayList<>();
+        for (JsonNode result : root.path("data").path("jobSearch").path("results")) {
+            JsonNode job = result.path("job");
+            String key = text(job, "key");
+            String title = text(job, "title");
+            if (key.isEmpty() || title.isEmpty()) {
+                continue;
+            }
+
+            String company = text(job, "employer", "name");
+            if (company.isEmpty()) {
+                company = text(job, "sourceEmployerName");
+            }
+            Map<String, String> attributes = indeedAttributes(job);
+
+            jobs.add(new JobOffer.Builder()
+                    .setTitle(title)
+                    .setCompany(company)
+                    .setLocation(text(job, "location", "formatted", "long"))
+                    .setSalary(indeedSalary(job.path("compensation")))
+                    .setDescription(text(job, "description", "text"))
+                    .setEmploymentType(attributes.getOrDefault("employmentType", ""))
+                    .setWorkplaceType(attributes.getOrDefault("workplaceType", ""))
+                    .setPostedDate(job.has("datePublished") ? isoDate(job.path("datePublished").asLong()) : "")
+                    .setUrl("https://www.indeed.com/viewjob?jk=" + key)
+                    .build());
+        }
+        return jobs;
+    }
+
+    // Job type and remote labels are listed among the attributes
+    private static Map<String, String> indeedAttributes(JsonNode job) {
+        Map<String, String> attributes = new HashMap<>();
+        for (JsonNode attribute : job.path("attributes")) {
+            String label = attribute.path("label").asText();
+            String lower = label.toLowerCase(Locale.ROOT);
+            if (lower.contains("remote") || lower.contains("hybrid")) {
+                attributes.putIfAbsent("workplaceType", label);
+            } else if (lower.contains("time") || lower.contains("contract") || lower.contains("temporary")
+                    || lower.contains("internship")) {
+                attributes.putIfAbsent("employmentType", label);
+            }
+        }
+        return attributes;
+    }
+
+    // Built as text SalaryScanner reads, e.g. "40000 - 60000 USD per year"
+    private static String indeedSalary(JsonNode compensation) {
+        JsonNode range = compensation.path("baseSalary").path("range");
+        if (!range.has("min") && !range.has("max")) {
+            return text(compensation, "formattedText");
+        }
+        String min = range.path("min").asText(range.path("max").asText());
+        String max = range.path("max").asText(min);
+        StringBuilder salary = new StringBuilder(min);
+        if (!max.equals(min)) {
+            salary.append(" - ").append(max);
+        }
+        String currency = text(compensation, "currencyCode");
+        if (!currency.isEmpty()) {
+            salary.append(' ').append(currency);
+        }
+        String unit = text(compensation, "baseSalary", "unitOfWork");
+        if (!unit.isEmpty()) {
+            salary.append(" per ").append(unit.toLowerCase(Locale.ROOT));
+        }
+        return salary.toString();
+    }
+
+    private static String text(JsonNode node, String... path) {
+        JsonNode current = node;
+        for (String field : path) {
+            current = current.path(field);
+        }
+        return current.isValueNode() ? current.asText().trim() : "";
+    }
+
+    // urn:li:fsd_jobPosting:3912345678 -> 3912345678
+    private static String lastUrnPart(String urn) {
+        return urn.substring(urn.lastIndexOf(':') + 1);
+    }
+
+    private static String isoDate(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atOffset(ZoneOffset.UTC).toLocalDate().toString();
+    }
+}
@@ -0,0 +1,152 @@
+package jobanalysis.scraping;
+
+import java.util.Map;
+
+/**
+ * Card and field selectors per portal, shared by the Jsoup parsers and BrowserExtractor so both
+ * read a page the same way. Each field lists its selectors in priority order; the first one that
+ * yields non-blank text wins.
+ */
+final class JobSelectors {
+    static final String LINKEDIN_CARDS = ".jobs-search__results-list > li";
+    static final String LINKEDIN_LINK = "a.base-card__full-link";
+    static final Map<String, String[]> LINKEDIN_FIELDS = Map.of(
+            "title", new String[]{
+                    "h3.base-search-card__title",
+                    "h3[class*=title]",
+                    ".job-search-card__title",
+                    ".base-card__title",
+                    ".job-card-list__title"},
+            "company", new String[]{
+                    ".base-search-card__subtitle",
+                    ".company-name",
+                    ".job-search-card__subtitle",
+                    "[data-test-id=company-name]",
+                    ".base-card__subtitle"},
+            "location", new String[]{
+                    ".job-search-card__location",
+                    ".base-search-card__metadata",
+                    "[data-test-id=location]",
+                    ".job-card-container__metadata-item"},
+            "salary", new String[]{
+                    ".job-search-card__salary-info",
+                    "span[class*=salary]",
+                    "div[class*=compensation]",
+                    ".compensation-information"},
+            "employmentType", new String[]{
+                    ".job-search-card__employment-type",
+                    "span[class*=job-type]",
+                    ".employment-type"},
+            "workplaceType", new String[]{
+                    ".workplace-type",
+                    "span[class*=workplace]",
+                    ".work-type-information"},
+            "postedDate", new String[]{
+                    "time[datetime]",
+                    ".job-search-card__listdate",
+                    ".posted-time-ago__text"}
+    );
+
+    static final String INDEED_CARDS = "div.job_seen_beacon, div.jobsearch-ResultsList > div.cardOutline";
+    static final String INDEED_LINK = "a[id^=job_], a[data-jk], h2.jobTitle a";
+    static final Map<String, String[]> INDEED_FIELDS = Map.of(
+            "title", new String[]{
+                    "h2.jobTitle span[title]",
+                    "h2.jobTitle",
+                    "a.jcs-JobTitle",
+                    "div[class*=title] span[title]",
+                    "td.resultContent a[data-jk]"},
+            "company", new String[]{
+                    "span.companyName",
+                    "a.companyName",
+                    "[data-testid=company-name]",
+                    "span[class*=companyName]",
+                    "div.company_location > pre"},
+            "location", new String[]{
+                    ".companyLocation",
+                    "div[class*=location]",
+                    ".job-location",
+                    "div.company_location > div"},
+            "salary", new String[]{
+                    ".salary-snippet",
+                    ".estimated-salary",
+                    "div[class*=salary]",
+                    ".metadata.salary-snippet-container",
+                    "div[class*=metadata] > div:contains($)"},
+            "employmentType", new String[]{
+                    ".metadata > div:contains(Full-time)",
+                    ".metadata > div:contains(Part-time)",
+                    ".metadata > div:contains(Contract)",
+                    "[class*=jobTypes]"},
+            "workplaceType", new String[]{
+                    ".metadata > div:contains(Remote)",
+                    ".metadata > div:contains(Hybrid)",
+                    ".metadata > div:contains(On-site)",
+                    "[class*=workplace]"},
+            "postedDate", new String[]{
+                    ".date",
+                    "span.date",
+                    ".posting-date",
+                    "span[class*=posted]"}
+    );
+
+    // Detail pages of any portal
+    static final Map<String, String[]> DETAIL_FIELDS = Map.of(
+            "description", new String[]{
+                    "#job-details",
+                    ".description__text",
+                    "#jobDescriptionText",
+                    "[class*=description]",
+                    ".content",
+                    "[class*=job-details]",
+                    "[data-automation*=description]"},
+            "requiredSkills", new String[]{
+                    ".description__text ul",
+                    "#jobDetailsSection",
+                    "[class*=requirements]",
+                    "[class*=qualifications]",
+                    "div:contains(Requirements) + ul",
+                    "div:contains(Qualifications) + ul",
+                    "[data-automation*=requirements]"},
+            "experienceLevel", new String[]{
+                    //"li:contains(Seniority level)",
+                    "div[class*=experience-level]",
+                    "span[class*=experience]",
+                    "[data-automation*=experience]",
+                    "div:contains(Experience)",
+                    "div:contains(Years of experience)"},
+            "benefits", new String[]{
+                    "[class*=benefits]",
+                    "div:contains(Benefits)",
+                    "section:contains(Benefits)",
+                    "[data-automation*=benefits]",
+                    "ul:contains(Health Insurance)",
+                    "div:contains(What we offer)"},
+            "companyDescription", new String[]{
+                    ".company-description",
+                    "[class*=about-company]",
+                    "#companyDetails",
+                    "[data-automation*=company-info]",
+                    "div:contains(About the company)",
+                    "section:contains(About us)"},
+            "applicationDeadline", new String[]{
+                    "[class*=deadline]",
+                    "[class*=closing-date]",
+                    "div:contains(Application Deadline)",
+                    "span:contains(Apply by)",
+                    "div:contains(Closing Date)"},
+            "postedDate", new String[]{
+                    "time[datetime]",
+                    "span[class*=posted]",
+                    "div[class*=posted]",
+                    "span[class*=date]",
+                    "div:contains(Posted on)",
+                    "div:contains(Date posted)"}
+    );
+
+    // Used when no postedDate selector has text
+    static final String DETAIL_POSTED_DATETIME = "time[datetime]";
+
+    private JobSelectors() {
+    }
+}
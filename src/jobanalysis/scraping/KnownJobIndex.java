@@ -0,0 +1,38 @@
+package jobanalysis.scraping;
+
+import jobanalysis.db.JobRepository;
+import jobanalysis.models.JobOffer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of jobs that are already stored, keyed by canonical URL, used by incremental
+ * crawls to skip detail pages of postings that have not changed.
+ */
+public class KnownJobIndex {
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    public static KnownJobIndex fromRepository(JobRepository repository) {
+        KnownJobIndex index = new KnownJobIndex();
+        index.fingerprints.putAll(repository.findKnownJobFingerprints());
+        System.out.println("Loaded " + index.size() + " known jobs for incremental scraping");
+        return index;
+    }
+
+    public boolean isKnownUnchanged(JobOffer job) {
+        String url = JobIdentity.canonicalUrl(job.getUrl());
+        return !url.isEmpty() && JobIdentity.cardFingerprint(job).equals(fingerprints.get(url));
+    }
+
+    public void remember(JobOffer job) {
+        String url = JobIdentity.canonicalUrl(job.getUrl());
+        if (!url.isEmpty()) {
+            fingerprints.put(url, JobIdentity.cardFingerprint(job));
+        }
+    }
+
+    public int size() {
+        return fingerprints.size();
+    }
+}
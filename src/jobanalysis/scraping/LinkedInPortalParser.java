@@ -0,0 +1,21 @@
+package jobanalysis.scraping;
+
+public class LinkedInPortalParser implements PortalParser {
+    private static final SelectorSet SELECTORS = new SelectorSet.Builder()
+            .cards(JobSelectors.LINKEDIN_CARDS)
+            .link(JobSelectors.LINKEDIN_LINK)
+            .fields(JobSelectors.LINKEDIN_FIELDS)
+            .build();
+
+    @Override
+    public String getName() { return "linkedin"; }
+
+    @Override
+    public String getLabel() { return "LinkedIn"; }
+
+    @Override
+    public String getOrigin() { return "https://www.linkedin.com"; }
+
+    @Override
+    public SelectorSet getSelectors() { return SELECTORS; }
+}
@@ -0,0 +1,11 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+
+import java.util.function.Consumer;
+
+// Scrapes one listing page into the sink; returns true when the page only lists known jobs
+@FunctionalInterface
+interface ListingScraper {
+    boolean scrape(String portalName, String url, Consumer<JobOffer> sink) throws Exception;
+}
@@ -0,0 +1,233 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects postings that are the same job with slightly different text, e.g. one offer published on
+ * LinkedIn, Indeed and a generic board.
+ *
+ * Each job gets a 64-bit SimHash over the words of its title, company and description (word
+ * shingles proved too sensitive on texts of a few hundred words: one reworded sentence moved the
+ * fingerprint by 10+ bits). Two jobs are near-duplicates when their fingerprints differ in at most
+ * maxDistance bits and their titles share most of their words, so one employer's boilerplate does
+ * not merge different roles. The
+ * fingerprint is split into maxDistance + 1 bands and every band is indexed: two fingerprints that
+ * close must agree exactly on at least one band, so a lookup only compares against the few jobs
+ * sharing a band instead of every job seen so far. Postings in two different known cities are never
+ * merged, however similar their text. The city is the first part of the location, so "Casablanca"
+ * and "Casablanca, Casablanca-Settat, Morocco" from two portals are the same place.
+ *
+ * Jobs with too little text for a stable fingerprint (cards without a description) are only
+ * dropped as exact repeats: same canonical URL, or same title, company and city when they have no URL.
+ */
+public class NearDuplicateIndex {
+    private static final int DEFAULT_MAX_DISTANCE = 6;
+    private static final int MIN_WORDS = 20;
+    private static final double MIN_TITLE_OVERLAP = 0.5;
+
+    private static class Entry {
+        private final long fingerprint;
+        private final Set<String> titleWords;
+        private final String location;
+
+        private Entry(long fingerprint, Set<String> titleWords, String location) {
+            this.fingerprint = fingerprint;
+            this.titleWords = titleWords;
+            this.location = location;
+        }
+    }
+
+    private final int maxDistance;
+    private final int bands;
+    private final int bandBits;
+    private final List<Map<Long, List<Entry>>> bandTables = new ArrayList<>();
+    private final Set<String> shortJobKeys = new HashSet<>();
+    private int size;
+
+    public NearDuplicateIndex() {
+        this(DEFAULT_MAX_DISTANCE);
+    }
+
+    public NearDuplicateIndex(int maxDistance) {
+        this.maxDistance = Math.max(0, Math.min(maxDistance, 15));
+        this.bands = this.maxDistance + 1;
+        this.bandBits = 64 / bands;
+        for (int i = 0; i < bands; i++) {
+            bandTables.add(new HashMap<>());
+        }
+    }
+
+    public boolean addIfNew(JobOffer job) {
+        return addIfNew(job.getTitle(), job.getCompany(), job.getLocation(), job.getUrl(), job.getDescription());
+    }
+
+    // Adds the job and returns true, or returns false when a near-duplicate is already indexed
+    public synchronized boolean addIfNew(String title, String company, String location, String url,
+                                         String description) {
+        String text = nullToEmpty(title) + " " + nullToEmpty(company) + " " + nullToEmpty(description);
+        if (countWords(text) < MIN_WORDS) {
+            String canonicalUrl = JobIdentity.canonicalUrl(url);
+            boolean added = shortJobKeys.add(!canonicalUrl.isEmpty()
+                    ? canonicalUrl
+                    : normalize(title) + "|" + normalize(company) + "|" + cityOf(location));
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+
+        Entry entry = new Entry(simHash(text), titleWords(title), cityOf(location));
+        if (containsNear(entry)) {
+            return false;
+        }
+        for (int band = 0; band < bands; band++) {
+            bandTables.get(band).computeIfAbsent(bandValue(entry.fingerprint, band), key -> new ArrayList<>()).add(entry);
+        }
+        size++;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean containsNear(Entry entry) {
+        for (int band = 0; band < bands; band++) {
+            List<Entry> candidates = bandTables.get(band).get(bandValue(entry.fingerprint, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry candidate : candidates) {
+                if (distance(entry.fingerprint, candidate.fingerprint) <= maxDistance
+                        && sameOrUnknownLocation(entry.location, candidate.location)
+                        && titleOverlap(entry.titleWords, candidate.titleWords) >= MIN_TITLE_OVERLAP) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameOrUnknownLocation(String a, String b) {
+        return a.isEmpty() || b.isEmpty() || a.equals(b);
+    }
+
+    // "Casablanca, Casablanca-Settat, Morocco", "Greater Casablanca Area" and "Casablanca (Hybrid)" -> "casablanca"
+    static String cityOf(String location) {
+        String city = Normalizer.normalize(normalize(location), Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        city = city.split("[,(|/•]", 2)[0].trim();
+        city = city.replaceFirst("^greater ", "").replaceFirst(" (metropolitan )?(area|region)$", "");
+        return city.trim();
+    }
+
+    private static Set<String> titleWords(String title) {
+        Set<String> words = new HashSet<>();
+        for (String word : normalize(title).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Jaccard similarity of the title words
+    private static double titleOverlap(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) {
+            return 1;
+        }
+        int shared = 0;
+        for (String word : a) {
+            if (b.contains(word)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private long bandValue(long fingerprint, int band) {
+        // The last band takes the bits left over when 64 does not divide evenly
+        int shift = band * bandBits;
+        int width = band == bands - 1 ? 64 - shift : bandBits;
+        long mask = width == 64 ? -1L : (1L << width) - 1;
+        return (fingerprint >>> shift) & mask;
+    }
+
+    static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    // SimHash over the words of text; words are hashed from the characters, lower-cased, without substrings
+    static long simHash(CharSequence text) {
+        int[] weights = new int[64];
+        int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            while (pos < length && !Character.isLetterOrDigit(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos >= length) {
+                break;
+            }
+            long wordHash = 0xcbf29ce484222325L;
+            while (pos < length && Character.isLetterOrDigit(text.charAt(pos))) {
+                wordHash ^= Character.toLowerCase(text.charAt(pos));
+                wordHash *= 0x100000001b3L;
+                pos++;
+            }
+            addFeature(weights, mix(wordHash));
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    private static void addFeature(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    // 64-bit finalizer from MurmurHash3, spreads FNV output over all bits
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int countWords(CharSequence text) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean letter = Character.isLetterOrDigit(text.charAt(i));
+            if (letter && !inWord) {
+                words++;
+            }
+            inWord = letter;
+        }
+        return words;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String normalize(String value) {
+        return nullToEmpty(value).trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+}
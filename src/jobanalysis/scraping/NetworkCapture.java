@@ -0,0 +1,148 @@
+package jobanalysis.scraping;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v131.network.Network;
+import org.openqa.selenium.devtools.v131.network.model.RequestId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Records the JSON responses a page loads in the background (the XHR/fetch calls LinkedIn and
+ * Indeed use to fill their result lists) through Chrome DevTools network events, so jobs can be
+ * read from those payloads instead of from the rendered page.
+ *
+ * Listeners only note which requests to keep and when they finish; the bodies are fetched from the
+ * scraping thread once the page has gone quiet, so the DevTools event thread, which other listeners
+ * such as ResourceBlocker share, is never held up by body transfers.
+ */
+public class NetworkCapture implements AutoCloseable {
+    private static final long POLL_INTERVAL = 100;
+
+    public static class Payload {
+        private final String url;
+        private final String body;
+
+        Payload(String url, String body) {
+            this.url = url;
+            this.body = body;
+        }
+
+        public String getUrl() { return url; }
+        public String getBody() { return body; }
+    }
+
+    private final DevTools devTools;
+    private final Predicate<String> urlFilter;
+    private final Map<String, String> matchedUrls = new ConcurrentHashMap<>();
+    private final Map<String, Long> finishedAt = new ConcurrentHashMap<>();
+    // Requests whose URL passes the filter and that have not finished or failed yet
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private NetworkCapture(DevTools devTools, Predicate<String> urlFilter) {
+        this.devTools = devTools;
+        this.urlFilter = urlFilter;
+    }
+
+    public static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasDevTools;
+    }
+
+    // Starts recording before the page is navigated to; responses whose URL passes urlFilter are kept
+    public static NetworkCapture start(WebDriver driver, Predicate<String> urlFilter) {
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        NetworkCapture capture = new NetworkCapture(devTools, urlFilter);
+
+        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+        devTools.addListener(Network.requestWillBeSent(), event -> {
+            if (capture.urlFilter.test(event.getRequest().getUrl())) {
+                capture.inFlight.add(event.getRequestId().toString());
+            }
+        });
+        devTools.addListener(Network.responseReceived(), event -> {
+            String mimeType = event.getResponse().getMimeType();
+            String url = event.getResponse().getUrl();
+            if (mimeType != null && mimeType.contains("json") && event.getResponse().getStatus() == 200
+                    && capture.urlFilter.test(url)) {
+                capture.matchedUrls.put(event.getRequestId().toString(), url);
+            }
+        });
+        devTools.addListener(Network.loadingFinished(), event -> {
+            String requestId = event.getRequestId().toString();
+            capture.inFlight.remove(requestId);
+            if (capture.matchedUrls.containsKey(requestId)) {
+                capture.finishedAt.put(requestId, System.nanoTime());
+            }
+        });
+        devTools.addListener(Network.loadingFailed(), event -> capture.inFlight.remove(event.getRequestId().toString()));
+        return capture;
+    }
+
+    // Waits for the first matching response, then until none has finished for quietPeriod, at most maxWait.
+    // Gives up early once the page has been loaded for quietPeriod without any matching request pending
+    // or finished, since the page then renders its results without calling the JSON endpoints.
+    public List<Payload> awaitPayloads(Duration maxWait, Duration quietPeriod, BooleanSupplier pageLoaded)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + maxWait.toNanos();
+        long loadedAt = 0;
+        while (System.nanoTime() < deadline) {
+            long now = System.nanoTime();
+            long lastFinished = finishedAt.values().stream().mapToLong(Long::longValue).max().orElse(0);
+            if (lastFinished != 0 && now - lastFinished >= quietPeriod.toNanos()) {
+                break;
+            }
+            if (finishedAt.isEmpty() && inFlight.isEmpty() && pageLoaded.getAsBoolean()) {
+                loadedAt = loadedAt == 0 ? now : loadedAt;
+                if (now - loadedAt >= quietPeriod.toNanos()) {
+                    break;
+                }
+            } else {
+                loadedAt = 0;
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        return readBodies();
+    }
+
+    private List<Payload> readBodies() {
+        List<Payload> payloads = new ArrayList<>();
+        for (String requestId : finishedAt.keySet()) {
+            try {
+                Network.GetResponseBodyResponse response = devTools.send(Network.getResponseBody(new RequestId(requestId)));
+                String body = Boolean.TRUE.equals(response.getBase64Encoded())
+                        ? new String(Base64.getDecoder().decode(response.getBody()), StandardCharsets.UTF_8)
+                        : response.getBody();
+                payloads.add(new Payload(matchedUrls.get(requestId), body));
+            } catch (DevToolsException e) {
+                // Chrome drops bodies of responses it has already evicted from its buffer
+                System.err.println("Could not read captured response " + matchedUrls.get(requestId) + ": " + e.getMessage());
+            }
+        }
+        return payloads;
+    }
+
+    // Leaves the session open for the next page on this pooled driver
+    @Override
+    public void close() {
+        try {
+            devTools.clearListeners();
+            devTools.send(Network.disable());
+        } catch (DevToolsException e) {
+            System.err.println("Error stopping network capture: " + e.getMessage());
+        }
+    }
+}
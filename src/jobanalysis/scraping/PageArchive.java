@@ -0,0 +1,152 @@
+package jobanalysis.scraping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local archive of every page the scraper fetched. Page sources are stored gzip-compressed under
+ * their SHA-256 (identical captures are kept once) and an append-only index.jsonl records which URL
+ * was captured when, so the parsers can be re-run offline over months of captures.
+ */
+public class PageArchive {
+    private static final String INDEX_FILE = "index.jsonl";
+
+    private final Path directory;
+    private final Path objects;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public static class Entry {
+        private final String url;
+        private final String portal;
+        private final HttpPageFetcher.PageKind kind;
+        private final String sha256;
+        private final Instant capturedAt;
+
+        private Entry(String url, String portal, HttpPageFetcher.PageKind kind, String sha256, Instant capturedAt) {
+            this.url = url;
+            this.portal = portal;
+            this.kind = kind;
+            this.sha256 = sha256;
+            this.capturedAt = capturedAt;
+        }
+
+        public String getUrl() { return url; }
+        public String getPortal() { return portal; }
+        public boolean isListing() { return kind == HttpPageFetcher.PageKind.LISTING; }
+        public String getSha256() { return sha256; }
+        public Instant getCapturedAt() { return capturedAt; }
+    }
+
+    public PageArchive(Path directory) throws IOException {
+        this.directory = directory;
+        this.objects = directory.resolve("objects");
+        Files.createDirectories(objects);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    void store(String url, String portal, HttpPageFetcher.PageKind kind, String pageSource) {
+        try {
+            byte[] content = pageSource.getBytes(StandardCharsets.UTF_8);
+            String sha256 = sha256(content);
+            Path object = objectPath(sha256);
+
+            if (!Files.exists(object)) {
+                Files.createDirectories(object.getParent());
+                Path temp = Files.createTempFile(object.getParent(), sha256, ".tmp");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    out.write(content);
+                }
+                Files.move(temp, object, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            Map<String, String> line = new LinkedHashMap<>();
+            line.put("url", url);
+            line.put("portal", portal);
+            line.put("kind", kind.name());
+            line.put("sha256", sha256);
+            line.put("capturedAt", Instant.now().toString());
+            appendIndex(mapper.writeValueAsString(line));
+        } catch (IOException e) {
+            System.err.println("Error archiving page " + url + ": " + e.getMessage());
+        }
+    }
+
+    public List<Entry> entries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return entries;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Map<?, ?> values = mapper.readValue(line, Map.class);
+                    entries.add(new Entry(
+                            (String) values.get("url"),
+                            (String) values.get("portal"),
+                            HttpPageFetcher.PageKind.valueOf((String) values.get("kind")),
+                            (String) values.get("sha256"),
+                            Instant.parse((String) values.get("capturedAt"))));
+                } catch (RuntimeException | IOException e) {
+                    // A crash while appending can leave a truncated last line
+                    System.err.println("Skipping unreadable archive index line: " + e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+
+    public String load(Entry entry) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(objectPath(entry.sha256)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private synchronized void appendIndex(String line) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
+    private Path objectPath(String sha256) {
+        return objects.resolve(sha256.substring(0, 2)).resolve(sha256 + ".html.gz");
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
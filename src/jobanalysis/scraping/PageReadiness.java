@@ -0,0 +1,183 @@
+package jobanalysis.scraping;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+
+/**
+ * Decides when a loaded page is ready to be parsed by watching the page itself
+ * (job-card count, network activity and DOM mutations) instead of sleeping for fixed delays.
+ *
+ * The network is idle when no resource finished within the quiet period and no fetch/XHR call is
+ * running. Calls are only seen from the first readiness check on; ones started before it show up
+ * through resource timing once they finish.
+ */
+public class PageReadiness {
+    private static final long POLL_INTERVAL = 150;
+
+    public enum Profile {
+        LINKEDIN(JobSelectors.LINKEDIN_CARDS, 5, 600, 20000),
+        INDEED(JobSelectors.INDEED_CARDS, 1, 500, 15000),
+        GENERIC(null, 3, 700, 15000),
+        DETAIL(null, 0, 400, 8000);
+
+        private final String cardSelector;
+        private final int maxScrolls;
+        private final long quietPeriod;
+        private final long maxWait;
+
+        Profile(String cardSelector, int maxScrolls, long quietPeriod, long maxWait) {
+            this.cardSelector = cardSelector;
+            this.maxScrolls = maxScrolls;
+            this.quietPeriod = quietPeriod;
+            this.maxWait = maxWait;
+        }
+
+        public static Profile forPortal(String portalName) {
+            return switch (portalName.toLowerCase()) {
+                case "linkedin" -> LINKEDIN;
+                case "indeed" -> INDEED;
+                default -> GENERIC;
+            };
+        }
+    }
+
+    public static class Report {
+        private final Profile profile;
+        private final long elapsedMillis;
+        private final long cards;
+        private final int scrolls;
+        private final String reason;
+
+        private Report(Profile profile, long elapsedMillis, long cards, int scrolls, String reason) {
+            this.profile = profile;
+            this.elapsedMillis = elapsedMillis;
+            this.cards = cards;
+            this.scrolls = scrolls;
+            this.reason = reason;
+        }
+
+        public Profile getProfile() { return profile; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public long getCards() { return cards; }
+        public int getScrolls() { return scrolls; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return profile + " page ready in " + elapsedMillis + " ms (" + reason + ", "
+                    + cards + " cards, " + scrolls + " scrolls)";
+        }
+    }
+
+    // Records the time of the last DOM mutation so quiet periods can be measured from Java, and
+    // tracks fetch/XHR calls the page starts from then on. Resource timing only lists finished
+    // requests, and stops at 250 entries unless its buffer is enlarged, so on its own it reports
+    // heavy pages idle while their calls are still running.
+    private static final String INSTALL_OBSERVER =
+            "if (!window.__scrapeLastMutation) {" +
+            "  window.__scrapeLastMutation = Date.now();" +
+            "  new MutationObserver(function() { window.__scrapeLastMutation = Date.now(); })" +
+            "    .observe(document, {childList: true, subtree: true});" +
+            "  if (performance.setResourceTimingBufferSize) performance.setResourceTimingBufferSize(100000);" +
+            "  window.__scrapeRequests = {};" +
+            "  window.__scrapeLastRequest = 0;" +
+            "  var nextId = 0;" +
+            "  function started() { var id = nextId++; window.__scrapeRequests[id] = performance.now(); return id; }" +
+            "  function finished(id) { delete window.__scrapeRequests[id]; window.__scrapeLastRequest = performance.now(); }" +
+            "  if (window.fetch) {" +
+            "    var fetch = window.fetch;" +
+            "    window.fetch = function() {" +
+            "      var id = started();" +
+            "      return fetch.apply(this, arguments).then(" +
+            "        function(response) { finished(id); return response; }," +
+            "        function(error) { finished(id); throw error; });" +
+            "    };" +
+            "  }" +
+            "  var send = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function() {" +
+            "    var id = started();" +
+            "    this.addEventListener('loadend', function() { finished(id); });" +
+            "    try { return send.apply(this, arguments); } catch (e) { finished(id); throw e; }" +
+            "  };" +
+            "}";
+
+    // Calls running longer than this are taken for long polling and do not hold the page back
+    private static final long LONG_REQUEST_MILLIS = 5000;
+
+    private static final String SNAPSHOT =
+            "var lastResource = window.__scrapeLastRequest || 0;" +
+            "var entries = performance.getEntriesByType('resource');" +
+            "for (var i = 0; i < entries.length; i++) {" +
+            "  lastResource = Math.max(lastResource, entries[i].responseEnd);" +
+            "}" +
+            "var inFlight = 0, now = performance.now(), requests = window.__scrapeRequests || {};" +
+            "for (var id in requests) {" +
+            "  if (now - requests[id] < arguments[1]) inFlight++;" +
+            "}" +
+            "return [document.readyState === 'complete'," +
+            "  arguments[0] ? document.querySelectorAll(arguments[0]).length : 0," +
+            "  Date.now() - (window.__scrapeLastMutation || 0)," +
+            "  Math.round(now - lastResource)," +
+            "  document.documentElement.scrollHeight," +
+            "  inFlight];";
+
+    // The load event has fired; background calls and rendering may still be going on
+    public static boolean isDocumentComplete(WebDriver driver) {
+        return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript("return document.readyState === 'complete'"));
+    }
+
+    public Report waitUntilReady(WebDriver driver, Profile profile) throws InterruptedException {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        long start = System.currentTimeMillis();
+        int scrolls = 0;
+        long lastScroll = 0;
+        long growthAtLastScroll = 0;
+        long cards = 0;
+
+        while (true) {
+            long elapsed = System.currentTimeMillis() - start;
+            if (elapsed >= profile.maxWait) {
+                return new Report(profile, elapsed, cards, scrolls, "timed out");
+            }
+
+            js.executeScript(INSTALL_OBSERVER);
+            List<?> snapshot = (List<?>) js.executeScript(SNAPSHOT, profile.cardSelector, LONG_REQUEST_MILLIS);
+            boolean complete = Boolean.TRUE.equals(snapshot.get(0));
+            cards = ((Number) snapshot.get(1)).longValue();
+            long sinceMutation = ((Number) snapshot.get(2)).longValue();
+            long sinceNetwork = ((Number) snapshot.get(3)).longValue();
+            long height = ((Number) snapshot.get(4)).longValue();
+            long inFlight = ((Number) snapshot.get(5)).longValue();
+
+            boolean quiet = complete
+                    && inFlight == 0
+                    && sinceMutation >= profile.quietPeriod
+                    && sinceNetwork >= profile.quietPeriod
+                    && elapsed - lastScroll >= profile.quietPeriod;
+
+            if (quiet) {
+                // Without a card selector the page height is the best signal of new content
+                long growth = profile.cardSelector != null ? cards : height;
+                if (profile.cardSelector != null && cards == 0) {
+                    if (elapsed < profile.quietPeriod * 4) {
+                        Thread.sleep(POLL_INTERVAL);
+                        continue;
+                    }
+                    return new Report(profile, elapsed, cards, scrolls, "no job cards");
+                }
+                if (growth <= growthAtLastScroll || scrolls >= profile.maxScrolls) {
+                    return new Report(profile, elapsed, cards, scrolls,
+                            scrolls == 0 ? "network and DOM idle" : "content stopped growing");
+                }
+                js.executeScript("window.scrollTo(0, document.documentElement.scrollHeight)");
+                growthAtLastScroll = growth;
+                lastScroll = elapsed;
+                scrolls++;
+            }
+
+            Thread.sleep(POLL_INTERVAL);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package jobanalysis.scraping;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the job cards of one portal's listing pages. Implementations are found with ServiceLoader:
+ * list the class in META-INF/services/jobanalysis.scraping.PortalParser and give it a public
+ * no-argument constructor. A board added that way is scraped with scrapeJobPortal(getName(), url)
+ * without any change to JSoupScraper.
+ *
+ * One instance serves every scraping thread, so implementations must be stateless apart from their
+ * SelectorSet.
+ */
+public interface PortalParser {
+
+    // Lower case, as passed to scrapeJobPortal and stored in the crawl frontier and page archive
+    String getName();
+
+    // Shown in the logs
+    default String getLabel() {
+        return getName();
+    }
+
+    // Relative job links are resolved against it
+    String getOrigin();
+
+    // Readiness, network capture and resource blocking settings the pages are loaded with
+    default PageReadiness.Profile getProfile() {
+        return PageReadiness.Profile.forPortal(getName());
+    }
+
+    SelectorSet getSelectors();
+
+    // One map of field to text per card, plus its "url"; a card without title or company is skipped later
+    default List<Map<String, String>> parseCards(Document doc) {
+        SelectorSet selectors = getSelectors();
+        List<Map<String, String>> cards = new ArrayList<>();
+        for (Element card : selectors.selectCards(doc)) {
+            try {
+                Map<String, String> jobData = selectors.selectFields(card);
+                jobData.put("url", selectors.selectLink(card));
+                cards.add(jobData);
+            } catch (Exception e) {
+                System.err.println("Error parsing " + getLabel() + " job: " + e.getMessage());
+            }
+        }
+        return cards;
+    }
+}
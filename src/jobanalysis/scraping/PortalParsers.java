@@ -0,0 +1,47 @@
+package jobanalysis.scraping;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * The PortalParser implementations on the classpath, by name, loaded once. Portals without one are
+ * parsed with the generic card matcher.
+ */
+final class PortalParsers {
+    private static final Map<String, PortalParser> PARSERS = load();
+
+    private PortalParsers() {
+    }
+
+    // null when no parser is registered under that name
+    static PortalParser forPortal(String portalName) {
+        return PARSERS.get(portalName.toLowerCase());
+    }
+
+    static Map<String, PortalParser> all() {
+        return PARSERS;
+    }
+
+    // A parser that fails to load is reported and skipped; the first one registered under a name wins
+    private static Map<String, PortalParser> load() {
+        Map<String, PortalParser> parsers = new LinkedHashMap<>();
+        Iterator<PortalParser> providers = ServiceLoader.load(PortalParser.class).iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+                PortalParser parser = providers.next();
+                parsers.putIfAbsent(parser.getName().toLowerCase(), parser);
+            } catch (ServiceConfigurationError e) {
+                System.err.println("Could not load a portal parser: " + e.getMessage());
+            }
+        }
+        System.out.println("Portal parsers: " + parsers.keySet());
+        return Collections.unmodifiableMap(parsers);
+    }
+}
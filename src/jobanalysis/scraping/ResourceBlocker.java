@@ -0,0 +1,142 @@
+package jobanalysis.scraping;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v131.fetch.Fetch;
+import org.openqa.selenium.devtools.v131.fetch.model.RequestPattern;
+import org.openqa.selenium.devtools.v131.fetch.model.RequestPaused;
+import org.openqa.selenium.devtools.v131.fetch.model.RequestStage;
+import org.openqa.selenium.devtools.v131.network.Network;
+import org.openqa.selenium.devtools.v131.network.model.ErrorReason;
+import org.openqa.selenium.devtools.v131.network.model.ResourceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies a ResourceBlocking policy to one page load on a pooled driver through DevTools, and counts
+ * the bytes the page transferred. Tracker URLs go to Network.setBlockedURLs; resource kinds and
+ * third-party scripts are decided per request by pausing them with the Fetch domain. A control
+ * session blocks nothing and only counts.
+ *
+ * Blocking has to be per load rather than a Chrome preference because the pooled drivers serve
+ * every portal, and the control pages must load everything.
+ */
+class ResourceBlocker implements AutoCloseable {
+    private final DevTools devTools;
+    private final ResourceBlocking.Policy policy;
+    private final String pageUrl;
+    private final boolean control;
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger blocked = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+
+    private ResourceBlocker(DevTools devTools, ResourceBlocking.Policy policy, String pageUrl, boolean control) {
+        this.devTools = devTools;
+        this.policy = policy;
+        this.pageUrl = pageUrl;
+        this.control = control;
+    }
+
+    // Returns null when there is nothing to apply or the driver has no DevTools
+    static ResourceBlocker start(WebDriver driver, ResourceBlocking blocking, PageReadiness.Profile profile, String pageUrl) {
+        if (blocking == null || !(driver instanceof HasDevTools)) {
+            return null;
+        }
+        ResourceBlocking.Policy policy = blocking.getPolicy(profile);
+        if (policy == null) {
+            return null;
+        }
+
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        ResourceBlocker blocker = new ResourceBlocker(devTools, policy, pageUrl, blocking.nextIsControl(profile));
+        blocker.enable();
+        return blocker;
+    }
+
+    private void enable() {
+        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+        devTools.addListener(Network.loadingFinished(), event -> {
+            requests.incrementAndGet();
+            bytes.addAndGet(event.getEncodedDataLength().longValue());
+        });
+        if (control) {
+            return;
+        }
+
+        devTools.addListener(Network.loadingFailed(), event -> {
+            if (event.getBlockedReason().isPresent()) {
+                blocked.incrementAndGet();
+            }
+        });
+        devTools.send(Network.setBlockedURLs(policy.getBlockedUrlPatterns()));
+
+        List<RequestPattern> patterns = new ArrayList<>();
+        for (ResourceBlocking.Kind kind : policy.getBlockedKinds()) {
+            patterns.add(pattern(resourceType(kind)));
+        }
+        if (policy.isBlockThirdPartyScripts()) {
+            patterns.add(pattern(ResourceType.SCRIPT));
+        }
+        if (!patterns.isEmpty()) {
+            devTools.addListener(Fetch.requestPaused(), this::decide);
+            devTools.send(Fetch.enable(Optional.of(patterns), Optional.empty()));
+        }
+    }
+
+    // Only the kinds in the Fetch patterns are paused, so anything but an allowed script is blocked
+    private void decide(RequestPaused paused) {
+        try {
+            if (paused.getResourceType() == ResourceType.SCRIPT
+                    && policy.allowsScript(paused.getRequest().getUrl(), pageUrl)) {
+                devTools.send(Fetch.continueRequest(paused.getRequestId(), Optional.empty(), Optional.empty(),
+                        Optional.empty(), Optional.empty(), Optional.empty()));
+            } else {
+                blocked.incrementAndGet();
+                devTools.send(Fetch.failRequest(paused.getRequestId(), ErrorReason.BLOCKEDBYCLIENT));
+            }
+        } catch (DevToolsException e) {
+            // The page navigated away and the request is gone
+        }
+    }
+
+    boolean isControl() { return control; }
+    long getBytes() { return bytes.get(); }
+    int getRequests() { return requests.get(); }
+    int getBlocked() { return blocked.get(); }
+    long getElapsedMillis() { return (System.nanoTime() - startNanos) / 1_000_000; }
+
+    @Override
+    public void close() {
+        try {
+            devTools.clearListeners();
+            if (!control) {
+                devTools.send(Fetch.disable());
+                devTools.send(Network.setBlockedURLs(List.of()));
+            }
+            devTools.send(Network.disable());
+        } catch (DevToolsException e) {
+            System.err.println("Error stopping resource blocking: " + e.getMessage());
+        }
+    }
+
+    private static RequestPattern pattern(ResourceType type) {
+        return new RequestPattern(Optional.of("*"), Optional.of(type), Optional.of(RequestStage.REQUEST));
+    }
+
+    private static ResourceType resourceType(ResourceBlocking.Kind kind) {
+        return switch (kind) {
+            case IMAGE -> ResourceType.IMAGE;
+            case FONT -> ResourceType.FONT;
+            case MEDIA -> ResourceType.MEDIA;
+            case STYLESHEET -> ResourceType.STYLESHEET;
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package jobanalysis.scraping;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What the scraping browsers skip downloading, per portal profile: resource kinds the parsers never
+ * use (images, fonts, media), tracker and ad URLs, and optionally every third-party script except
+ * those on an allowlist of hosts the job list needs to render.
+ *
+ * Every controlSampleEvery-th page of a profile is loaded without blocking, so the bytes and load
+ * time of blocked pages can be compared against real unblocked ones in ScraperMetrics.
+ */
+public class ResourceBlocking {
+    public enum Kind { IMAGE, FONT, MEDIA, STYLESHEET }
+
+    // Analytics, ad and session-recording endpoints; patterns use DevTools wildcards
+    public static final List<String> TRACKERS = List.of(
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+            "*googlesyndication.com*", "*googleadservices.com*", "*connect.facebook.net*",
+            "*hotjar.com*", "*cdn.segment.com*", "*api.segment.io*", "*scorecardresearch.com*",
+            "*criteo.com*", "*criteo.net*", "*adsrvr.org*", "*clarity.ms*", "*bat.bing.com*",
+            "*px.ads.linkedin.com*", "*newrelic.com*", "*nr-data.net*", "*quantserve.com*");
+
+    // Bot challenges must still load, or a throttled page can never be cleared
+    public static final List<String> CHALLENGE_HOSTS = List.of(
+            "challenges.cloudflare.com", "hcaptcha.com", "recaptcha.net", "www.google.com", "www.gstatic.com");
+
+    public static class Policy {
+        private final Set<Kind> blockedKinds;
+        private final List<String> blockedUrlPatterns;
+        private final boolean blockThirdPartyScripts;
+        private final List<String> allowedScriptHosts;
+
+        private Policy(Builder builder) {
+            this.blockedKinds = Collections.unmodifiableSet(EnumSet.copyOf(builder.blockedKinds));
+            this.blockedUrlPatterns = List.copyOf(builder.blockedUrlPatterns);
+            this.blockThirdPartyScripts = builder.blockThirdPartyScripts;
+            this.allowedScriptHosts = List.copyOf(builder.allowedScriptHosts);
+        }
+
+        public Set<Kind> getBlockedKinds() { return blockedKinds; }
+        public List<String> getBlockedUrlPatterns() { return blockedUrlPatterns; }
+        public boolean isBlockThirdPartyScripts() { return blockThirdPartyScripts; }
+        public List<String> getAllowedScriptHosts() { return allowedScriptHosts; }
+
+        // Scripts from the page's own site or an allowlisted host (or a subdomain of one) are kept
+        public boolean allowsScript(String scriptUrl, String pageUrl) {
+            if (!blockThirdPartyScripts) {
+                return true;
+            }
+            String scriptHost = hostOf(scriptUrl);
+            if (scriptHost.isEmpty() || sameSite(scriptHost, hostOf(pageUrl))) {
+                return true;
+            }
+            for (String allowed : allowedScriptHosts) {
+                if (matchesHost(scriptHost, allowed)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public static class Builder {
+            private final Set<Kind> blockedKinds = EnumSet.noneOf(Kind.class);
+            private final List<String> blockedUrlPatterns = new ArrayList<>();
+            private boolean blockThirdPartyScripts;
+            private final List<String> allowedScriptHosts = new ArrayList<>(CHALLENGE_HOSTS);
+
+            public Builder block(Kind... kinds) {
+                Collections.addAll(blockedKinds, kinds);
+                return this;
+            }
+
+            public Builder blockUrls(List<String> patterns) {
+                blockedUrlPatterns.addAll(patterns);
+                return this;
+            }
+
+            // Third-party scripts are dropped unless their host ends with one of allowedHosts
+            public Builder blockThirdPartyScripts(String... allowedHosts) {
+                this.blockThirdPartyScripts = true;
+                Collections.addAll(allowedScriptHosts, allowedHosts);
+                return this;
+            }
+
+            public Policy build() {
+                return new Policy(this);
+            }
+        }
+    }
+
+    private final Map<PageReadiness.Profile, Policy> policies = new EnumMap<>(PageReadiness.Profile.class);
+    private final Map<PageReadiness.Profile, AtomicLong> pageCounts = new ConcurrentHashMap<>();
+    private volatile int controlSampleEvery = 20;
+
+    // LinkedIn and Indeed render from their own hosts, so their third-party scripts are all dropped;
+    // other boards may load their app from a CDN and only lose trackers
+    public static ResourceBlocking defaults() {
+        ResourceBlocking blocking = new ResourceBlocking();
+        blocking.setPolicy(PageReadiness.Profile.LINKEDIN, new Policy.Builder()
+                .block(Kind.IMAGE, Kind.FONT, Kind.MEDIA)
+                .blockUrls(TRACKERS)
+                .blockThirdPartyScripts("linkedin.com", "licdn.com")
+                .build());
+        blocking.setPolicy(PageReadiness.Profile.INDEED, new Policy.Builder()
+                .block(Kind.IMAGE, Kind.FONT, Kind.MEDIA)
+                .blockUrls(TRACKERS)
+                .blockThirdPartyScripts("indeed.com", "indeed.net")
+                .build());
+        Policy generic = new Policy.Builder()
+                .block(Kind.IMAGE, Kind.FONT, Kind.MEDIA)
+                .blockUrls(TRACKERS)
+                .build();
+        blocking.setPolicy(PageReadiness.Profile.GENERIC, generic);
+        blocking.setPolicy(PageReadiness.Profile.DETAIL, generic);
+        return blocking;
+    }
+
+    // A null policy turns blocking off for that profile
+    public ResourceBlocking setPolicy(PageReadiness.Profile profile, Policy policy) {
+        synchronized (policies) {
+            if (policy == null) {
+                policies.remove(profile);
+            } else {
+                policies.put(profile, policy);
+            }
+        }
+        return this;
+    }
+
+    public Policy getPolicy(PageReadiness.Profile profile) {
+        synchronized (policies) {
+            return policies.get(profile);
+        }
+    }
+
+    // 0 disables the unblocked comparison pages
+    public ResourceBlocking setControlSampleEvery(int controlSampleEvery) {
+        this.controlSampleEvery = Math.max(0, controlSampleEvery);
+        return this;
+    }
+
+    // Counts the page and tells whether it is loaded unblocked for comparison; the first page of each profile is
+    boolean nextIsControl(PageReadiness.Profile profile) {
+        long page = pageCounts.computeIfAbsent(profile, key -> new AtomicLong()).getAndIncrement();
+        int every = controlSampleEvery;
+        return every > 0 && page % every == 0;
+    }
+
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "" : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private static boolean matchesHost(String host, String allowed) {
+        return host.equals(allowed) || host.endsWith("." + allowed);
+    }
+
+    // Compares the last two labels, enough for www.x.com vs static.x.com
+    private static boolean sameSite(String a, String b) {
+        return !b.isEmpty() && registrableDomain(a).equals(registrableDomain(b));
+    }
+
+    private static String registrableDomain(String host) {
+        int last = host.lastIndexOf('.');
+        int previous = last > 0 ? host.lastIndexOf('.', last - 1) : -1;
+        return previous < 0 ? host : host.substring(previous + 1);
+    }
+}
@@ -0,0 +1,350 @@
+package jobanalysis.scraping;
+
+import java.util.Locale;
+
+import static jobanalysis.scraping.ScanSupport.isDigit;
+import static jobanalysis.scraping.ScanSupport.isTokenStart;
+import static jobanalysis.scraping.ScanSupport.matchAnyWord;
+import static jobanalysis.scraping.ScanSupport.matchWord;
+import static jobanalysis.scraping.ScanSupport.numberEnd;
+import static jobanalysis.scraping.ScanSupport.parseNumber;
+import static jobanalysis.scraping.ScanSupport.skipSpaces;
+
+/**
+ * Hand-written scanner for salary ranges such as "$40k - $60k a year", "8 000 à 12 000 MAD par mois"
+ * or "25€/h". One left-to-right pass, no regex and no intermediate Strings: amounts are read
+ * straight from the characters into a SalaryRange the caller can reuse.
+ *
+ * A number only counts as a salary when it carries a currency, a k suffix or a pay period, or is
+ * at least 1000, so years and counts in free text are not mistaken for pay.
+ */
+public final class SalaryScanner {
+
+    public enum Period {
+        HOUR(2080), DAY(260), WEEK(52), MONTH(12), YEAR(1), UNKNOWN(1);
+
+        private final int perYear;
+
+        Period(int perYear) {
+            this.perYear = perYear;
+        }
+    }
+
+    public enum Currency {
+        USD("$"), EUR("€"), GBP("£"), MAD("MAD"), UNKNOWN("");
+
+        private final String symbol;
+
+        Currency(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    public static final class SalaryRange {
+        private double min;
+        private double max;
+        private Period period = Period.UNKNOWN;
+        private Currency currency = Currency.UNKNOWN;
+        private boolean openEnded;
+
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+        public Period getPeriod() { return period; }
+        public Currency getCurrency() { return currency; }
+        // "$100,000+" or "$40k and up": min is a floor and max carries no information
+        public boolean isOpenEnded() { return openEnded; }
+
+        // Amounts scaled to a year; a range without a period is taken as yearly
+        public double getAnnualMin() { return min * period.perYear; }
+        public double getAnnualMax() { return max * period.perYear; }
+        public double getAnnualMidpoint() { return (min + max) / 2 * period.perYear; }
+
+        private void reset() {
+            min = 0;
+            max = 0;
+            period = Period.UNKNOWN;
+            currency = Currency.UNKNOWN;
+            openEnded = false;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            appendAmount(text, min);
+            if (openEnded) {
+                text.append('+');
+            } else if (max > min) {
+                text.append(" - ");
+                appendAmount(text, max);
+            }
+            if (currency == Currency.MAD) {
+                text.append(" MAD");
+            }
+            if (period != Period.UNKNOWN) {
+                text.append(" per ").append(period.name().toLowerCase(Locale.ROOT));
+            }
+            return text.toString();
+        }
+
+        private void appendAmount(StringBuilder text, double amount) {
+            if (currency != Currency.MAD) {
+                text.append(currency.symbol);
+            }
+            if (amount == Math.rint(amount)) {
+                text.append(String.format(Locale.ROOT, "%,d", (long) amount));
+            } else {
+                text.append(String.format(Locale.ROOT, "%,.2f", amount));
+            }
+        }
+    }
+
+    private static final String[] RANGE_SEPARATORS = {"-", "–", "—", "to", "à", "a", "and", "et"};
+    private static final String[] CURRENCY_WORDS = {
+            "mad", "dhs", "dh", "dirhams", "dirham", "usd", "dollars", "eur", "euros", "euro", "gbp"};
+    private static final Currency[] CURRENCY_WORD_VALUES = {
+            Currency.MAD, Currency.MAD, Currency.MAD, Currency.MAD, Currency.MAD, Currency.USD, Currency.USD,
+            Currency.EUR, Currency.EUR, Currency.EUR, Currency.GBP};
+    private static final String[] OPEN_CONJUNCTIONS = {"and", "or", "et", "ou"};
+    private static final String[] OPEN_WORDS = {"up", "above", "more", "over", "plus"};
+    private static final String[] PERIOD_FILLERS = {"per", "par", "an", "a", "each", "brut", "net", "gross"};
+    private static final String[] PERIOD_WORDS = {
+            "hourly", "hour", "hr", "heure", "h",
+            "daily", "day", "jour",
+            "weekly", "week", "wk", "semaine",
+            "monthly", "month", "mois", "mensuel", "mo",
+            "yearly", "year", "yr", "annually", "annual", "annum", "annuel", "année", "an"};
+    private static final Period[] PERIOD_VALUES = {
+            Period.HOUR, Period.HOUR, Period.HOUR, Period.HOUR, Period.HOUR,
+            Period.DAY, Period.DAY, Period.DAY,
+            Period.WEEK, Period.WEEK, Period.WEEK, Period.WEEK,
+            Period.MONTH, Period.MONTH, Period.MONTH, Period.MONTH, Period.MONTH,
+            Period.YEAR, Period.YEAR, Period.YEAR, Period.YEAR, Period.YEAR, Period.YEAR, Period.YEAR,
+            Period.YEAR, Period.YEAR};
+
+    private SalaryScanner() {
+    }
+
+    // First salary in text, or null when there is none
+    public static SalaryRange parse(CharSequence text) {
+        SalaryRange range = new SalaryRange();
+        return scan(text, range) ? range : null;
+    }
+
+    // Fills result with the first salary in text; returns false (result unspecified) when there is none
+    public static boolean scan(CharSequence text, SalaryRange result) {
+        if (text == null) {
+            return false;
+        }
+        int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            if (isDigit(text.charAt(pos)) && isTokenStart(text, pos)) {
+                int end = scanAt(text, pos, result);
+                if (end >= 0) {
+                    return true;
+                }
+                pos = -end;
+            } else {
+                pos++;
+            }
+        }
+        return false;
+    }
+
+    // Reads a salary starting at the number at pos. Returns its end, or minus the position to
+    // resume from when the number turns out not to be a salary.
+    private static int scanAt(CharSequence text, int start, SalaryRange result) {
+        result.reset();
+        int length = text.length();
+        Currency before = currencyBefore(text, start);
+
+        int end = numberEnd(text, start);
+        double min = parseNumber(text, start, end);
+        int pos = end;
+        boolean minK = false;
+        int afterK = thousandsSuffix(text, pos);
+        if (afterK >= 0) {
+            min *= 1000;
+            minK = true;
+            pos = afterK;
+        }
+        // "+" sits before or after a trailing currency: "40 000+ MAD", "40 000 MAD+"
+        int afterOpen = openEndAfter(text, pos);
+        Currency currency = before;
+        int afterCurrency = currencyAfter(text, afterOpen >= 0 ? afterOpen : pos, result);
+        if (afterCurrency >= 0) {
+            currency = result.currency;
+            pos = afterCurrency;
+        } else if (afterOpen >= 0) {
+            pos = afterOpen;
+        }
+        if (afterOpen < 0) {
+            afterOpen = openEndAfter(text, pos);
+            if (afterOpen >= 0) {
+                pos = afterOpen;
+            }
+        }
+        boolean openEnded = afterOpen >= 0;
+        int resume = Math.max(end, start + 1);
+
+        double max = min;
+        boolean maxK = false;
+        int separator = openEnded ? -1 : matchAnyWord(text, skipSpaces(text, pos), RANGE_SEPARATORS);
+        if (separator >= 0) {
+            int second = skipSpaces(text, separator);
+            Currency secondBefore = Currency.UNKNOWN;
+            if (second < length && symbolCurrency(text.charAt(second)) != null) {
+                secondBefore = symbolCurrency(text.charAt(second));
+                second = skipSpaces(text, second + 1);
+            }
+            if (second < length && isDigit(text.charAt(second))) {
+                int secondEnd = numberEnd(text, second);
+                max = parseNumber(text, second, secondEnd);
+                pos = secondEnd;
+                afterK = thousandsSuffix(text, pos);
+                if (afterK >= 0) {
+                    max *= 1000;
+                    maxK = true;
+                    pos = afterK;
+                }
+                if (secondBefore != Currency.UNKNOWN) {
+                    currency = secondBefore;
+                }
+                afterCurrency = currencyAfter(text, pos, result);
+                if (afterCurrency >= 0) {
+                    currency = result.currency;
+                    pos = afterCurrency;
+                }
+                // "40-60k": the suffix on the upper bound applies to both
+                if (maxK && !minK && min < 1000) {
+                    min *= 1000;
+                    minK = true;
+                }
+            }
+        }
+
+        Period period = periodAfter(text, pos);
+        boolean salaryLike = currency != Currency.UNKNOWN || minK || maxK || period != Period.UNKNOWN || min >= 1000;
+        if (!salaryLike || min <= 0) {
+            return -resume;
+        }
+
+        result.min = Math.min(min, max);
+        result.max = Math.max(min, max);
+        result.currency = currency;
+        result.period = period;
+        result.openEnded = openEnded;
+        return pos;
+    }
+
+    // Position after a "+", "and up", "or more" or "et plus" marking the amount as a minimum, -1 when there is none
+    private static int openEndAfter(CharSequence text, int pos) {
+        int at = skipSpaces(text, pos);
+        if (at < text.length() && text.charAt(at) == '+') {
+            return at + 1;
+        }
+        int conjunction = matchAnyWord(text, at, OPEN_CONJUNCTIONS);
+        if (conjunction < 0) {
+            return -1;
+        }
+        return matchAnyWord(text, skipSpaces(text, conjunction), OPEN_WORDS);
+    }
+
+    // Position after a "k"/"K" suffix (optionally spaced), -1 when there is none
+    private static int thousandsSuffix(CharSequence text, int pos) {
+        int at = skipSpaces(text, pos);
+        if (at < text.length() && (text.charAt(at) == 'k' || text.charAt(at) == 'K')
+                && (at + 1 == text.length() || !Character.isLetter(text.charAt(at + 1)))) {
+            return at + 1;
+        }
+        return -1;
+    }
+
+    private static Currency currencyBefore(CharSequence text, int start) {
+        int pos = start - 1;
+        while (pos >= 0 && ScanSupport.isSpace(text.charAt(pos))) {
+            pos--;
+        }
+        if (pos < 0) {
+            return Currency.UNKNOWN;
+        }
+        Currency symbol = symbolCurrency(text.charAt(pos));
+        if (symbol != null) {
+            return symbol;
+        }
+        for (int i = 0; i < CURRENCY_WORDS.length; i++) {
+            int wordStart = pos + 1 - CURRENCY_WORDS[i].length();
+            if (wordStart >= 0 && isTokenStart(text, wordStart) && matchWord(text, wordStart, CURRENCY_WORDS[i]) == pos + 1) {
+                return CURRENCY_WORD_VALUES[i];
+            }
+        }
+        return Currency.UNKNOWN;
+    }
+
+    // Stores the currency written after an amount in result.currency; returns the position after it or -1
+    private static int currencyAfter(CharSequence text, int pos, SalaryRange result) {
+        int at = skipSpaces(text, pos);
+        if (at >= text.length()) {
+            return -1;
+        }
+        Currency symbol = symbolCurrency(text.charAt(at));
+        if (symbol != null) {
+            result.currency = symbol;
+            return at + 1;
+        }
+        for (int i = 0; i < CURRENCY_WORDS.length; i++) {
+            int end = matchWord(text, at, CURRENCY_WORDS[i]);
+            if (end >= 0) {
+                result.currency = CURRENCY_WORD_VALUES[i];
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    private static Currency symbolCurrency(char c) {
+        return switch (c) {
+            case '$' -> Currency.USD;
+            case '€' -> Currency.EUR;
+            case '£' -> Currency.GBP;
+            default -> null;
+        };
+    }
+
+    // Pay period following the amounts: "/h", "per year", "a month", "par mois", "brut par an"...
+    private static Period periodAfter(CharSequence text, int pos) {
+        for (int step = 0; step < 4; step++) {
+            pos = skipSpaces(text, pos);
+            if (pos < text.length() && text.charAt(pos) == '/') {
+                pos++;
+                continue;
+            }
+            // "an hour" and "par an": try the word as a filler first, then as a period
+            int filler = matchAnyWord(text, pos, PERIOD_FILLERS);
+            if (filler >= 0) {
+                Period period = periodAt(text, skipSpaces(text, filler));
+                if (period != null) {
+                    return period;
+                }
+            }
+            Period period = periodAt(text, pos);
+            if (period != null) {
+                return period;
+            }
+            if (filler < 0) {
+                break;
+            }
+            pos = filler;
+        }
+        return Period.UNKNOWN;
+    }
+
+    private static Period periodAt(CharSequence text, int pos) {
+        for (int i = 0; i < PERIOD_WORDS.length; i++) {
+            if (matchWord(text, pos, PERIOD_WORDS[i]) >= 0) {
+                return PERIOD_VALUES[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,124 @@
+package jobanalysis.scraping;
+
+/**
+ * Character-level helpers shared by SalaryScanner and ExperienceScanner. They work on positions in
+ * a CharSequence and never build substrings.
+ */
+final class ScanSupport {
+
+    private ScanSupport() {
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // A token may only start where the previous character is not part of a word or number
+    static boolean isTokenStart(CharSequence text, int pos) {
+        if (pos == 0) {
+            return true;
+        }
+        char previous = text.charAt(pos - 1);
+        return !Character.isLetterOrDigit(previous) && !((previous == ',' || previous == '.')
+                && pos > 1 && isDigit(text.charAt(pos - 2)));
+    }
+
+    static int skipSpaces(CharSequence text, int pos) {
+        while (pos < text.length() && isSpace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\u00a0' || c == '\u202f';
+    }
+
+    // End of the number starting at pos: digits, thousands groups ("40,000", "40 000", "40.000")
+    // and an optional decimal part of one or two digits
+    static int numberEnd(CharSequence text, int pos) {
+        int length = text.length();
+        int end = digitsEnd(text, pos);
+        while (end + 4 <= length && isGroupSeparator(text.charAt(end)) && digitsEnd(text, end + 1) == end + 4) {
+            end += 4;
+        }
+        if (end + 1 < length && (text.charAt(end) == '.' || text.charAt(end) == ',') && isDigit(text.charAt(end + 1))) {
+            int fractionEnd = digitsEnd(text, end + 1);
+            if (fractionEnd - end - 1 <= 2) {
+                end = fractionEnd;
+            }
+        }
+        return end;
+    }
+
+    // Value of text[start, end) as delimited by numberEnd
+    static double parseNumber(CharSequence text, int start, int end) {
+        int decimalAt = -1;
+        for (int i = end - 1; i >= start; i--) {
+            if (!isDigit(text.charAt(i))) {
+                if (end - 1 - i <= 2) {
+                    decimalAt = i;
+                }
+                break;
+            }
+        }
+
+        double value = 0;
+        double scale = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (i == decimalAt) {
+                scale = 1;
+            } else if (isDigit(c)) {
+                if (scale > 0) {
+                    scale /= 10;
+                    value += (c - '0') * scale;
+                } else {
+                    value = value * 10 + (c - '0');
+                }
+            }
+        }
+        return value;
+    }
+
+    // Position after word when text continues with it (ignoring case) as a whole word, -1 otherwise
+    static int matchWord(CharSequence text, int pos, String word) {
+        int end = pos + word.length();
+        if (end > text.length()) {
+            return -1;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = text.charAt(pos + i);
+            char w = word.charAt(i);
+            if (c != w && Character.toLowerCase(c) != w) {
+                return -1;
+            }
+        }
+        if (end < text.length() && Character.isLetter(word.charAt(word.length() - 1))
+                && Character.isLetter(text.charAt(end))) {
+            return -1;
+        }
+        return end;
+    }
+
+    static int matchAnyWord(CharSequence text, int pos, String[] words) {
+        for (String word : words) {
+            int end = matchWord(text, pos, word);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    private static int digitsEnd(CharSequence text, int pos) {
+        while (pos < text.length() && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isGroupSeparator(char c) {
+        return c == ',' || c == '.' || c == '\'' || isSpace(c);
+    }
+}
@@ -0,0 +1,225 @@
+package jobanalysis.scraping;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class ScraperConfig {
+    public enum FetchMode {
+        // Always render pages in Chrome
+        BROWSER,
+        // Plain HTTP GET first, browser only for sites where that finds no content
+        HTTP_FIRST,
+        // Never start a browser
+        HTTP_ONLY
+    }
+
+    private final int pageWorkers;
+    private final int portalWorkers;
+    private final int browserPoolSize;
+    private final int maxDriverReuse;
+    private final Duration browserBorrowTimeout;
+    private final int detailWorkers;
+    private final int maxDetailsPerHost;
+    private final Duration detailDeadline;
+    private final double initialRequestsPerSecond;
+    private final double minRequestsPerSecond;
+    private final double maxRequestsPerSecond;
+    private final FetchMode fetchMode;
+    private final Path archiveDirectory;
+    private final KnownJobIndex knownJobs;
+    private final CrawlFrontier frontier;
+    private final NearDuplicateIndex nearDuplicates;
+    private final boolean nearDuplicateFiltering;
+    private final boolean networkCapture;
+    private final boolean browserExtraction;
+    private final ResourceBlocking resourceBlocking;
+
+    private ScraperConfig(Builder builder) {
+        this.pageWorkers = builder.pageWorkers;
+        this.portalWorkers = builder.portalWorkers;
+        this.browserPoolSize = builder.browserPoolSize;
+        this.maxDriverReuse = builder.maxDriverReuse;
+        this.browserBorrowTimeout = builder.browserBorrowTimeout;
+        this.detailWorkers = builder.detailWorkers;
+        this.maxDetailsPerHost = builder.maxDetailsPerHost;
+        this.detailDeadline = builder.detailDeadline;
+        this.initialRequestsPerSecond = builder.initialRequestsPerSecond;
+        this.minRequestsPerSecond = builder.minRequestsPerSecond;
+        this.maxRequestsPerSecond = builder.maxRequestsPerSecond;
+        this.fetchMode = builder.fetchMode;
+        this.archiveDirectory = builder.archiveDirectory;
+        this.knownJobs = builder.knownJobs;
+        this.frontier = builder.frontier;
+        this.nearDuplicates = builder.nearDuplicates;
+        this.nearDuplicateFiltering = builder.nearDuplicateFiltering || builder.nearDuplicates != null;
+        this.networkCapture = builder.networkCapture;
+        this.browserExtraction = builder.browserExtraction;
+        this.resourceBlocking = builder.resourceBlocking;
+    }
+
+    public static ScraperConfig defaults() {
+        return new Builder().build();
+    }
+
+    public int getPageWorkers() { return pageWorkers; }
+    public int getPortalWorkers() { return portalWorkers; }
+    public int getBrowserPoolSize() { return browserPoolSize; }
+    public int getMaxDriverReuse() { return maxDriverReuse; }
+    public Duration getBrowserBorrowTimeout() { return browserBorrowTimeout; }
+    public int getDetailWorkers() { return detailWorkers; }
+    public int getMaxDetailsPerHost() { return maxDetailsPerHost; }
+    public Duration getDetailDeadline() { return detailDeadline; }
+    public double getInitialRequestsPerSecond() { return initialRequestsPerSecond; }
+    public double getMinRequestsPerSecond() { return minRequestsPerSecond; }
+    public double getMaxRequestsPerSecond() { return maxRequestsPerSecond; }
+    public FetchMode getFetchMode() { return fetchMode; }
+    public Path getArchiveDirectory() { return archiveDirectory; }
+    public KnownJobIndex getKnownJobs() { return knownJobs; }
+    public boolean isIncremental() { return knownJobs != null; }
+    public CrawlFrontier getFrontier() { return frontier; }
+    public NearDuplicateIndex getNearDuplicates() { return nearDuplicates; }
+    public boolean isNearDuplicateFiltering() { return nearDuplicateFiltering; }
+    public boolean isNetworkCapture() { return networkCapture; }
+    public boolean isBrowserExtraction() { return browserExtraction; }
+    public ResourceBlocking getResourceBlocking() { return resourceBlocking; }
+
+    public static class Builder {
+        private int pageWorkers = 3;
+        private int portalWorkers = 2;
+        private int browserPoolSize = 3;
+        private int maxDriverReuse = 50;
+        private Duration browserBorrowTimeout = Duration.ofMinutes(2);
+        private int detailWorkers = 4;
+        private int maxDetailsPerHost = 2;
+        private Duration detailDeadline = Duration.ofMinutes(3);
+        private double initialRequestsPerSecond = 0.5;
+        private double minRequestsPerSecond = 0.05;
+        private double maxRequestsPerSecond = 2.0;
+        private FetchMode fetchMode = FetchMode.HTTP_FIRST;
+        private Path archiveDirectory;
+        private KnownJobIndex knownJobs;
+        private CrawlFrontier frontier;
+        private NearDuplicateIndex nearDuplicates;
+        private boolean nearDuplicateFiltering;
+        private boolean networkCapture;
+        private boolean browserExtraction;
+        private ResourceBlocking resourceBlocking;
+
+        // Number of result pages crawled at the same time by scrapeMultiplePages
+        public Builder setPageWorkers(int pageWorkers) {
+            this.pageWorkers = Math.max(1, pageWorkers);
+            return this;
+        }
+
+        // Result pages of one portal crawled at the same time by a FederatedSearch
+        public Builder setPortalWorkers(int portalWorkers) {
+            this.portalWorkers = Math.max(1, portalWorkers);
+            return this;
+        }
+
+        // Upper bound on Chrome instances alive at once, shared by all scraping threads
+        public Builder setBrowserPoolSize(int browserPoolSize) {
+            this.browserPoolSize = Math.max(1, browserPoolSize);
+            return this;
+        }
+
+        // A driver is quit and replaced after this many scrapes to cap memory growth
+        public Builder setMaxDriverReuse(int maxDriverReuse) {
+            this.maxDriverReuse = Math.max(1, maxDriverReuse);
+            return this;
+        }
+
+        public Builder setBrowserBorrowTimeout(Duration browserBorrowTimeout) {
+            this.browserBorrowTimeout = browserBorrowTimeout;
+            return this;
+        }
+
+        // Threads enriching job cards from their detail pages, across all listings
+        public Builder setDetailWorkers(int detailWorkers) {
+            this.detailWorkers = Math.max(1, detailWorkers);
+            return this;
+        }
+
+        public Builder setMaxDetailsPerHost(int maxDetailsPerHost) {
+            this.maxDetailsPerHost = Math.max(1, maxDetailsPerHost);
+            return this;
+        }
+
+        // Jobs whose details are not in by then are returned with their card data only
+        public Builder setDetailDeadline(Duration detailDeadline) {
+            this.detailDeadline = detailDeadline;
+            return this;
+        }
+
+        // Per-host request rate: starts at initial, adapts between min and max
+        public Builder setRequestsPerSecond(double initial, double min, double max) {
+            this.initialRequestsPerSecond = initial;
+            this.minRequestsPerSecond = min;
+            this.maxRequestsPerSecond = max;
+            return this;
+        }
+
+        public Builder setFetchMode(FetchMode fetchMode) {
+            this.fetchMode = fetchMode;
+            return this;
+        }
+
+        // When set, every fetched page is saved to a PageArchive in this directory
+        public Builder setArchiveDirectory(Path archiveDirectory) {
+            this.archiveDirectory = archiveDirectory;
+            return this;
+        }
+
+        // Enables incremental mode: known, unchanged jobs are skipped and
+        // pagination stops at the first page that only contains known jobs
+        public Builder setKnownJobs(KnownJobIndex knownJobs) {
+            this.knownJobs = knownJobs;
+            return this;
+        }
+
+        // Records finished pages and details so an interrupted crawl resumes where it stopped
+        public Builder setFrontier(CrawlFrontier frontier) {
+            this.frontier = frontier;
+            return this;
+        }
+
+        // Off by default: only exact repeats (same URL) are dropped. When on, near-duplicates of a job
+        // already returned are dropped too, within each call
+        public Builder setNearDuplicateFiltering(boolean nearDuplicateFiltering) {
+            this.nearDuplicateFiltering = nearDuplicateFiltering;
+            return this;
+        }
+
+        // Turns near-duplicate filtering on with an index shared across calls, so an offer already
+        // returned from one portal is dropped when found on another
+        public Builder setNearDuplicates(NearDuplicateIndex nearDuplicates) {
+            this.nearDuplicates = nearDuplicates;
+            return this;
+        }
+
+        // LinkedIn and Indeed listings in the browser are read from the JSON the page loads,
+        // falling back to the rendered page when no job payload is captured
+        public Builder setNetworkCapture(boolean networkCapture) {
+            this.networkCapture = networkCapture;
+            return this;
+        }
+
+        // Pages rendered in Chrome are read by running the selectors in the page and returning only
+        // the extracted fields, instead of transferring and re-parsing the full page source
+        public Builder setBrowserExtraction(boolean browserExtraction) {
+            this.browserExtraction = browserExtraction;
+            return this;
+        }
+
+        // Images, fonts, media, trackers and third-party scripts the browsers skip, per portal;
+        // ResourceBlocking.defaults() is a starting point, null loads everything
+        public Builder setResourceBlocking(ResourceBlocking resourceBlocking) {
+            this.resourceBlocking = resourceBlocking;
+            return this;
+        }
+
+        public ScraperConfig build() {
+            return new ScraperConfig(this);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package jobanalysis.scraping;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Thread-safe counters describing how a scraper instance spent its time
+public class ScraperMetrics {
+    private final Map<String, Timing> pageReady = new ConcurrentHashMap<>();
+    private final Map<String, Double> hostRates = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> throttleEvents = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> fetches = new ConcurrentHashMap<>();
+    private final Map<String, ResourceUsage> blockedLoads = new ConcurrentHashMap<>();
+    private final Map<String, ResourceUsage> unblockedLoads = new ConcurrentHashMap<>();
+
+    public static class Timing {
+        private long count;
+        private long totalMillis;
+        private long maxMillis;
+
+        private synchronized void record(long millis) {
+            count++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+
+        public synchronized long getCount() { return count; }
+        public synchronized long getMaxMillis() { return maxMillis; }
+        public synchronized long getAverageMillis() { return count == 0 ? 0 : totalMillis / count; }
+
+        @Override
+        public synchronized String toString() {
+            return count + " pages, avg " + getAverageMillis() + " ms, max " + maxMillis + " ms";
+        }
+    }
+
+    // Bytes transferred and load time of browser page loads, kept apart for blocked and unblocked ones
+    public static class ResourceUsage {
+        private long count;
+        private long totalBytes;
+        private long totalMillis;
+        private long blockedRequests;
+
+        private synchronized void record(long bytes, long millis, int blocked) {
+            count++;
+            totalBytes += bytes;
+            totalMillis += millis;
+            blockedRequests += blocked;
+        }
+
+        public synchronized long getCount() { return count; }
+        public synchronized long getAverageBytes() { return count == 0 ? 0 : totalBytes / count; }
+        public synchronized long getAverageMillis() { return count == 0 ? 0 : totalMillis / count; }
+        public synchronized long getBlockedRequests() { return blockedRequests; }
+
+        @Override
+        public synchronized String toString() {
+            return count + " pages, avg " + formatBytes(getAverageBytes()) + " in " + getAverageMillis() + " ms";
+        }
+    }
+
+    void recordPageReady(PageReadiness.Report report) {
+        pageReady.computeIfAbsent(report.getProfile().name(), k -> new Timing())
+                .record(report.getElapsedMillis());
+    }
+
+    void recordHostRate(String host, double requestsPerSecond) {
+        hostRates.put(host, requestsPerSecond);
+    }
+
+    void recordThrottled(String host) {
+        throttleEvents.computeIfAbsent(host, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    void recordFetch(HttpPageFetcher.PageKind kind, boolean overHttp) {
+        fetches.computeIfAbsent(kind + (overHttp ? " over HTTP" : " with browser"), k -> new AtomicLong())
+                .incrementAndGet();
+    }
+
+    void recordResourceUsage(PageReadiness.Profile profile, boolean blocking, long bytes, long millis, int blocked) {
+        (blocking ? blockedLoads : unblockedLoads).computeIfAbsent(profile.name(), k -> new ResourceUsage())
+                .record(bytes, millis, blocked);
+    }
+
+    public Map<String, ResourceUsage> getBlockedLoads() {
+        return new TreeMap<>(blockedLoads);
+    }
+
+    public Map<String, ResourceUsage> getUnblockedLoads() {
+        return new TreeMap<>(unblockedLoads);
+    }
+
+    // Average unblocked minus average blocked bytes per page, 0 until both kinds of loads were seen
+    public long getBytesSavedPerPage(PageReadiness.Profile profile) {
+        ResourceUsage blocked = blockedLoads.get(profile.name());
+        ResourceUsage unblocked = unblockedLoads.get(profile.name());
+        return blocked == null || unblocked == null ? 0 : unblocked.getAverageBytes() - blocked.getAverageBytes();
+    }
+
+    public long getMillisSavedPerPage(PageReadiness.Profile profile) {
+        ResourceUsage blocked = blockedLoads.get(profile.name());
+        ResourceUsage unblocked = unblockedLoads.get(profile.name());
+        return blocked == null || unblocked == null ? 0 : unblocked.getAverageMillis() - blocked.getAverageMillis();
+    }
+
+    static String formatBytes(long bytes) {
+        if (Math.abs(bytes) < 1024) {
+            return bytes + " B";
+        }
+        if (Math.abs(bytes) < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.2f MB", bytes / (1024.0 * 1024));
+    }
+
+    // Pages fetched per page kind and transport, e.g. "DETAIL over HTTP"
+    public Map<String, Long> getFetchCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        fetches.forEach((key, count) -> counts.put(key, count.get()));
+        return counts;
+    }
+
+    // Current allowed requests per second for every host seen so far
+    public Map<String, Double> getHostRates() {
+        return new TreeMap<>(hostRates);
+    }
+
+    public Map<String, Long> getThrottleEvents() {
+        Map<String, Long> events = new TreeMap<>();
+        throttleEvents.forEach((host, count) -> events.put(host, count.get()));
+        return events;
+    }
+
+    public Map<String, Timing> getPageReadyTimings() {
+        return new TreeMap<>(pageReady);
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder("Scraper metrics:");
+        getPageReadyTimings().forEach((profile, timing) ->
+                sb.append("\n  ").append(profile).append(" readiness: ").append(timing));
+        getFetchCounts().forEach((key, count) ->
+                sb.append("\n  ").append(key).append(": ").append(count).append(" pages"));
+        getBlockedLoads().forEach((profile, usage) -> {
+            PageReadiness.Profile key = PageReadiness.Profile.valueOf(profile);
+            sb.append("\n  ").append(profile).append(" with blocking: ").append(usage)
+                    .append(", ").append(usage.getBlockedRequests()).append(" requests blocked");
+            ResourceUsage unblocked = unblockedLoads.get(profile);
+            if (unblocked != null) {
+                sb.append("\n  ").append(profile).append(" unblocked: ").append(unblocked)
+                        .append(", saved ").append(formatBytes(getBytesSavedPerPage(key))).append(" and ")
+                        .append(getMillisSavedPerPage(key)).append(" ms per page");
+            }
+        });
+        Map<String, Long> throttled = getThrottleEvents();
+        getHostRates().forEach((host, rate) -> sb.append("\n  ").append(host).append(" rate: ")
+                .append(String.format("%.2f", rate)).append(" req/s, throttled ")
+                .append(throttled.getOrDefault(host, 0L)).append(" times"));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package jobanalysis.scraping;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A portal's card, link and field selectors, parsed once into Jsoup Evaluators when the set is
+ * built. Element.select(String) parses its query on every call, which the parsers used to do for
+ * every card and every field.
+ *
+ * Evaluators hold no per-query state (structural ones keep their memo per thread), so one set is
+ * shared by all scraping threads. A selector that does not parse fails the build, not a scrape.
+ */
+public final class SelectorSet {
+    private final String cardSelector;
+    private final String linkSelector;
+    private final Evaluator cards;
+    private final Evaluator link;
+    private final Map<String, String[]> fieldSelectors;
+    private final Map<String, List<Evaluator>> fields;
+
+    private SelectorSet(Builder builder) {
+        this.cardSelector = builder.cardSelector;
+        this.linkSelector = builder.linkSelector;
+        this.cards = builder.cardSelector == null ? null : QueryParser.parse(builder.cardSelector);
+        this.link = builder.linkSelector == null ? null : QueryParser.parse(builder.linkSelector);
+
+        Map<String, String[]> selectors = new LinkedHashMap<>();
+        Map<String, List<Evaluator>> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> field : builder.fields.entrySet()) {
+            List<Evaluator> evaluators = new ArrayList<>();
+            for (String selector : field.getValue()) {
+                evaluators.add(QueryParser.parse(selector));
+            }
+            selectors.put(field.getKey(), field.getValue().clone());
+            compiled.put(field.getKey(), List.copyOf(evaluators));
+        }
+        this.fieldSelectors = Collections.unmodifiableMap(selectors);
+        this.fields = Collections.unmodifiableMap(compiled);
+    }
+
+    // The source strings, for BrowserExtractor which runs them in the page
+    public String getCardSelector() { return cardSelector; }
+    public String getLinkSelector() { return linkSelector; }
+    public Map<String, String[]> getFieldSelectors() { return fieldSelectors; }
+
+    public Elements selectCards(Element root) {
+        return cards == null ? new Elements() : root.select(cards);
+    }
+
+    // href of the card's first link, "" when the set has no link selector or nothing matches
+    public String selectLink(Element card) {
+        Element found = link == null ? null : card.selectFirst(link);
+        return found != null ? found.attr("href") : "";
+    }
+
+    // Text of the first selector of the field that yields non-blank text, "" when none does
+    public String selectText(Element element, String field) {
+        List<Evaluator> evaluators = fields.get(field);
+        if (evaluators == null) {
+            return "";
+        }
+        for (Evaluator evaluator : evaluators) {
+            Element found = element.selectFirst(evaluator);
+            if (found != null) {
+                String text = found.text().trim();
+                if (!text.isEmpty() && !text.matches("^[\\s*]+$")) {
+                    return text;
+                }
+            }
+        }
+        return "";
+    }
+
+    public Map<String, String> selectFields(Element element) {
+        Map<String, String> data = new HashMap<>();
+        for (String field : fields.keySet()) {
+            data.put(field, selectText(element, field));
+        }
+        return data;
+    }
+
+    public static class Builder {
+        private String cardSelector;
+        private String linkSelector;
+        private final Map<String, String[]> fields = new LinkedHashMap<>();
+
+        public Builder cards(String cardSelector) {
+            this.cardSelector = cardSelector;
+            return this;
+        }
+
+        public Builder link(String linkSelector) {
+            this.linkSelector = linkSelector;
+            return this;
+        }
+
+        // Selectors in priority order
+        public Builder field(String name, String... selectors) {
+            fields.put(name, selectors);
+            return this;
+        }
+
+        public Builder fields(Map<String, String[]> fields) {
+            this.fields.putAll(fields);
+            return this;
+        }
+
+        public SelectorSet build() {
+            return new SelectorSet(this);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package jobanalysis.scraping;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads schema.org JobPosting data embedded in a page, as JSON-LD script blocks or as microdata
+ * (itemscope/itemprop attributes), and maps it to the same field names the scraper's selector
+ * parsers fill: title, company, location, salary, description, employmentType, workplaceType,
+ * postedDate, applicationDeadline, experienceLevel, requiredSkills, benefits, companyDescription
+ * and url.
+ *
+ * JSON-LD is read with a streaming parser: each object is flattened into dotted keys
+ * ("hiringOrganization.name", "baseSalary.value.minValue"...) while it is read, without building a
+ * tree, and nesting deeper than a posting needs is skipped. Fields a posting does not provide are
+ * left out of the map, so callers can run their selectors for just those.
+ */
+public class StructuredJobData {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int MAX_DEPTH = 5;
+
+    private StructuredJobData() {
+    }
+
+    // All JobPosting entries on the page, JSON-LD first, then microdata
+    public static List<Map<String, String>> extract(Document doc) {
+        List<Map<String, String>> postings = extractJsonLd(doc);
+        for (Element item : doc.select("[itemscope][itemtype*=JobPosting]")) {
+            // Nested postings are read as part of their outermost one
+            if (!item.parents().is("[itemscope][itemtype*=JobPosting]")) {
+                postings.add(readMicrodata(item));
+            }
+        }
+        postings.removeIf(Map::isEmpty);
+        return postings;
+    }
+
+    public static List<Map<String, String>> extractJsonLd(Document doc) {
+        List<Map<String, String>> postings = new ArrayList<>();
+        for (Element script : doc.select("script[type=application/ld+json]")) {
+            readJsonLd(script.data(), postings);
+        }
+        postings.removeIf(Map::isEmpty);
+        return postings;
+    }
+
+    // The first posting on a detail page, or an empty map
+    public static Map<String, String> extractFirst(Document doc) {
+        List<Map<String, String>> postings = extract(doc);
+        return postings.isEmpty() ? new HashMap<>() : postings.get(0);
+    }
+
+    // Microdata of a single card that is itself an itemscope, e.g. div[itemtype*=JobPosting]
+    public static Map<String, String> readMicrodata(Element item) {
+        Map<String, String> flat = new HashMap<>();
+        collectItemProps(item, "", flat);
+        return toJobFields(flat);
+    }
+
+    static void readJsonLd(String json, List<Map<String, String>> postings) {
+        if (json == null || json.isBlank()) {
+            return;
+        }
+        try (JsonParser parser = JSON.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                readObject(parser, "", new HashMap<>(), 0, postings);
+            } else if (token == JsonToken.START_ARRAY) {
+                readArray(parser, "", new HashMap<>(), 0, postings);
+            }
+        } catch (IOException e) {
+            System.err.println("Skipping unreadable JSON-LD block: " + e.getMessage());
+        }
+    }
+
+    // Reads the object the parser is positioned on into target under prefix, and records it when it is a JobPosting
+    private static void readObject(JsonParser parser, String prefix, Map<String, String> target, int depth,
+                                   List<Map<String, String>> postings) throws IOException {
+        // Every object gets its own map too, so a posting nested under @graph or mainEntity is still found
+        Map<String, String> own = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT) {
+                if (depth >= MAX_DEPTH) {
+                    parser.skipChildren();
+                } else {
+                    readObject(parser, name + ".", own, depth + 1, postings);
+                }
+            } else if (value == JsonToken.START_ARRAY) {
+                if (depth >= MAX_DEPTH) {
+                    parser.skipChildren();
+                } else {
+                    readArray(parser, name, own, depth + 1, postings);
+                }
+            } else if (value != JsonToken.VALUE_NULL) {
+                own.putIfAbsent(name, parser.getText());
+            }
+        }
+
+        if (isJobPosting(own.get("@type"))) {
+            postings.add(toJobFields(own));
+        }
+        for (Map.Entry<String, String> entry : own.entrySet()) {
+            target.putIfAbsent(prefix + entry.getKey(), entry.getValue());
+        }
+    }
+
+    // Scalars are joined with ", "; objects are merged under the array's key, first one wins
+    private static void readArray(JsonParser parser, String name, Map<String, String> target, int depth,
+                                  List<Map<String, String>> postings) throws IOException {
+        StringBuilder joined = new StringBuilder();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.START_OBJECT) {
+                readObject(parser, name.isEmpty() ? "" : name + ".", target, depth, postings);
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (token != JsonToken.VALUE_NULL) {
+                if (joined.length() > 0) {
+                    joined.append(", ");
+                }
+                joined.append(parser.getText());
+            }
+        }
+        if (joined.length() > 0 && !name.isEmpty()) {
+            target.putIfAbsent(name, joined.toString());
+        }
+    }
+
+    private static boolean isJobPosting(String type) {
+        return type != null && type.contains("JobPosting");
+    }
+
+    private static void collectItemProps(Element element, String prefix, Map<String, String> flat) {
+        for (Element child : element.children()) {
+            String prop = child.attr("itemprop");
+            if (prop.isEmpty()) {
+                collectItemProps(child, prefix, flat);
+                continue;
+            }
+            // itemprop may list several names for the same value
+            for (String name : prop.trim().split("\\s+")) {
+                if (child.hasAttr("itemscope")) {
+                    collectItemProps(child, prefix + name + ".", flat);
+                } else {
+                    flat.putIfAbsent(prefix + name, itemValue(child));
+                }
+            }
+            if (!child.hasAttr("itemscope")) {
+                collectItemProps(child, prefix, flat);
+            }
+        }
+        if (element.hasAttr("itemscope")) {
+            flat.putIfAbsent(prefix + "@type", element.attr("itemtype"));
+        }
+    }
+
+    private static String itemValue(Element element) {
+        if (element.hasAttr("content")) {
+            return element.attr("content");
+        }
+        if (element.hasAttr("datetime")) {
+            return element.attr("datetime");
+        }
+        if (element.is("a[href], link[href]")) {
+            return element.attr("abs:href").isEmpty() ? element.attr("href") : element.attr("abs:href");
+        }
+        return element.text();
+    }
+
+    // Maps flattened schema.org keys to the scraper's field names
+    static Map<String, String> toJobFields(Map<String, String> flat) {
+        Map<String, String> fields = new HashMap<>();
+        put(fields, "title", first(flat, "title", "name"));
+        put(fields, "company", first(flat, "hiringOrganization.name", "hiringOrganization"));
+        put(fields, "location", location(flat));
+        put(fields, "salary", salary(flat));
+        put(fields, "description", html(flat.get("description")));
+        put(fields, "employmentType", enumText(flat.get("employmentType")));
+        put(fields, "workplaceType", workplace(flat));
+        put(fields, "postedDate", flat.get("datePosted"));
+        put(fields, "applicationDeadline", flat.get("validThrough"));
+        put(fields, "experienceLevel", experience(flat));
+        put(fields, "requiredSkills", html(first(flat, "skills", "qualifications")));
+        put(fields, "benefits", html(flat.get("jobBenefits")));
+        put(fields, "companyDescription", html(flat.get("hiringOrganization.description")));
+        put(fields, "url", flat.get("url"));
+        return fields;
+    }
+
+    private static String location(Map<String, String> flat) {
+        StringBuilder location = new StringBuilder();
+        for (String key : new String[]{"addressLocality", "addressRegion", "addressCountry"}) {
+            String part = first(flat, "jobLocation.address." + key + ".name", "jobLocation.address." + key);
+            if (part != null && !part.isBlank() && location.indexOf(part) < 0) {
+                if (location.length() > 0) {
+                    location.append(", ");
+                }
+                location.append(part.trim());
+            }
+        }
+        if (location.length() > 0) {
+            return location.toString();
+        }
+        return first(flat, "jobLocation.name", "jobLocation.address", "jobLocation");
+    }
+
+    // Rebuilt as text SalaryScanner understands, e.g. "40000 - 60000 USD per year"
+    private static String salary(Map<String, String> flat) {
+        String min = first(flat, "baseSalary.value.minValue", "baseSalary.minValue", "baseSalary.value.value");
+        String max = first(flat, "baseSalary.value.maxValue", "baseSalary.maxValue");
+        if (min == null) {
+            min = first(flat, "baseSalary.value", "baseSalary");
+        }
+        if (min == null) {
+            return null;
+        }
+
+        StringBuilder salary = new StringBuilder(min);
+        if (max != null && !max.equals(min)) {
+            salary.append(" - ").append(max);
+        }
+        String currency = first(flat, "baseSalary.currency", "salaryCurrency");
+        if (currency != null) {
+            salary.append(' ').append(currency);
+        }
+        String unit = first(flat, "baseSalary.value.unitText", "baseSalary.unitText");
+        if (unit != null) {
+            salary.append(" per ").append(unit.toLowerCase(Locale.ROOT));
+        }
+        return salary.toString();
+    }
+
+    private static String workplace(Map<String, String> flat) {
+        String type = flat.get("jobLocationType");
+        if (type != null && type.toUpperCase(Locale.ROOT).contains("TELECOMMUTE")) {
+            return "Remote";
+        }
+        return type;
+    }
+
+    private static String experience(Map<String, String> flat) {
+        String months = flat.get("experienceRequirements.monthsOfExperience");
+        if (months != null) {
+            try {
+                return (int) Math.round(Double.parseDouble(months) / 12) + " years of experience";
+            } catch (NumberFormatException ignored) {
+                // Fall through to the free-text forms
+            }
+        }
+        return first(flat, "experienceRequirements.description", "experienceRequirements");
+    }
+
+    // FULL_TIME -> Full time
+    private static String enumText(String value) {
+        if (value == null || !value.equals(value.toUpperCase(Locale.ROOT))) {
+            return value;
+        }
+        String words = value.replace('_', ' ').toLowerCase(Locale.ROOT);
+        return words.isEmpty() ? words : Character.toUpperCase(words.charAt(0)) + words.substring(1);
+    }
+
+    // Descriptions are usually HTML fragments, sometimes escaped twice
+    private static String html(String value) {
+        if (value == null || value.indexOf('<') < 0 && value.indexOf('&') < 0) {
+            return value;
+        }
+        String text = Jsoup.parseBodyFragment(value).text();
+        return text.indexOf('<') >= 0 ? Jsoup.parseBodyFragment(text).text() : text;
+    }
+
+    private static String first(Map<String, String> flat, String... keys) {
+        for (String key : keys) {
+            String value = flat.get(key);
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static void put(Map<String, String> fields, String name, String value) {
+        if (value != null && !value.isBlank()) {
+            fields.put(name, value.trim());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package jobanalysis.scraping;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a bounded set of warm browser sessions that scraping threads borrow and give back,
+ * instead of launching and quitting a full Chrome for every page.
+ */
+public class WebDriverPool implements AutoCloseable {
+    private final Supplier<WebDriver> factory;
+    private final int maxSize;
+    private final int maxUses;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledDriver> idle = new LinkedBlockingQueue<>();
+    private final Set<PooledDriver> live = ConcurrentHashMap.newKeySet();
+    private final Thread shutdownHook = new Thread(this::quitAll, "webdriver-pool-shutdown");
+    private volatile boolean closed;
+
+    public WebDriverPool(Supplier<WebDriver> factory, int maxSize, int maxUses) {
+        this.factory = factory;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxUses = Math.max(1, maxUses);
+        this.permits = new Semaphore(this.maxSize, true);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    public static class PooledDriver {
+        private final WebDriver driver;
+        private int useCount;
+
+        private PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        public WebDriver getDriver() { return driver; }
+        public int getUseCount() { return useCount; }
+    }
+
+    // Starts browsers up front so the first scrapes do not pay the launch cost
+    public void warmUp(int count) {
+        int started = 0;
+        while (started < count && live.size() < maxSize) {
+            try {
+                idle.offer(create());
+                started++;
+            } catch (WebDriverException e) {
+                System.err.println("Error warming up browser: " + e.getMessage());
+                break;
+            }
+        }
+        System.out.println("Browser pool warmed up with " + started + " drivers");
+    }
+
+    public PooledDriver borrow(Duration timeout) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Browser pool is closed");
+        }
+        if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("No browser available after " + timeout.toSeconds() + "s");
+        }
+
+        try {
+            PooledDriver pooled;
+            while ((pooled = idle.poll()) != null) {
+                if (isHealthy(pooled)) {
+                    pooled.useCount++;
+                    return pooled;
+                }
+                System.err.println("Recycling crashed browser session");
+                discard(pooled);
+            }
+            pooled = create();
+            pooled.useCount++;
+            return pooled;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(PooledDriver pooled) {
+        release(pooled, true);
+    }
+
+    // Drivers that failed, hit their reuse cap or cannot be reset are quit instead of pooled
+    public void release(PooledDriver pooled, boolean healthy) {
+        try {
+            if (closed || !healthy || pooled.useCount >= maxUses || !reset(pooled)) {
+                discard(pooled);
+            } else {
+                idle.offer(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getLiveCount() {
+        return live.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        quitAll();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM is already shutting down and the hook is running
+        }
+    }
+
+    private PooledDriver create() {
+        PooledDriver pooled = new PooledDriver(factory.get());
+        live.add(pooled);
+        return pooled;
+    }
+
+    private boolean isHealthy(PooledDriver pooled) {
+        try {
+            pooled.driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private boolean reset(PooledDriver pooled) {
+        try {
+            pooled.driver.get("about:blank");
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledDriver pooled) {
+        live.remove(pooled);
+        try {
+            pooled.driver.quit();
+        } catch (WebDriverException e) {
+            System.err.println("Error quitting browser: " + e.getMessage());
+        }
+    }
+
+    private void quitAll() {
+        idle.clear();
+        for (PooledDriver pooled : live) {
+            discard(pooled);
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package jobanalysis.ui.panels;
 
+import jobanalysis.db.JobStats;
+import jobanalysis.db.JobStatsRepository;
 import jobanalysis.models.JobOffer;
 import javax.swing.*;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 public class DashboardPanel extends JPanel {
     private final JPanel contentPanel;
     private final JPanel chartsPanel;
-    private List<JobOffer> currentJobs;
+    private JobStats currentStats;
+    private Consumer<JobStats> storedStatsListener;
     private final Color THEME_COLOR = new Color(70, 130, 180);
 
     public DashboardPanel() {
@@ -31,9 +34,15 @@ public class DashboardPanel extends JPanel {
         JButton refreshButton = createStyledButton("Actualiser", THEME_COLOR);
         refreshButton.addActionListener(e -> refreshCharts());
 
+        // Statistiques de toutes les offres enregistrées, calculées par MongoDB
+        JButton storedButton = createStyledButton("Offres enregistrées", THEME_COLOR);
+        storedButton.setPreferredSize(new Dimension(200, 40));
+        storedButton.addActionListener(e -> loadStoredStats(storedButton));
+
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonPanel.setBackground(Color.WHITE);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(storedButton);
 
         contentPanel.add(buttonPanel, BorderLayout.NORTH);
         contentPanel.add(chartsPanel, BorderLayout.CENTER);
@@ -53,14 +62,50 @@ public class DashboardPanel extends JPanel {
     }
 
     public void updateDashboard(List<JobOffer> jobs) {
-        this.currentJobs = jobs;
-        if (jobs != null && !jobs.isEmpty()) {
+        updateDashboard(jobs != null ? JobStats.fromJobs(jobs, JobStatsRepository.DEFAULT_TOP) : null);
+    }
+
+    public void updateDashboard(JobStats stats) {
+        this.currentStats = stats;
+        if (stats != null && stats.getTotal() > 0) {
             refreshCharts();
         }
     }
 
+    // Appelé avec les statistiques chargées par "Offres enregistrées", par exemple pour le panneau Statistiques
+    public void setStoredStatsListener(Consumer<JobStats> storedStatsListener) {
+        this.storedStatsListener = storedStatsListener;
+    }
+
+    private void loadStoredStats(JButton button) {
+        button.setEnabled(false);
+        new SwingWorker<JobStats, Void>() {
+            @Override
+            protected JobStats doInBackground() {
+                return new JobStatsRepository().load(JobStatsRepository.DEFAULT_TOP);
+            }
+
+            @Override
+            protected void done() {
+                button.setEnabled(true);
+                try {
+                    JobStats stats = get();
+                    updateDashboard(stats);
+                    if (stats.getTotal() == 0) {
+                        showError("Aucune offre enregistrée");
+                    } else if (storedStatsListener != null) {
+                        storedStatsListener.accept(stats);
+                    }
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showError("Impossible de charger les statistiques: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
     private void refreshCharts() {
-        if (currentJobs == null || currentJobs.isEmpty()) {
+        if (currentStats == null || currentStats.getTotal() == 0) {
             showError("Aucune donnée disponible pour l'analyse");
             return;
         }
@@ -78,121 +123,39 @@ public class DashboardPanel extends JPanel {
     }
 
     private JPanel createCompanyDistributionPanel() {
-        JPanel panel = new JPanel(new BorderLayout(5, 5));
-        panel.setBackground(Color.WHITE);
-        panel.setBorder(createTitledBorder("Top Entreprises"));
-
-        Map<String, Long> companyDistribution = currentJobs.stream()
-                .collect(Collectors.groupingBy(
-                        JobOffer::getCompany,
-                        Collectors.counting()
-                ));
-
-        List<Map.Entry<String, Long>> topCompanies = companyDistribution.entrySet().stream()
-                .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
-                .limit(5)
-                .collect(Collectors.toList());
-
-        JPanel barsPanel = new JPanel(new GridLayout(5, 1, 0, 5));
-        barsPanel.setBackground(Color.WHITE);
-
-        for (Map.Entry<String, Long> entry : topCompanies) {
-            barsPanel.add(createBarComponent(
-                    entry.getKey(),
-                    entry.getValue(),
-                    companyDistribution.values().stream().mapToLong(l -> l).max().orElse(1),
-                    new Color(70, 130, 180)
-            ));
-        }
-
-        panel.add(barsPanel, BorderLayout.CENTER);
-        return panel;
+        return createBucketPanel("Top Entreprises", currentStats.getCompanies(), new Color(70, 130, 180));
     }
 
     private JPanel createLocationDistributionPanel() {
-        JPanel panel = new JPanel(new BorderLayout(5, 5));
-        panel.setBackground(Color.WHITE);
-        panel.setBorder(createTitledBorder("Top Localisations"));
-
-        Map<String, Long> locationDistribution = currentJobs.stream()
-                .collect(Collectors.groupingBy(
-                        JobOffer::getLocation,
-                        Collectors.counting()
-                ));
-
-        List<Map.Entry<String, Long>> topLocations = locationDistribution.entrySet().stream()
-                .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
-                .limit(5)
-                .collect(Collectors.toList());
-
-        JPanel barsPanel = new JPanel(new GridLayout(5, 1, 0, 5));
-        barsPanel.setBackground(Color.WHITE);
-
-        for (Map.Entry<String, Long> entry : topLocations) {
-            barsPanel.add(createBarComponent(
-                    entry.getKey(),
-                    entry.getValue(),
-                    locationDistribution.values().stream().mapToLong(l -> l).max().orElse(1),
-                    new Color(60, 179, 113)
-            ));
-        }
-
-        panel.add(barsPanel, BorderLayout.CENTER);
-        return panel;
+        return createBucketPanel("Top Localisations", currentStats.getLocations(), new Color(60, 179, 113));
     }
 
     private JPanel createEmploymentTypePanel() {
-        JPanel panel = new JPanel(new BorderLayout(5, 5));
-        panel.setBackground(Color.WHITE);
-        panel.setBorder(createTitledBorder("Types de Contrat"));
-
-        Map<String, Long> typeDistribution = currentJobs.stream()
-                .collect(Collectors.groupingBy(
-                        job -> job.getEmploymentType() != null ? job.getEmploymentType() : "Non spécifié",
-                        Collectors.counting()
-                ));
-
-        JPanel barsPanel = new JPanel(new GridLayout(0, 1, 0, 5));
-        barsPanel.setBackground(Color.WHITE);
-
-        long maxValue = typeDistribution.values().stream().mapToLong(l -> l).max().orElse(1);
-
-        typeDistribution.entrySet().stream()
-                .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
-                .forEach(entry -> barsPanel.add(createBarComponent(
-                        entry.getKey(),
-                        entry.getValue(),
-                        maxValue,
-                        new Color(106, 90, 205)
-                )));
-
-        panel.add(barsPanel, BorderLayout.CENTER);
-        return panel;
+        return createBucketPanel("Types de Contrat", currentStats.getEmploymentTypes(), new Color(106, 90, 205));
     }
 
     private JPanel createSalaryDistributionPanel() {
+        return createBucketPanel("Tranches de Salaire", currentStats.getSalaryRanges(), new Color(218, 112, 214));
+    }
+
+    private JPanel createBucketPanel(String title, List<JobStats.Bucket> buckets, Color color) {
         JPanel panel = new JPanel(new BorderLayout(5, 5));
         panel.setBackground(Color.WHITE);
-        panel.setBorder(createTitledBorder("Tranches de Salaire"));
-
-        Map<String, Long> salaryRanges = currentJobs.stream()
-                .collect(Collectors.groupingBy(
-                        this::categorizeSalary,
-                        Collectors.counting()
-                ));
+        panel.setBorder(createTitledBorder(title));
 
         JPanel barsPanel = new JPanel(new GridLayout(0, 1, 0, 5));
         barsPanel.setBackground(Color.WHITE);
 
-        long maxValue = salaryRanges.values().stream().mapToLong(l -> l).max().orElse(1);
+        long maxValue = buckets.stream().mapToLong(JobStats.Bucket::getCount).max().orElse(1);
 
-        salaryRanges.entrySet().stream()
-                .forEach(entry -> barsPanel.add(createBarComponent(
-                        entry.getKey(),
-                        entry.getValue(),
-                        maxValue,
-                        new Color(218, 112, 214)
-                )));
+        for (JobStats.Bucket bucket : buckets) {
+            barsPanel.add(createBarComponent(
+                    bucket.getLabel(),
+                    bucket.getCount(),
+                    maxValue,
+                    color
+            ));
+        }
 
         panel.add(barsPanel, BorderLayout.CENTER);
         return panel;
@@ -223,28 +186,6 @@ public class DashboardPanel extends JPanel {
         return panel;
     }
 
-    private String categorizeSalary(JobOffer job) {
-        String salary = job.getSalary();
-        if (salary == null || salary.isEmpty()) return "Non spécifié";
-
-        if (salary.toLowerCase().contains("k")) {
-            try {
-                int value = Integer.parseInt(salary.toLowerCase()
-                        .replace("k", "")
-                        .replaceAll("[^0-9]", ""));
-
-                if (value < 50) return "< 50K";
-                if (value < 80) return "50K-80K";
-                if (value < 100) return "80K-100K";
-                if (value < 150) return "100K-150K";
-                return "150K+";
-            } catch (NumberFormatException e) {
-                return "Non spécifié";
-            }
-        }
-        return "Non spécifié";
-    }
-
     private javax.swing.border.Border createTitledBorder(String title) {
         return BorderFactory.createCompoundBorder(
                 BorderFactory.createTitledBorder(
@@ -209,6 +209,25 @@ public class JobDisplayPanel extends JPanel {
         repaint();
     }
 
+    // Adds jobs below the ones already shown, used while a scrape is still streaming results
+    public void appendJobs(List<JobOffer> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        if (currentJobs.isEmpty()) {
+            contentPanel.removeAll();
+        }
+        currentJobs.addAll(jobs);
+
+        for (JobOffer job : jobs) {
+            contentPanel.add(createJobCard(job));
+            contentPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        }
+
+        revalidate();
+        repaint();
+    }
+
     private JPanel createJobCard(JobOffer job) {
         JPanel card = new JPanel();
         card.setLayout(new BorderLayout(15, 15));
@@ -387,7 +406,12 @@ public class JobDisplayPanel extends JPanel {
         return value.replace("\"", "\"\"").trim();
     }
 
+    public int getJobCount() {
+        return currentJobs.size();
+    }
+
     public void showLoading() {
+        currentJobs = new ArrayList<>();
         contentPanel.removeAll();
         statusLabel.setText("Loading jobs...");
         showStatus();
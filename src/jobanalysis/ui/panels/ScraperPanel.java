@@ -4,9 +4,13 @@ import javax.swing.*;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
 import jobanalysis.models.JobOffer;
+import jobanalysis.scraping.FederatedSearch;
 import jobanalysis.scraping.JSoupScraper;
 import jobanalysis.ui.MainFrame;
 import jobanalysis.ui.panels.DashboardPanel;
@@ -32,11 +36,7 @@ public class ScraperPanel extends JPanel {
     private JTabbedPane resultsTabbedPane;
 
     // Constants
-    private static final Map<String, String> BASE_URLS = Map.of(
-            "Indeed", "https://www.indeed.com/jobs",
-            "LinkedIn", "https://www.linkedin.com/jobs/search",
-            "Other", ""
-    );
+    private static final String ALL_PORTALS = "All portals";
 
     public ScraperPanel(MainFrame parent) {
         this.parent = parent;
@@ -46,6 +46,7 @@ public class ScraperPanel extends JPanel {
         this.dashboardPanel = new DashboardPanel();
         this.statisticPanel = new StatisticPanel();
         initializeUI();
+        dashboardPanel.setStoredStatsListener(stats -> statisticPanel.updateStatistics(stats));
     }
 
     private static void actionPerformed(ActionEvent e) {
@@ -201,7 +202,7 @@ public class ScraperPanel extends JPanel {
         JLabel portalLabel = new JLabel("Job Portal:");
         portalLabel.setFont(MainFrame.LABEL_FONT);
 
-        portalSelector = new JComboBox<>(new String[]{"Indeed", "LinkedIn", "Other"});
+        portalSelector = new JComboBox<>(new String[]{"Indeed", "LinkedIn", ALL_PORTALS, "Other"});
         portalSelector.setFont(MainFrame.LABEL_FONT);
 
         gbc.gridy = 1;
@@ -342,13 +343,12 @@ public class ScraperPanel extends JPanel {
             return urlField.getText().trim();
         }
 
-        String searchTerm = searchTermField.getText().trim().replace(" ", "+");
-        String location = locationField.getText().trim().replace(" ", "+");
+        String searchTerm = searchTermField.getText();
+        String location = locationField.getText();
 
-        String baseUrl = BASE_URLS.get(portal);
         return switch (portal) {
-            case "LinkedIn" -> baseUrl + "?keywords=" + searchTerm + "&location=" + location;
-            case "Indeed" -> baseUrl + "?q=" + searchTerm + "&l=" + location;
+            case "LinkedIn" -> FederatedSearch.linkedInUrl(searchTerm, location, 1);
+            case "Indeed" -> FederatedSearch.indeedUrl(searchTerm, location, 1);
             default -> "";
         };
     }
@@ -378,25 +378,75 @@ public class ScraperPanel extends JPanel {
         categoryPanel.revalidate();
         categoryPanel.repaint();
 
-        SwingWorker<List<JobOffer>, Void> worker = new SwingWorker<>() {
+        // All portals run as one federated search, about as long as the slowest portal
+        Flow.Publisher<JobOffer> results = ALL_PORTALS.equals(portal) ?
+                scraper.federatedSearch().search(searchTermField.getText(), locationField.getText(), pages) :
+                pages > 1 ?
+                        scraper.streamMultiplePages(url, pages) :
+                        scraper.streamJobPortal(portal.toLowerCase(), url);
+
+        SwingWorker<List<JobOffer>, JobOffer> worker = new SwingWorker<>() {
             @Override
-            protected List<JobOffer> doInBackground() {
+            protected List<JobOffer> doInBackground() throws Exception {
+                System.out.println("Starting scrape with parameters:");
+                System.out.println("Portal: " + portal);
+                System.out.println("URL: " + url);
+                System.out.println("Pages: " + pages);
+
+                // Jobs are shown through publish() as they arrive; the full list feeds the charts at the end
+                List<JobOffer> jobs = new ArrayList<>();
+                CompletableFuture<Void> finished = new CompletableFuture<>();
+                results.subscribe(new Flow.Subscriber<>() {
+                    private Flow.Subscription subscription;
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onNext(JobOffer job) {
+                        if (isCancelled()) {
+                            subscription.cancel();
+                            return;
+                        }
+                        synchronized (jobs) {
+                            jobs.add(job);
+                        }
+                        publish(job);
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        finished.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        finished.complete(null);
+                    }
+                });
+
                 try {
-                    System.out.println("Starting scrape with parameters:");
-                    System.out.println("Portal: " + portal);
-                    System.out.println("URL: " + url);
-                    System.out.println("Pages: " + pages);
-
-                    return pages > 1 ?
-                            scraper.scrapeMultiplePages(url, pages) :
-                            scraper.scrapeJobPortal(portal.toLowerCase(), url);
-                } catch (Exception ex) {
-                    System.err.println("Scraping failed: " + ex.getMessage());
-                    ex.printStackTrace();
-                    throw new RuntimeException("Scraping failed: " + ex.getMessage(), ex);
+                    finished.get();
+                } catch (ExecutionException ex) {
+                    System.err.println("Scraping failed: " + ex.getCause().getMessage());
+                    ex.getCause().printStackTrace();
+                    throw new RuntimeException("Scraping failed: " + ex.getCause().getMessage(), ex.getCause());
+                }
+                synchronized (jobs) {
+                    return new ArrayList<>(jobs);
                 }
             }
 
+            @Override
+            protected void process(List<JobOffer> chunk) {
+                displayPanel.appendJobs(chunk);
+                statusLabel.setText("Scraping in progress... " + displayPanel.getJobCount() + " jobs so far");
+            }
+
             @Override
             protected void done() {
                 handleScrapingComplete(this);
@@ -405,7 +455,7 @@ public class ScraperPanel extends JPanel {
         worker.execute();
     }
 
-    private void handleScrapingComplete(SwingWorker<List<JobOffer>, Void> worker) {
+    private void handleScrapingComplete(SwingWorker<List<JobOffer>, JobOffer> worker) {
         try {
             List<JobOffer> jobs = worker.get();
             progressBar.setVisible(false);
@@ -456,8 +506,9 @@ public class ScraperPanel extends JPanel {
             Job Search Help:
             
             1. Searching Jobs:
-               - Select a job portal (Indeed, LinkedIn, or Other)
+               - Select a job portal (Indeed, LinkedIn, All portals, or Other)
                - For Indeed/LinkedIn: Enter search terms and location
+               - All portals: Searches Indeed and LinkedIn at the same time and merges the results
                - For Other: Enter the complete URL of a job listing page
             
             2. Viewing Results:
@@ -1,5 +1,7 @@
 package jobanalysis.ui.panels;
 
+import jobanalysis.db.JobStats;
+import jobanalysis.db.JobStatsRepository;
 import jobanalysis.models.JobOffer;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -11,11 +13,9 @@ import org.jfree.data.general.DefaultPieDataset;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 public class StatisticPanel extends JPanel {
-    private List<JobOffer> jobs;
+    private JobStats stats;
 
     public StatisticPanel() {
         setLayout(new GridLayout(2, 2, 10, 10));
@@ -24,7 +24,11 @@ public class StatisticPanel extends JPanel {
     }
 
     public void updateStatistics(List<JobOffer> jobs) {
-        this.jobs = jobs;
+        updateStatistics(JobStats.fromJobs(jobs, JobStatsRepository.DEFAULT_TOP));
+    }
+
+    public void updateStatistics(JobStats stats) {
+        this.stats = stats;
         removeAll();
 
         add(createContractTypeChart());
@@ -39,13 +43,7 @@ public class StatisticPanel extends JPanel {
     private JPanel createContractTypeChart() {
         DefaultPieDataset dataset = new DefaultPieDataset();
 
-        Map<String, Long> contractTypes = jobs.stream()
-                .collect(Collectors.groupingBy(
-                        job -> job.getEmploymentType() != null ? job.getEmploymentType() : "Non spécifié",
-                        Collectors.counting()
-                ));
-
-        contractTypes.forEach(dataset::setValue);
+        stats.getEmploymentTypes().forEach(bucket -> dataset.setValue(bucket.getLabel(), bucket.getCount()));
 
         JFreeChart chart = ChartFactory.createPieChart(
                 "Types de Contrat",
@@ -61,19 +59,8 @@ public class StatisticPanel extends JPanel {
     private JPanel createLocationChart() {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
-        Map<String, Long> locations = jobs.stream()
-                .collect(Collectors.groupingBy(
-                        job -> job.getLocation() != null ? job.getLocation() : "Non spécifié",
-                        Collectors.counting()
-                ))
-                .entrySet()
-                .stream()
-                .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
-                .limit(5)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        locations.forEach((location, count) ->
-                dataset.addValue(count, "Locations", location));
+        stats.getLocations().forEach(bucket ->
+                dataset.addValue(bucket.getCount(), "Locations", bucket.getLabel()));
 
         JFreeChart chart = ChartFactory.createBarChart(
                 "Top 5 Locations",
@@ -92,14 +79,8 @@ public class StatisticPanel extends JPanel {
     private JPanel createSalaryRangeChart() {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
-        Map<String, Long> salaryRanges = jobs.stream()
-                .collect(Collectors.groupingBy(
-                        this::categorizeSalary,
-                        Collectors.counting()
-                ));
-
-        salaryRanges.forEach((range, count) ->
-                dataset.addValue(count, "Salaires", range));
+        stats.getSalaryRanges().forEach(bucket ->
+                dataset.addValue(bucket.getCount(), "Salaires", bucket.getLabel()));
 
         JFreeChart chart = ChartFactory.createBarChart(
                 "Tranches de Salaire",
@@ -118,13 +99,7 @@ public class StatisticPanel extends JPanel {
     private JPanel createWorkplaceTypeChart() {
         DefaultPieDataset dataset = new DefaultPieDataset();
 
-        Map<String, Long> workplaceTypes = jobs.stream()
-                .collect(Collectors.groupingBy(
-                        job -> job.getWorkplaceType() != null ? job.getWorkplaceType() : "Non spécifié",
-                        Collectors.counting()
-                ));
-
-        workplaceTypes.forEach(dataset::setValue);
+        stats.getWorkplaceTypes().forEach(bucket -> dataset.setValue(bucket.getLabel(), bucket.getCount()));
 
         JFreeChart chart = ChartFactory.createPieChart(
                 "Types de Travail",
@@ -137,28 +112,6 @@ public class StatisticPanel extends JPanel {
         return createChartPanel(chart);
     }
 
-    private String categorizeSalary(JobOffer job) {
-        String salary = job.getSalary();
-        if (salary == null || salary.isEmpty()) return "Non spécifié";
-
-        if (salary.toLowerCase().contains("k")) {
-            try {
-                int value = Integer.parseInt(salary.toLowerCase()
-                        .replace("k", "")
-                        .replaceAll("[^0-9]", ""));
-
-                if (value < 50) return "< 50K";
-                if (value < 80) return "50K-80K";
-                if (value < 100) return "80K-100K";
-                if (value < 150) return "100K-150K";
-                return "150K+";
-            } catch (NumberFormatException e) {
-                return "Non spécifié";
-            }
-        }
-        return "Non spécifié";
-    }
-
     private JPanel createChartPanel(JFreeChart chart) {
         ChartPanel chartPanel = new ChartPanel(chart);
         chartPanel.setPreferredSize(new Dimension(400, 300));
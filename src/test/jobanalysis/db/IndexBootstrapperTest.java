@@ -0,0 +1,85 @@
+package jobanalysis.db;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.ListIndexesIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class IndexBootstrapperTest {
+
+    @SuppressWarnings("unchecked")
+    private static MongoCollection<Document> collectionWithIndexes(Document... indexes) {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        ListIndexesIterable<Document> listed = mock(ListIndexesIterable.class);
+        when(collection.listIndexes()).thenReturn(listed);
+        when(listed.into(any())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            target.addAll(List.of(indexes));
+            return target;
+        });
+        return collection;
+    }
+
+    private static Document index(String name, Document keys) {
+        return new Document("name", name).append("key", keys);
+    }
+
+    @Test
+    void testOnlyMissingIndexesAreBuilt() {
+        MongoCollection<Document> users = collectionWithIndexes(index("_id_", new Document("_id", 1)),
+                index("username_unique", new Document("username", 1)));
+        // Created by hand under another name, recognized by its keys
+        MongoCollection<Document> jobOffers = collectionWithIndexes(index("_id_", new Document("_id", 1)),
+                index("by_company", new Document("company", 1)));
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.getCollection("users")).thenReturn(users);
+        when(database.getCollection("jobOffers")).thenReturn(jobOffers);
+
+        int created = new IndexBootstrapper(database, null).run();
+
+        assertEquals(5, created);
+        verify(users, never()).createIndex(any(Bson.class), any(IndexOptions.class));
+        verify(jobOffers, never()).createIndex(argThat(keys -> keys.toBsonDocument().containsKey("company")),
+                any(IndexOptions.class));
+        verify(jobOffers).createIndex(any(Bson.class), argThat(options -> "jobKey_unique".equals(options.getName())
+                && options.isUnique() && options.getPartialFilterExpression() != null));
+    }
+
+    @Test
+    void testFailedBuildDoesNotStopTheOthers() {
+        MongoCollection<Document> users = collectionWithIndexes();
+        MongoCollection<Document> jobOffers = collectionWithIndexes();
+        when(users.createIndex(any(Bson.class), any(IndexOptions.class))).thenThrow(new MongoCommandException(
+                BsonDocument.parse("{ok: 0, code: 11000, errmsg: 'E11000 duplicate key'}"), new ServerAddress()));
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.getCollection("users")).thenReturn(users);
+        when(database.getCollection("jobOffers")).thenReturn(jobOffers);
+
+        assertEquals(6, new IndexBootstrapper(database, null).run());
+        verify(jobOffers, times(6)).createIndex(any(Bson.class), any(IndexOptions.class));
+    }
+
+    @Test
+    void testCollectionScansAreFoundAnywhereInTheWinningPlan() {
+        Document collscan = Document.parse("{queryPlanner: {winningPlan: {stage: 'SORT', inputStage: "
+                + "{stage: 'OR', inputStages: [{stage: 'IXSCAN'}, {stage: 'COLLSCAN'}]}}}}");
+        Document ixscan = Document.parse("{queryPlanner: {winningPlan: {queryPlan: {stage: 'FETCH', "
+                + "inputStage: {stage: 'IXSCAN', indexName: 'username_unique'}}}}}");
+
+        assertTrue(QueryPlanSampler.usesCollectionScan(collscan));
+        assertFalse(QueryPlanSampler.usesCollectionScan(ixscan));
+    }
+}
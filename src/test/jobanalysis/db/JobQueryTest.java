@@ -0,0 +1,139 @@
+package jobanalysis.db;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import jobanalysis.models.JobOffer;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class JobQueryTest {
+
+    // A collection whose finds return the given documents, by cursor or into a list
+    @SuppressWarnings("unchecked")
+    private static MongoCollection<Document> collectionWith(MongoCursor<Document> cursor, Document... stored) {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindIterable<Document> found = mock(FindIterable.class);
+        when(collection.find(any(Bson.class))).thenReturn(found);
+        when(found.sort(any())).thenReturn(found);
+        when(found.skip(anyInt())).thenReturn(found);
+        when(found.limit(anyInt())).thenReturn(found);
+        when(found.batchSize(anyInt())).thenReturn(found);
+        when(found.projection(any())).thenReturn(found);
+        when(found.iterator()).thenReturn(cursor);
+        when(found.into(any())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            target.addAll(List.of(stored));
+            return target;
+        });
+        return collection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MongoCursor<Document> cursorOver(Document... documents) {
+        Iterator<Document> iterator = List.of(documents).iterator();
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        doCallRealMethod().when(cursor).forEachRemaining(any());
+        return cursor;
+    }
+
+    @Test
+    void testFiltersSortAndProjectionUseStoredFieldNames() {
+        JobQuery query = new JobQuery.Builder()
+                .company("Acme")
+                .locationContains("casa")
+                .sortBy("postedDate", false)
+                .fields("title", "url")
+                .build();
+
+        BsonDocument filter = query.getFilter().toBsonDocument();
+        assertEquals(2, filter.getArray("$and").size());
+        assertEquals(BsonDocument.parse("{postedDate: -1, _id: -1}"), query.getSort().toBsonDocument());
+        assertEquals(BsonDocument.parse("{title: 1, sourceUrl: 1, postedDate: 1}"),
+                query.getProjection().toBsonDocument());
+        assertNull(JobQuery.all().getProjection());
+        assertThrows(IllegalArgumentException.class, () -> new JobQuery.Builder().fields("salry"));
+    }
+
+    @Test
+    void testKeysetContinuesPastNullsAndOtherValueTypes() {
+        ObjectId lastId = new ObjectId("65f000000000000000000001");
+        String idAfter = "{_id: {$gt: {$oid: '65f000000000000000000001'}}}";
+
+        // Nulls sort first: the next page is the rest of the null group, then every non-null value
+        JobQuery afterNull = new JobQuery.Builder().sortBy("postedDate", true).after(null, lastId).build();
+        assertEquals(BsonDocument.parse("{$or: [{postedDate: {$ne: null}}, {$and: [{postedDate: null}, "
+                + idAfter + "]}]}"), afterNull.getFilter().toBsonDocument());
+
+        // Types sorting after strings, such as dates, are not skipped by the string comparison
+        JobQuery afterString = new JobQuery.Builder().sortBy("postedDate", true).after("2024-05-01", lastId).build();
+        BsonDocument filter = afterString.getFilter().toBsonDocument();
+        assertEquals(BsonDocument.parse("{postedDate: {$gt: '2024-05-01'}}"), filter.getArray("$or").get(0));
+        assertTrue(filter.getArray("$or").get(1).asDocument().getDocument("postedDate").getArray("$type")
+                .contains(new BsonString("date")));
+
+        // On a descending sort nulls come last, after the numbers
+        JobQuery descending = new JobQuery.Builder().sortBy("postedDate", false).after("2024-05-01", lastId).build();
+        assertEquals(BsonDocument.parse("{postedDate: null}"),
+                descending.getFilter().toBsonDocument().getArray("$or").get(2));
+    }
+
+    @Test
+    void testStreamReadsTheCursorLazilyAndClosesIt() {
+        MongoCursor<Document> cursor = cursorOver(
+                new Document("title", "Data Analyst").append("sourceUrl", "https://jobs.example.com/1"),
+                new Document("title", "Data Engineer"));
+        MongoCollection<Document> collection = collectionWith(cursor);
+
+        List<JobOffer> jobs;
+        try (Stream<JobOffer> stream = new JobRepository(collection)
+                .find(new JobQuery.Builder().company("Acme").batchSize(2).build())) {
+            verify(cursor, never()).hasNext();
+            jobs = stream.toList();
+        }
+
+        verify(cursor, atLeastOnce()).close();
+        verify(collection.find(new Document())).batchSize(2);
+        assertEquals(2, jobs.size());
+        assertEquals("https://jobs.example.com/1", jobs.get(0).getUrl());
+        assertEquals("", jobs.get(1).getCompany());
+    }
+
+    @Test
+    void testFullPageLeadsToAKeysetQuery() {
+        ObjectId lastId = new ObjectId();
+        List<Document> stored = new ArrayList<>();
+        stored.add(new Document("_id", new ObjectId()).append("title", "Job 1").append("company", "Acme"));
+        stored.add(new Document("_id", lastId).append("title", "Job 2").append("company", "Beta"));
+        MongoCollection<Document> collection = collectionWith(cursorOver(), stored.toArray(new Document[0]));
+        JobQuery query = new JobQuery.Builder().sortBy("company", true).limit(2).skip(4).build();
+
+        JobPage page = new JobRepository(collection).findPage(query);
+
+        assertEquals(2, page.getJobs().size());
+        assertTrue(page.hasNext());
+        assertEquals(0, page.getNext().getSkip());
+        BsonArray next = page.getNext().getFilter().toBsonDocument().getArray("$or");
+        assertEquals(BsonDocument.parse("{company: {$gt: 'Beta'}}"), next.get(0));
+        assertEquals(BsonDocument.parse("{$and: [{company: 'Beta'}, {_id: {$gt: {$oid: '" + lastId.toHexString() + "'}}}]}"),
+                next.get(next.size() - 1));
+        assertFalse(new JobRepository(collection).findPage(query.toBuilder().limit(5).build()).hasNext());
+    }
+}
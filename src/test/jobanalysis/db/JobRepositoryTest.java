@@ -0,0 +1,191 @@
+package jobanalysis.db;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import jobanalysis.models.JobOffer;
+import jobanalysis.scraping.JobIdentity;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class JobRepositoryTest {
+
+    private static List<JobOffer> jobs(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new JobOffer.Builder().setTitle("Job " + i).setCompany("Acme")
+                        .setUrl("https://jobs.example.com/" + i).build())
+                .toList();
+    }
+
+    private static BulkWriteResult inserted(int count) {
+        return BulkWriteResult.acknowledged(count, 0, 0, 0, List.of(), List.of());
+    }
+
+    // A collection whose jobKey lookups return the given documents
+    @SuppressWarnings("unchecked")
+    private static MongoCollection<Document> collectionWith(Document... stored) {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        FindIterable<Document> found = mock(FindIterable.class);
+        when(collection.find(any(Bson.class))).thenReturn(found);
+        when(found.projection(any())).thenReturn(found);
+        when(found.into(any())).thenAnswer(invocation -> {
+            List<Document> target = invocation.getArgument(0);
+            target.addAll(List.of(stored));
+            return target;
+        });
+        return collection;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testJobsAreWrittenInUnorderedBatches() {
+        MongoCollection<Document> collection = collectionWith();
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(inserted(2), inserted(2), inserted(1));
+
+        BatchSaveReport report = new JobRepository(collection).saveJobOffers(jobs(5).stream(), 2);
+
+        ArgumentCaptor<List<WriteModel<Document>>> batches = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection, times(3)).bulkWrite(batches.capture(), options.capture());
+        verify(collection, never()).insertOne(any());
+        assertEquals(List.of(2, 2, 1), batches.getAllValues().stream().map(List::size).toList());
+        assertFalse(options.getValue().isOrdered());
+        UpdateOneModel<Document> upsert = (UpdateOneModel<Document>) batches.getAllValues().get(2).get(0);
+        assertTrue(upsert.getOptions().isUpsert());
+        assertEquals("Job 4", ((Document) ((Document) upsert.getUpdate()).get("$setOnInsert")).get("title"));
+        assertEquals(5, report.getInserted());
+        assertEquals(0, report.getFailed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailuresAreReportedPerBatchAndLaterBatchesStillRun() {
+        MongoCollection<Document> collection = collectionWith();
+        MongoBulkWriteException duplicate = new MongoBulkWriteException(inserted(2),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenThrow(duplicate)
+                .thenThrow(new MongoSocketReadException("connection reset", new ServerAddress()))
+                .thenReturn(inserted(1));
+
+        BatchSaveReport report = new JobRepository(collection).saveJobOffers(jobs(7), 3);
+
+        assertEquals(3, report.getBatches().size());
+        BatchSaveReport.BatchResult first = report.getBatches().get(0);
+        assertEquals(2, first.getSaved());
+        assertEquals(1, first.getFailed());
+        assertEquals("Job 1", first.getFailures().get(0).getTitle());
+        assertEquals(11000, first.getFailures().get(0).getCode());
+        assertEquals(3, report.getBatches().get(1).getFailed());
+        assertEquals(-1, report.getBatches().get(1).getFailures().get(0).getIndex());
+        assertEquals(3, report.getSaved());
+        assertEquals(4, report.getFailed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUnchangedJobsOnlyMoveLastSeen() {
+        List<JobOffer> jobs = jobs(3);
+        Document unchanged = new Document("jobKey", JobIdentity.storageKey(jobs.get(0)))
+                .append("contentHash", JobIdentity.contentHash(jobs.get(0)));
+        Document edited = new Document("jobKey", JobIdentity.storageKey(jobs.get(1)))
+                .append("contentHash", "stale");
+        MongoCollection<Document> collection = collectionWith(unchanged, edited);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(inserted(0));
+
+        BatchSaveReport report = new JobRepository(collection).saveJobOffers(jobs);
+
+        ArgumentCaptor<List<WriteModel<Document>>> batch = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(batch.capture(), any(BulkWriteOptions.class));
+        List<WriteModel<Document>> writes = batch.getValue();
+        assertEquals(3, writes.size());
+        Document rewrite = (Document) ((UpdateOneModel<Document>) writes.get(0)).getUpdate();
+        assertEquals("Job 1", ((Document) rewrite.get("$set")).get("title"));
+        assertTrue(((Document) ((UpdateOneModel<Document>) writes.get(1)).getUpdate()).containsKey("$setOnInsert"));
+        Document touch = (Document) ((UpdateManyModel<Document>) writes.get(2)).getUpdate();
+        assertEquals(Set.of("lastSeen"), ((Document) touch.get("$set")).keySet());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, report.getUnchanged());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FindIterable<Document> iterableOver(Document... documents) {
+        FindIterable<Document> found = mock(FindIterable.class);
+        when(found.projection(any())).thenReturn(found);
+        when(found.sort(any())).thenReturn(found);
+        when(found.iterator()).thenAnswer(invocation -> {
+            Iterator<Document> iterator = List.of(documents).iterator();
+            MongoCursor<Document> cursor = mock(MongoCursor.class);
+            when(cursor.hasNext()).thenAnswer(call -> iterator.hasNext());
+            when(cursor.next()).thenAnswer(call -> iterator.next());
+            return cursor;
+        });
+        return found;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBackfillMarksCollidingDocumentsInsteadOfDeletingThem() {
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        Document keyed = new Document("jobKey", "https://jobs.example.com/1");
+        Document repeat = new Document("_id", 1).append("title", "Job 1").append("sourceUrl", "https://jobs.example.com/1?utm_source=x");
+        Document legacy = new Document("_id", 2).append("title", "Job 2").append("sourceUrl", "https://jobs.example.com/2")
+                .append("scrapedDate", new Date());
+        Document olderCopy = new Document("_id", 3).append("title", "Job 2").append("sourceUrl", "https://jobs.example.com/2");
+        FindIterable<Document> keyedDocs = iterableOver(keyed);
+        FindIterable<Document> legacyDocs = iterableOver(repeat, legacy, olderCopy);
+        when(collection.find(any(Bson.class))).thenAnswer(invocation ->
+                ((Bson) invocation.getArgument(0)).toBsonDocument().containsKey("jobKey") ? keyedDocs : legacyDocs);
+
+        int keyedCount = new JobRepository(collection).backfillJobKeys();
+
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        verify(collection, never()).deleteMany(any());
+        List<Set<String>> updated = writes.getValue().stream()
+                .map(write -> ((Document) ((Document) ((UpdateOneModel<Document>) write).getUpdate()).get("$set")).keySet())
+                .toList();
+        assertEquals(1, keyedCount);
+        assertEquals(List.of(Set.of("duplicateOf"), Set.of("jobKey", "contentHash", "firstSeen", "lastSeen"),
+                Set.of("duplicateOf")), updated);
+    }
+
+    @Test
+    void testJobsWithoutUrlAreKeyedOnTheirCard() {
+        JobOffer job = new JobOffer.Builder().setTitle("Data Analyst").setCompany("Acme").setLocation("Rabat").build();
+        JobOffer tracked = new JobOffer.Builder().setTitle("Data Analyst").setCompany("Acme")
+                .setUrl("https://www.linkedin.com/jobs/view/42?trk=feed").build();
+
+        assertTrue(JobIdentity.storageKey(job).startsWith("fp:"));
+        assertEquals("https://www.linkedin.com/jobs/view/42", JobIdentity.storageKey(tracked));
+        assertNotEquals(JobIdentity.contentHash(job), JobIdentity.contentHash(
+                new JobOffer.Builder().setTitle("Data Analyst").setCompany("Acme").setLocation("Rabat")
+                        .setSalary("10000 MAD").build()));
+    }
+}
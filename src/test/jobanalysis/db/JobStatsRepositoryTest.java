@@ -0,0 +1,80 @@
+package jobanalysis.db;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import jobanalysis.models.JobOffer;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class JobStatsRepositoryTest {
+
+    private static List<String> labels(List<JobStats.Bucket> buckets) {
+        return buckets.stream().map(JobStats.Bucket::getLabel).toList();
+    }
+
+    @Test
+    void testEveryChartIsOneFacetOfASingleAggregation() {
+        List<Bson> all = JobStatsRepository.pipeline(JobQuery.all().getFilter(), 5);
+        List<Bson> filtered = JobStatsRepository.pipeline(new JobQuery.Builder().company("Acme").build().getFilter(), 5);
+
+        assertEquals(1, all.size());
+        BsonDocument facets = all.get(0).toBsonDocument().getDocument("$facet");
+        assertEquals(List.of("total", "companies", "locations", "employmentTypes", "workplaceTypes", "salaryRanges"),
+                List.copyOf(facets.keySet()));
+        assertEquals(5, facets.getArray("companies").get(1).asDocument().getInt32("$limit").getValue());
+        assertEquals(2, filtered.size());
+        assertTrue(filtered.get(0).toBsonDocument().containsKey("$match"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFacetResultIsReadIntoBuckets() {
+        Document result = new Document("total", List.of(new Document("count", 1200)))
+                .append("companies", List.of(new Document("_id", "Acme").append("count", 700L),
+                        new Document("_id", JobStats.UNSPECIFIED).append("count", 20)))
+                .append("salaryRanges", List.of(new Document("_id", 50_000d).append("count", 30),
+                        new Document("_id", 150_000d).append("count", 2),
+                        new Document("_id", JobStats.UNSPECIFIED).append("count", 1168)));
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        AggregateIterable<Document> aggregated = mock(AggregateIterable.class);
+        when(collection.aggregate(anyList())).thenReturn(aggregated);
+        when(aggregated.allowDiskUse(anyBoolean())).thenReturn(aggregated);
+        when(aggregated.first()).thenReturn(result);
+
+        JobStats stats = new JobStatsRepository(collection).load(5);
+
+        assertEquals(1200, stats.getTotal());
+        assertEquals(List.of("Acme", JobStats.UNSPECIFIED), labels(stats.getCompanies()));
+        assertEquals(700, stats.getCompanies().get(0).getCount());
+        assertEquals(List.of("50K-80K", "150K+", JobStats.UNSPECIFIED), labels(stats.getSalaryRanges()));
+        assertTrue(stats.getLocations().isEmpty());
+    }
+
+    @Test
+    void testJobsInMemoryUseTheSameBuckets() {
+        List<JobOffer> jobs = List.of(
+                new JobOffer.Builder().setCompany("Acme").setLocation("Rabat").setSalary("60 000 € par an").build(),
+                new JobOffer.Builder().setCompany("Acme").setLocation("").build(),
+                new JobOffer.Builder().setCompany("Beta").setLocation("Rabat").setSalary("200k").build());
+
+        JobStats stats = JobStats.fromJobs(jobs, 1);
+
+        assertEquals(3, stats.getTotal());
+        assertEquals(List.of("Acme"), labels(stats.getCompanies()));
+        assertEquals(2, stats.getCompanies().get(0).getCount());
+        assertEquals(List.of("Rabat"), labels(stats.getLocations()));
+        assertEquals(List.of(JobStats.UNSPECIFIED), labels(stats.getEmploymentTypes()));
+        assertEquals(JobStats.salaryRange(JobStats.annualSalary("60 000 € par an")), stats.getSalaryRanges().get(0).getLabel());
+        assertEquals(JobStats.UNSPECIFIED, JobStats.salaryRange(null));
+        assertEquals("150K+", JobStats.salaryRange(200_000d));
+    }
+}
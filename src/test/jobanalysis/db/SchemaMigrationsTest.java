@@ -0,0 +1,68 @@
+package jobanalysis.db;
+
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SchemaMigrationsTest {
+
+    @SuppressWarnings("unchecked")
+    private static MongoCollection<Document> markersAt(Integer version) {
+        MongoCollection<Document> markers = mock(MongoCollection.class);
+        FindIterable<Document> found = mock(FindIterable.class);
+        when(markers.find(any(Bson.class))).thenReturn(found);
+        when(found.first()).thenReturn(version == null ? null : new Document("_id", SchemaMigrations.MARKER_ID)
+                .append("version", version));
+        return markers;
+    }
+
+    @Test
+    void testOnlyStepsAfterTheStoredVersionRun() {
+        List<String> ran = new ArrayList<>();
+        MongoCollection<Document> markers = markersAt(1);
+        SchemaMigrations migrations = new SchemaMigrations(markers, null, List.of(
+                repository -> ran.add("keys"), repository -> ran.add("salaries"), repository -> ran.add("next")));
+
+        assertEquals(3, migrations.run());
+
+        assertEquals(List.of("salaries", "next"), ran);
+        ArgumentCaptor<Document> marker = ArgumentCaptor.forClass(Document.class);
+        verify(markers, times(2)).replaceOne(any(Bson.class), marker.capture(), any(ReplaceOptions.class));
+        assertEquals(3, marker.getValue().getInteger("version"));
+    }
+
+    @Test
+    void testFailedStepIsRetriedNextTime() {
+        List<String> ran = new ArrayList<>();
+        MongoCollection<Document> markers = markersAt(null);
+        SchemaMigrations migrations = new SchemaMigrations(markers, null, List.of(
+                repository -> ran.add("keys"),
+                repository -> {
+                    throw new MongoSocketReadException("connection reset", new ServerAddress());
+                },
+                repository -> ran.add("next")));
+
+        assertEquals(1, migrations.run());
+
+        assertEquals(List.of("keys"), ran);
+        verify(markers, times(1)).replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class));
+
+        // Already at the latest version: nothing runs
+        assertEquals(2, new SchemaMigrations(markersAt(2), null, List.of(repository -> ran.add("keys"),
+                repository -> ran.add("salaries"))).run());
+        assertEquals(List.of("keys"), ran);
+    }
+}
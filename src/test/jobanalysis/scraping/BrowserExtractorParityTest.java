@@ -0,0 +1,249 @@
+package jobanalysis.scraping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs BrowserExtractor's script in headless Chrome and SelectorSet on the same pages, and expects
+ * the same fields from both. Skipped when no Chrome binary is installed. The script's text function,
+ * which mirrors Jsoup's Element.text(), is also checked on its own with Node.js when that is installed.
+ */
+public class BrowserExtractorParityTest {
+
+    private static final Map<String, String> LISTINGS = Map.of(
+            "linkedin", """
+                    <html><head><title>Jobs | LinkedIn</title></head><body>
+                    <ul class="jobs-search__results-list">
+                      <li><a class="base-card__full-link" href="https://www.linkedin.com/jobs/view/1"></a>
+                        <h3 class="base-search-card__title">  Java
+                          Developer </h3>
+                        <h4 class="base-search-card__subtitle">Acme</h4>
+                        <span class="job-search-card__location">Casablanca</span>
+                        <time datetime="2024-05-01">2 days ago</time></li>
+                      <li><a class="base-card__full-link" href="/jobs/view/2"></a>
+                        <h3 class="base-search-card__title"></h3>
+                        <span class="job-search-card__title">Data Engineer</span>
+                        <h4 class="base-search-card__subtitle">Initech</h4>
+                        <span class="job-search-card__salary-info">*</span>
+                        <div class="compensation-box">$90k - $110k</div></li>
+                    </ul></body></html>""",
+            "indeed", """
+                    <html><head><title>Jobs | Indeed</title></head><body>
+                    <div class="job_seen_beacon">
+                      <h2 class="jobTitle"><a data-jk="abc" href="/rc/clk?jk=abc"><span title="Backend Engineer">Backend Engineer</span></a></h2>
+                      <span class="companyName">Initech</span>
+                      <div class="companyLocation">Rabat</div>
+                      <div class="metadata"><div>$60,000 a year</div><div>Full-time</div><div>Hybrid work</div></div>
+                      <span class="date">Posted 3 days ago</span>
+                    </div>
+                    <div class="job_seen_beacon">
+                      <h2 class="jobTitle"><a id="job_def" href="/rc/clk?jk=def">QA Analyst</a></h2>
+                      <a class="companyName">Globex</a>
+                      <div class="metadata"><div>Contract</div><div>Remote</div></div>
+                    </div></body></html>""");
+
+    private static final String DETAIL = """
+            <html><head><title>Backend Engineer</title></head><body>
+            <div id="jobDescriptionText">Build services in Java.
+              <div>Requirements</div><ul><li>Java</li><li>SQL</li></ul>
+            </div>
+            <div class="benefits-list">Health insurance</div>
+            <div>Years of experience: 3+</div>
+            <section>About us: a small team</section>
+            <span>Apply by June 1</span>
+            <div>Posted on 2024-05-01</div>
+            </body></html>""";
+
+    // Whitespace and block edge cases of Element.text()
+    private static final String TEXT_EDGE_CASES = """
+            <div>a<span><div>b</div></span>c<br>d<script>var x = 1;</script>e<style>p {}</style>f<svg><g>g</g></svg>h
+            <ul><li>i</li><li>j</li></ul>k<!-- note --><p>l&nbsp;&nbsp;m&#8203;n</p><button>o</button>p<dialog>q</dialog>r
+            <select><option>s</option><option>t</option></select><span>u <b> v</b></span><textarea>w  x</textarea>
+            <pre>
+              keep   this
+            </pre>y</div>""";
+
+    // Evaluates the script's text function on a tree of {type, name, value, children} nodes and
+    // prints the text of every element in document order
+    private static final String TEXT_HARNESS = """
+            const fs = require('fs');
+            const script = fs.readFileSync(process.argv[2], 'utf8');
+            const text = new Function(script.substring(script.indexOf('function norm'),
+                script.indexOf('function groups')) + '; return text;')();
+            function build(o) {
+              const node = {nodeType: o.type, nodeName: (o.name || '#text').toUpperCase(), nodeValue: o.value,
+                  firstChild: null, nextSibling: null};
+              let previous = null;
+              for (const child of o.children || []) {
+                const built = build(child);
+                if (previous) previous.nextSibling = built; else node.firstChild = built;
+                previous = built;
+              }
+              return node;
+            }
+            const texts = [];
+            (function walk(node) {
+              if (node.nodeType === 1) texts.push(text(node));
+              for (let c = node.firstChild; c; c = c.nextSibling) walk(c);
+            })(build(JSON.parse(fs.readFileSync(process.argv[3], 'utf8'))));
+            console.log(JSON.stringify(texts));
+            """;
+
+    private static WebDriver driver;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void startChrome() {
+        String binary = System.getenv("CHROME_BIN");
+        if (binary == null || !new File(binary).canExecute()) {
+            binary = executable("google-chrome", "google-chrome-stable", "chromium", "chromium-browser");
+        }
+        if (binary == null) {
+            return;
+        }
+        ChromeOptions options = new ChromeOptions();
+        options.setBinary(binary);
+        options.addArguments("--headless=new", "--disable-gpu", "--no-sandbox", "--disable-dev-shm-usage");
+        try {
+            driver = new ChromeDriver(options);
+        } catch (WebDriverException e) {
+            System.err.println("Chrome did not start, skipping parity tests: " + e.getMessage());
+        }
+    }
+
+    @AfterAll
+    static void stopChrome() {
+        if (driver != null) {
+            driver.quit();
+        }
+    }
+
+    @Test
+    void testCardsMatchSelectorSet() throws IOException {
+        assumeTrue(driver != null, "headless Chrome is not available");
+        BrowserExtractor extractor = new BrowserExtractor();
+
+        for (Map.Entry<String, String> listing : LISTINGS.entrySet()) {
+            SelectorSet selectors = PortalParsers.forPortal(listing.getKey()).getSelectors();
+            Document doc = Jsoup.parse(listing.getValue());
+            List<Map<String, String>> expected = new ArrayList<>();
+            for (Element card : selectors.selectCards(doc)) {
+                Map<String, String> item = new HashMap<>(selectors.selectFields(card));
+                item.put("url", selectors.selectLink(card));
+                expected.add(item);
+            }
+
+            driver.get(pageUrl(listing.getValue()));
+            BrowserExtractor.Page page = extractor.extract(driver, BrowserExtractor.Spec.forCards(
+                    selectors.getCardSelector(), selectors.getFieldSelectors(), selectors.getLinkSelector()));
+
+            assertEquals(2, expected.size());
+            assertEquals(expected, page.getItems(), listing.getKey());
+            assertFalse(page.looksThrottled());
+        }
+    }
+
+    @Test
+    void testDetailFieldsMatchSelectorSet() throws IOException {
+        assumeTrue(driver != null, "headless Chrome is not available");
+        SelectorSet selectors = new SelectorSet.Builder().fields(JobSelectors.DETAIL_FIELDS).build();
+
+        driver.get(pageUrl(DETAIL));
+        BrowserExtractor.Page page = new BrowserExtractor().extract(driver,
+                BrowserExtractor.Spec.forPage(JobSelectors.DETAIL_FIELDS, Map.of()));
+
+        assertEquals(selectors.selectFields(Jsoup.parse(DETAIL)), page.getItems().get(0));
+    }
+
+    @Test
+    void testTextMatchesJsoup() throws IOException, InterruptedException {
+        String node = executable("node", "nodejs");
+        assumeTrue(node != null, "Node.js is not available");
+        ObjectMapper mapper = new ObjectMapper();
+
+        List<String> pages = new ArrayList<>(LISTINGS.values());
+        pages.add(DETAIL);
+        pages.add(TEXT_EDGE_CASES);
+        for (String html : pages) {
+            List<String> expected = new ArrayList<>();
+            Path tree = Files.createTempFile(directory, "tree", ".json");
+            mapper.writeValue(tree.toFile(), toTree(mapper, Jsoup.parse(html).child(0), expected));
+            Path script = Files.writeString(Files.createTempFile(directory, "script", ".js"), BrowserExtractor.SCRIPT);
+            Path harness = Files.writeString(Files.createTempFile(directory, "harness", ".js"), TEXT_HARNESS);
+
+            Process process = new ProcessBuilder(node, harness.toString(), script.toString(), tree.toString())
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(0, process.waitFor(), output);
+            assertEquals(expected, List.of(mapper.readValue(output, String[].class)));
+        }
+    }
+
+    // Script and style contents become text nodes, as in the browser DOM
+    private static ObjectNode toTree(ObjectMapper mapper, Node node, List<String> texts) {
+        ObjectNode json = mapper.createObjectNode();
+        if (node instanceof TextNode textNode) {
+            json.put("type", 3).put("value", textNode.getWholeText());
+        } else if (node instanceof DataNode dataNode) {
+            json.put("type", 3).put("value", dataNode.getWholeData());
+        } else if (node instanceof Element element) {
+            json.put("type", 1).put("name", element.normalName());
+            texts.add(element.text());
+            ArrayNode children = json.putArray("children");
+            element.childNodes().forEach(child -> children.add(toTree(mapper, child, texts)));
+        } else {
+            json.put("type", 8);
+        }
+        return json;
+    }
+
+    private String pageUrl(String html) throws IOException {
+        Path file = Files.createTempFile(directory, "page", ".html");
+        Files.writeString(file, html);
+        return file.toUri().toString();
+    }
+
+    // First of the named programs found on the PATH
+    private static String executable(String... names) {
+        for (String dir : System.getenv().getOrDefault("PATH", "").split(File.pathSeparator)) {
+            for (String name : names) {
+                File candidate = new File(dir, name);
+                if (candidate.canExecute()) {
+                    return candidate.getPath();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package jobanalysis.scraping;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BrowserExtractorTest {
+
+    @Test
+    void testExtractionResultIsRead() throws Exception {
+        BrowserExtractor.Page page = BrowserExtractor.parse("{\"title\":\"Jobs | Indeed\",\"throttled\":false,"
+                + "\"items\":[{\"title\":\"Backend Engineer\",\"company\":\"Initech\",\"url\":\"/rc/clk?jk=1\"},"
+                + "{\"title\":\"QA Analyst\",\"company\":\"\",\"url\":\"\"}],"
+                + "\"jsonLd\":[\"{\\\"@type\\\":\\\"JobPosting\\\"}\"]}");
+
+        assertEquals("Jobs | Indeed", page.getTitle());
+        assertFalse(page.looksThrottled());
+        assertEquals(2, page.getItems().size());
+        assertEquals("Initech", page.getItems().get(0).get("company"));
+        assertEquals("/rc/clk?jk=1", page.getItems().get(0).get("url"));
+        assertEquals("{\"@type\":\"JobPosting\"}", page.getJsonLd().get(0));
+    }
+
+    @Test
+    void testThrottledPagesAreDetectedFromMarkersAndTitle() throws Exception {
+        assertTrue(BrowserExtractor.parse("{\"title\":\"Jobs\",\"throttled\":true,\"items\":[]}").looksThrottled());
+        assertTrue(BrowserExtractor.parse("{\"title\":\"Just a moment...\",\"throttled\":false}").looksThrottled());
+    }
+}
@@ -0,0 +1,111 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrawlFrontierTest {
+
+    @TempDir
+    Path directory;
+
+    private static JobOffer job(String title, String url) {
+        return new JobOffer.Builder().setTitle(title).setCompany("Acme").setUrl(url).setSalary("$50k").build();
+    }
+
+    @Test
+    void testProgressSurvivesAnUnclosedFrontier() throws IOException {
+        CrawlFrontier frontier = new CrawlFrontier(directory);
+        frontier.addPage("https://example.com/jobs?page=1", "generic");
+        frontier.addPage("https://example.com/jobs?page=2", "generic");
+        frontier.completePage("https://example.com/jobs?page=1", List.of(job("Java Developer", "https://example.com/j/1")));
+        frontier.completeDetail(job("Java Developer", "https://example.com/j/1?utm_source=x"));
+        // No close(): the process is killed here
+
+        CrawlFrontier reopened = new CrawlFrontier(directory);
+        assertTrue(reopened.isPageDone("https://example.com/jobs?page=1"));
+        assertEquals("Java Developer", reopened.getPageJobs("https://example.com/jobs?page=1").get(0).getTitle());
+        assertEquals(List.of("https://example.com/jobs?page=2"), List.copyOf(reopened.getPendingPages().keySet()));
+        assertEquals("$50k", reopened.getCompletedDetail("https://example.com/j/1").getSalary());
+    }
+
+    @Test
+    void testCheckpointReplacesTheLog() throws IOException {
+        try (CrawlFrontier frontier = new CrawlFrontier(directory, 2)) {
+            frontier.addPage("https://example.com/a", "indeed");
+            frontier.addPage("https://example.com/b", "linkedin");
+            frontier.completePage("https://example.com/a", List.of());
+        }
+
+        assertTrue(Files.exists(directory.resolve("checkpoint.json")));
+        CrawlFrontier reopened = new CrawlFrontier(directory);
+        assertTrue(reopened.isPageDone("https://example.com/a"));
+        assertEquals("linkedin", reopened.getPendingPages().get("https://example.com/b"));
+        // A page already finished is not queued again
+        reopened.addPage("https://example.com/a", "indeed");
+        assertFalse(reopened.getPendingPages().containsKey("https://example.com/a"));
+    }
+
+    @Test
+    void testOnlyKnownFlagIsKeptThroughLogAndCheckpoint() throws IOException {
+        CrawlFrontier frontier = new CrawlFrontier(directory);
+        frontier.completePage("https://example.com/a", List.of(), true);
+        frontier.completePage("https://example.com/b", List.of(), false);
+
+        CrawlFrontier replayed = new CrawlFrontier(directory);
+        assertTrue(replayed.isPageOnlyKnown("https://example.com/a"));
+        assertFalse(replayed.isPageOnlyKnown("https://example.com/b"));
+        replayed.close();
+
+        CrawlFrontier fromCheckpoint = new CrawlFrontier(directory);
+        assertTrue(fromCheckpoint.isPageOnlyKnown("https://example.com/a"));
+        assertTrue(fromCheckpoint.isPageDone("https://example.com/b"));
+    }
+
+    @Test
+    void testCheckpointStoresEachJobOnce() throws IOException {
+        JobOffer job = job("Java Developer", "https://example.com/j/1");
+        try (CrawlFrontier frontier = new CrawlFrontier(directory)) {
+            frontier.completeDetail(job);
+            frontier.completePage("https://example.com/jobs?page=1", List.of(job));
+            frontier.completePage("https://example.com/jobs?q=java", List.of(job));
+        }
+
+        String checkpoint = Files.readString(directory.resolve("checkpoint.json"));
+        assertEquals(1, checkpoint.split("Java Developer", -1).length - 1);
+        CrawlFrontier reopened = new CrawlFrontier(directory);
+        assertEquals("Java Developer", reopened.getPageJobs("https://example.com/jobs?q=java").get(0).getTitle());
+        assertEquals("$50k", reopened.getCompletedDetail("https://example.com/j/1").getSalary());
+    }
+
+    @Test
+    void testOldCheckpointFormatIsLoaded() throws IOException {
+        Files.writeString(directory.resolve("checkpoint.json"), "{\"pendingPages\":{\"https://example.com/b\":\"generic\"},"
+                + "\"completedPages\":{\"https://example.com/a\":[{\"title\":\"Java Developer\",\"url\":\"https://example.com/j/1\"}]},"
+                + "\"completedDetails\":[{\"title\":\"Java Developer\",\"url\":\"https://example.com/j/1\",\"salary\":\"$50k\"}]}");
+
+        CrawlFrontier frontier = new CrawlFrontier(directory);
+        assertTrue(frontier.getPendingPages().containsKey("https://example.com/b"));
+        assertEquals("Java Developer", frontier.getPageJobs("https://example.com/a").get(0).getTitle());
+        assertEquals("$50k", frontier.getCompletedDetail("https://example.com/j/1").getSalary());
+    }
+
+    @Test
+    void testTruncatedLastLineIsSkipped() throws IOException {
+        CrawlFrontier frontier = new CrawlFrontier(directory);
+        frontier.addPage("https://example.com/a", "generic");
+        Files.writeString(directory.resolve("frontier.log"), "{\"type\":\"page-do",
+                StandardOpenOption.APPEND);
+
+        CrawlFrontier reopened = new CrawlFrontier(directory);
+        assertTrue(reopened.getPendingPages().containsKey("https://example.com/a"));
+    }
+}
@@ -0,0 +1,91 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrawlSchedulerTest {
+
+    // URLs are "<query>/<page>"; rich repeats its first page after page 3, short has a single page
+    private static boolean fakeListing(String portalName, String url, Consumer<JobOffer> sink) {
+        String query = url.substring(0, url.indexOf('/'));
+        int page = Integer.parseInt(url.substring(url.indexOf('/') + 1));
+        switch (query) {
+            case "rich" -> emit(sink, query, page > 3 ? 1 : page, 5);
+            case "steady" -> emit(sink, query, page, 3);
+            case "short" -> emit(sink, query, page, page == 1 ? 2 : 0);
+            default -> { }
+        }
+        return false;
+    }
+
+    private static void emit(Consumer<JobOffer> sink, String query, int page, int count) {
+        for (int i = 0; i < count; i++) {
+            sink.accept(new JobOffer.Builder().setTitle(query + " engineer " + page + "-" + i)
+                    .setCompany(query).setUrl("https://jobs.example.com/" + query + "/" + page + "/" + i).build());
+        }
+    }
+
+    private static CrawlScheduler.Builder scheduler() {
+        return new CrawlScheduler.Builder(CrawlSchedulerTest::fakeListing, NearDuplicateIndex::new, 1);
+    }
+
+    private static CrawlScheduler.QueryStats stats(CrawlScheduler.Report report, String name) {
+        return report.getQueries().stream().filter(query -> query.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void testBudgetGoesToTheQueriesStillFindingNewJobs() {
+        CrawlScheduler.Report report = scheduler()
+                .addQuery("rich", "generic", page -> "rich/" + page)
+                .addQuery("steady", "generic", page -> "steady/" + page)
+                .addQuery("short", "generic", page -> "short/" + page)
+                .setPageBudget(14)
+                .setMinYield(3)
+                .build()
+                .run();
+
+        // rich, steady, short, then rich until its repeats pull the yield under 3, then steady
+        assertEquals(4, stats(report, "rich").getPages());
+        assertEquals(CrawlScheduler.StopReason.YIELD_COLLAPSED, stats(report, "rich").getStopReason());
+        assertEquals(CrawlScheduler.StopReason.YIELD_COLLAPSED, stats(report, "short").getStopReason());
+        assertEquals(9, stats(report, "steady").getPages());
+        assertEquals(CrawlScheduler.StopReason.BUDGET, stats(report, "steady").getStopReason());
+        assertEquals(14, report.getPages());
+        assertEquals(15 + 27 + 2, report.getJobs().size());
+    }
+
+    @Test
+    void testTargetJobsAndEmptyPagesEndTheCrawl() {
+        CrawlScheduler.Report report = scheduler()
+                .addQuery("steady", "generic", page -> "steady/" + page)
+                .addQuery("empty", "generic", page -> "empty/" + page)
+                .setTargetJobs(8)
+                .build()
+                .run();
+
+        assertEquals(CrawlScheduler.StopReason.EXHAUSTED, stats(report, "empty").getStopReason());
+        assertEquals(3, stats(report, "steady").getPages());
+        assertEquals(9, report.getJobs().size());
+    }
+
+    @Test
+    void testTimeBudgetAbandonsSlowPages() {
+        CrawlScheduler.Report report = new CrawlScheduler.Builder((portalName, url, sink) -> {
+            Thread.sleep(200);
+            return fakeListing(portalName, url, sink);
+        }, NearDuplicateIndex::new, 2)
+                .addQuery("steady", "generic", page -> "steady/" + page)
+                .addQuery("rich", "generic", page -> "rich/" + page)
+                .setTimeBudget(Duration.ofMillis(500))
+                .build()
+                .run();
+
+        assertTrue(report.getElapsedMillis() < 800, "took " + report.getElapsedMillis() + " ms");
+        assertTrue(report.getPages() >= 4 && report.getPages() <= 6, "pages " + report.getPages());
+    }
+}
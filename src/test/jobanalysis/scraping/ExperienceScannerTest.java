@@ -0,0 +1,30 @@
+package jobanalysis.scraping;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExperienceScannerTest {
+
+    @Test
+    void testEnglishPhrasing() {
+        assertEquals(5, ExperienceScanner.scanYears("You have 5+ years of experience with Java."));
+        assertEquals(3, ExperienceScanner.scanYears("3-5 yrs experience in a product team"));
+        assertEquals(2.5, ExperienceScanner.scanYears("At least 2.5 years' professional experience"));
+        assertEquals(4, ExperienceScanner.scanYears("Experience: 4 years minimum"));
+    }
+
+    @Test
+    void testFrenchPhrasing() {
+        assertEquals(5, ExperienceScanner.scanYears("Vous justifiez de 5 ans d'expérience en développement"));
+        assertEquals(3, ExperienceScanner.scanYears("3 à 5 ans d’exp. sur un poste similaire"));
+        assertEquals(2, ExperienceScanner.scanYears("Une expérience de 2 ans minimum est requise"));
+    }
+
+    @Test
+    void testYearsWithoutExperienceAreIgnored() {
+        assertEquals(-1, ExperienceScanner.scanYears("Founded 20 years ago. We value experience."));
+        assertEquals(-1, ExperienceScanner.scanYears("Expert team of 40 people, 2 years roadmap"));
+        assertEquals(-1, ExperienceScanner.scanYears(null));
+    }
+}
@@ -0,0 +1,67 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FederatedSearchTest {
+
+    private static JobOffer job(String title, String company, String url) {
+        return new JobOffer.Builder().setTitle(title).setCompany(company).setUrl(url).build();
+    }
+
+    @Test
+    void testPortalUrlsAreBuiltFromOneQuery() {
+        assertEquals("https://www.linkedin.com/jobs/search?keywords=java+developer&location=Casablanca",
+                FederatedSearch.linkedInUrl("java developer", "Casablanca", 1));
+        assertEquals("https://www.indeed.com/jobs?q=c%2B%2B&l=&start=10",
+                FederatedSearch.indeedUrl("c++", "", 2));
+
+        FederatedSearch search = new FederatedSearch((portal, url, sink) -> false, 2, NearDuplicateIndex::new)
+                .addPortal("Rekrute", (keywords, location, page) -> "https://www.rekrute.com/offres.html?s=" + keywords + "&p=" + page);
+        assertEquals(List.of("linkedin", "indeed", "rekrute"), List.copyOf(search.getPortals()));
+        assertEquals("https://www.rekrute.com/offres.html?s=java&p=3", search.buildUrl("rekrute", "java", "", 3));
+    }
+
+    @Test
+    void testPortalsRunConcurrentlyAndRepeatsAreMerged() {
+        // Each page takes 300 ms; three portals of two pages run sequentially would take 1.8 s
+        FederatedSearch search = new FederatedSearch((portal, url, sink) -> {
+            Thread.sleep(300);
+            sink.accept(job("Java Developer", "Acme", "https://jobs.example.com/acme/java"));
+            sink.accept(job(portal + " only", portal, url));
+            return false;
+        }, 2, NearDuplicateIndex::new).addPortal("rekrute", (keywords, location, page) -> "https://www.rekrute.com/?p=" + page);
+
+        long start = System.nanoTime();
+        List<JobOffer> jobs = search.searchAll("java", "", 2);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1200, "took " + elapsedMillis + " ms");
+        // Each portal's own card has a different URL on each page, so both pages keep it
+        assertEquals(7, jobs.size());
+        assertEquals(1, jobs.stream().filter(job -> job.getCompany().equals("Acme")).count());
+        assertEquals(List.of("indeed", "linkedin", "rekrute"), jobs.stream()
+                .map(JobOffer::getCompany).filter(company -> !company.equals("Acme"))
+                .distinct().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testPaginationStopsPerPortalOnKnownPages() {
+        List<String> scraped = new CopyOnWriteArrayList<>();
+        FederatedSearch search = new FederatedSearch((portal, url, sink) -> {
+            scraped.add(url);
+            return portal.equals("indeed");
+        }, 1, NearDuplicateIndex::new);
+
+        search.searchAll("java", "", 3);
+
+        assertEquals(3, scraped.stream().filter(url -> url.contains("linkedin")).count());
+        assertEquals(1, scraped.stream().filter(url -> url.contains("indeed")).count());
+    }
+}
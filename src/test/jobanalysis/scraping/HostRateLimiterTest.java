@@ -0,0 +1,31 @@
+package jobanalysis.scraping;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostRateLimiterTest {
+
+    @Test
+    void testOnlyWholeStatusTitlesCountAsThrottled() {
+        assertTrue(HostRateLimiter.isThrottleTitle("429 Too Many Requests"));
+        assertTrue(HostRateLimiter.isThrottleTitle(" Just a moment... "));
+        assertFalse(HostRateLimiter.isThrottleTitle("Jobs at Office 429 | Acme"));
+        assertFalse(HostRateLimiter.looksThrottled(Jsoup.parse("<title>Captcha Solutions hiring Java Developer</title>")));
+    }
+
+    @Test
+    void testChallengeOnlyCountsWithoutJobContent() {
+        String challenge = "<html><head><title>example.com</title></head><body>"
+                + "<form id=\"challenge-form\" action=\"/?__cf_chl_f_tk=1\"></form>"
+                + "<iframe src=\"https://challenges.cloudflare.com/turnstile\"></iframe></body></html>";
+        String applyForm = "<html><head><title>Jobs</title></head><body>"
+                + "<div class=\"job-card\"><h2>Java Developer</h2></div>"
+                + "<div class=\"g-recaptcha\"><iframe src=\"https://www.google.com/recaptcha/api2/anchor\"></iframe></div>"
+                + "</body></html>";
+
+        assertTrue(HostRateLimiter.looksThrottled(Jsoup.parse(challenge)));
+        assertFalse(HostRateLimiter.looksThrottled(Jsoup.parse(applyForm)));
+    }
+}
@@ -0,0 +1,40 @@
+package jobanalysis.scraping;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpPageFetcherTest {
+
+    private final HttpPageFetcher fetcher = new HttpPageFetcher(new String[]{"test"}, 1000, new Random(1));
+
+    @Test
+    void testOneEmptyPageDoesNotMoveTheSiteToTheBrowser() {
+        fetcher.remember("example.com", HttpPageFetcher.PageKind.LISTING, HttpPageFetcher.Outcome.CONTENT);
+        fetcher.remember("example.com", HttpPageFetcher.PageKind.LISTING, HttpPageFetcher.Outcome.EMPTY);
+        assertTrue(fetcher.shouldTryHttp("example.com", HttpPageFetcher.PageKind.LISTING));
+
+        fetcher.remember("example.com", HttpPageFetcher.PageKind.LISTING, HttpPageFetcher.Outcome.EMPTY);
+        fetcher.remember("example.com", HttpPageFetcher.PageKind.LISTING, HttpPageFetcher.Outcome.EMPTY);
+        assertFalse(fetcher.shouldTryHttp("example.com", HttpPageFetcher.PageKind.LISTING));
+        assertTrue(fetcher.shouldTryHttp("example.com", HttpPageFetcher.PageKind.DETAIL));
+    }
+
+    @Test
+    void testRejectingSitesAreReprobedNowAndThen() {
+        fetcher.remember("linkedin.com", HttpPageFetcher.PageKind.DETAIL, HttpPageFetcher.Outcome.REJECTED);
+
+        int probes = 0;
+        for (int i = 0; i < 40; i++) {
+            if (fetcher.shouldTryHttp("linkedin.com", HttpPageFetcher.PageKind.DETAIL)) {
+                probes++;
+            }
+        }
+        assertEquals(2, probes);
+
+        fetcher.remember("linkedin.com", HttpPageFetcher.PageKind.DETAIL, HttpPageFetcher.Outcome.CONTENT);
+        assertTrue(fetcher.shouldTryHttp("linkedin.com", HttpPageFetcher.PageKind.DETAIL));
+    }
+}
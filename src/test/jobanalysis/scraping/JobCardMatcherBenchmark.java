@@ -0,0 +1,116 @@
+package jobanalysis.scraping;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compares JobCardMatcher with the selector-per-pattern findJobCards/deduplicateCards it replaced.
+ *
+ * Usage: JobCardMatcherBenchmark [saved-page.html ...]
+ * Without arguments a synthetic 2000-card listing page (several MB) is generated.
+ */
+public class JobCardMatcherBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            run("synthetic page", Jsoup.parse(syntheticPage(2000), "https://example.com/jobs"));
+        }
+        for (String file : args) {
+            run(file, Jsoup.parse(Files.readString(Path.of(file), StandardCharsets.UTF_8), "https://example.com/"));
+        }
+    }
+
+    private static void run(String name, Document doc) {
+        JobCardMatcher matcher = new JobCardMatcher();
+        System.out.println("Benchmarking " + name + " (" + doc.getAllElements().size() + " elements)");
+
+        int legacyCards = 0;
+        int matcherCards = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            legacyCards = legacyFindJobCards(doc).size();
+            matcherCards = matcher.findCards(doc).size();
+        }
+
+        long legacyNanos = 0;
+        long matcherNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            legacyFindJobCards(doc);
+            legacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            matcher.findCards(doc);
+            matcherNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("  selector loop : %8.2f ms/page, %d cards%n", legacyNanos / 1e6 / MEASURED_ROUNDS, legacyCards);
+        System.out.printf("  single pass   : %8.2f ms/page, %d cards%n", matcherNanos / 1e6 / MEASURED_ROUNDS, matcherCards);
+        System.out.printf("  speed-up      : %8.2fx%n", (double) legacyNanos / matcherNanos);
+    }
+
+    private static String syntheticPage(int cards) {
+        StringBuilder html = new StringBuilder("<html><head><title>Jobs</title></head><body>");
+        html.append("<div class=\"header\"><nav class=\"menu\"><a href=\"/\">Home</a></nav></div>");
+        html.append("<div class=\"jobs-results-container\"><ul class=\"results\">");
+        for (int i = 0; i < cards; i++) {
+            html.append("<li class=\"result\"><div class=\"job-card job-card--featured\" data-id=\"").append(i).append("\">")
+                    .append("<h3 class=\"job-title\"><a href=\"/jobs/view/").append(i).append("\">Java Developer ").append(i).append("</a></h3>")
+                    .append("<div class=\"job-company company-name\">Company ").append(i % 97).append("</div>")
+                    .append("<div class=\"job-location\">Casablanca, Maroc</div>")
+                    .append("<div class=\"job-salary\">$").append(40 + i % 60).append("k - $").append(80 + i % 60).append("k</div>")
+                    .append("<p class=\"description\">")
+                    .append("We are looking for an experienced engineer to join our platform team. ".repeat(12))
+                    .append("</p>")
+                    .append("<span class=\"tag\">Java</span><span class=\"tag\">Spring</span><span class=\"tag\">SQL</span>")
+                    .append("</div></li>");
+        }
+        html.append("</ul></div><footer class=\"footer\">Footer</footer></body></html>");
+        return html.toString();
+    }
+
+    // The implementation findJobCards used before JobCardMatcher, kept here as the baseline
+    private static Elements legacyFindJobCards(Document doc) {
+        Elements cards = new Elements();
+        String[] containerSelectors = {
+                "article[class*=job], article[class*=position]",
+                "div[itemtype*=JobPosting]",
+                "div[class*=job-card], div[class*=jobCard]",
+                "div[class*=vacancy], div[class*=position]",
+                "div[class*=job-listing], div[class*=jobListing]",
+                "li[class*=job-item], li[class*=jobItem]",
+                "div[data-test*=job], div[data-automation*=job]",
+                "div[data-type=job], div[data-entity-type=job]",
+                ".job-result, .search-result, .listing-item",
+                "div[class*=job], div[class*=career], div[class*=posting]"
+        };
+        for (String selector : containerSelectors) {
+            cards.addAll(doc.select(selector));
+        }
+
+        Set<String> seen = new HashSet<>();
+        Elements uniqueCards = new Elements();
+        for (Element card : cards) {
+            String titleText = card.select("[class*=title]").text();
+            String companyText = card.select("[class*=company]").text();
+            String signature = (titleText + companyText).trim().toLowerCase();
+            if (signature.isEmpty()) {
+                signature = card.text().trim().substring(0, Math.min(100, card.text().trim().length()));
+            }
+            if (seen.add(signature)) {
+                uniqueCards.add(card);
+            }
+        }
+        return uniqueCards;
+    }
+}
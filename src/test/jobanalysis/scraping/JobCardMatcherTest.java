@@ -0,0 +1,90 @@
+package jobanalysis.scraping;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobCardMatcherTest {
+
+    private final JobCardMatcher matcher = new JobCardMatcher();
+
+    @Test
+    void testListWrapperIsReplacedByItsCards() {
+        Document doc = Jsoup.parse("""
+                <div class="jobs-container">
+                  <div class="job-card"><h3 class="job-title"><a href="/j/1">Java Developer</a></h3>
+                    <div class="job-company">Acme</div><span class="job-tag">Java</span><span class="job-tag">SQL</span></div>
+                  <div class="job-card"><h3 class="job-title"><a href="/j/2">Data Engineer</a></h3>
+                    <div class="job-company">Globex</div></div>
+                </div>
+                """);
+
+        Elements cards = matcher.findCards(doc);
+
+        assertEquals(2, cards.size());
+        assertTrue(cards.stream().allMatch(card -> card.hasClass("job-card")));
+    }
+
+    @Test
+    void testFeaturedCardsAndSingleResultListsAreSplit() {
+        Document mixed = Jsoup.parse("""
+                <div class="jobs-container">
+                  <div class="job-card featured"><a class="job-link" href="/j/1">Java Developer</a> Acme</div>
+                  <div class="job-card"><a class="job-link" href="/j/2">Data Engineer</a> Globex</div>
+                </div>
+                """);
+        Document single = Jsoup.parse("""
+                <div class="jobs-container">
+                  <div class="job-card"><h3 class="job-title"><a href="/j/1">Java Developer</a></h3>
+                    <div class="job-company">Acme</div></div>
+                </div>
+                """);
+
+        assertEquals(2, matcher.findCards(mixed).size());
+        Elements singleCards = matcher.findCards(single);
+        assertEquals(1, singleCards.size());
+        assertTrue(singleCards.get(0).hasClass("job-card"));
+    }
+
+    @Test
+    void testCardWithLinkedHeaderIsKeptWhole() {
+        Document plainHeader = Jsoup.parse("""
+                <div class="job-card"><div class="job-card-header"><a href="/j/1">Java Developer</a> Acme</div>
+                  <p>Build and run our Java services on a small, friendly team.</p><span>$60k</span></div>
+                """);
+        Document classedHeader = Jsoup.parse("""
+                <div class="job-card"><div class="job-card-header"><a class="job-title" href="/j/1">Java Developer</a>
+                  <span class="company">Acme</span></div>
+                  <p>Build and run our Java services on a small, friendly team.</p><span>$60k</span></div>
+                """);
+
+        for (Document doc : new Document[]{plainHeader, classedHeader}) {
+            Elements cards = matcher.findCards(doc);
+            assertEquals(1, cards.size());
+            assertTrue(cards.get(0).hasClass("job-card"));
+            assertTrue(cards.get(0).text().contains("$60k"));
+        }
+    }
+
+    @Test
+    void testDuplicateCardsAreCollapsedBySignature() {
+        Document doc = Jsoup.parse("""
+                <article class="job"><h2 class="title"><a href="/a">QA Engineer</a></h2><p class="company">Initech</p></article>
+                <article class="job"><h2 class="title"><a href="/b">QA Engineer</a></h2><p class="company">Initech</p></article>
+                <li class="search-result"><a href="/c">Support Analyst</a> Contoso</li>
+                """);
+
+        Elements cards = matcher.findCards(doc);
+
+        assertEquals(2, cards.size());
+        assertEquals("li", cards.get(1).normalName());
+    }
+
+    @Test
+    void testPageWithoutCards() {
+        assertTrue(matcher.findCards(Jsoup.parse("<div class='header'><a href='/'>Home</a></div>")).isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobIdentityTest {
+
+    @Test
+    void testLinkedInTrackingParametersAreStripped() {
+        String first = JobIdentity.canonicalUrl(
+                "https://ma.linkedin.com/jobs/view/java-developer-at-acme-3812345678?refId=abc&trackingId=xyz%3D%3D&position=3&pageNum=0&trk=public_jobs");
+        String second = JobIdentity.canonicalUrl(
+                "https://www.linkedin.com/jobs/view/java-developer-at-acme-3812345678/?position=7&trk=public_jobs_jserp");
+
+        assertEquals("https://www.linkedin.com/jobs/view/java-developer-at-acme-3812345678", first);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testJobKeysAreKeptAndSorted() {
+        assertEquals("https://www.indeed.com/viewjob?jk=abc123",
+                JobIdentity.canonicalUrl("https://WWW.Indeed.com/viewjob?jk=abc123&from=serp&tk=1h2&utm_source=x#apply"));
+        assertEquals("https://example.com/jobs?a=1&b=2",
+                JobIdentity.canonicalUrl("https://example.com/jobs?b=2&a=1"));
+    }
+
+    @Test
+    void testPortalParametersAreKeptOnOtherBoards() {
+        assertEquals("https://careers.example.com/jobs?position=123",
+                JobIdentity.canonicalUrl("https://careers.example.com/jobs?position=123&gclid=abc"));
+        assertEquals("https://jobs.example.com/view?from=2024&ref=77&source=board",
+                JobIdentity.canonicalUrl("https://jobs.example.com/view?source=board&ref=77&from=2024&utm_medium=mail"));
+        assertEquals("https://fr.indeed.com/viewjob?jk=9f",
+                JobIdentity.canonicalUrl("https://fr.indeed.com/viewjob?jk=9f&from=serp&vjs=3"));
+    }
+
+    @Test
+    void testBlankAndRelativeUrls() {
+        assertEquals("", JobIdentity.canonicalUrl(null));
+        assertEquals("", JobIdentity.canonicalUrl("  "));
+        assertEquals("/jobs/42", JobIdentity.canonicalUrl("/jobs/42"));
+    }
+
+    @Test
+    void testCardFingerprintIgnoresFormattingButNotContent() {
+        JobOffer job = new JobOffer.Builder()
+                .setTitle("Java Developer").setCompany("Acme").setLocation("Casablanca").build();
+        JobOffer reformatted = new JobOffer.Builder()
+                .setTitle("  java   developer ").setCompany("ACME").setLocation("Casablanca").build();
+        JobOffer moved = new JobOffer.Builder()
+                .setTitle("Java Developer").setCompany("Acme").setLocation("Rabat").build();
+
+        assertEquals(JobIdentity.cardFingerprint(job), JobIdentity.cardFingerprint(reformatted));
+        assertNotEquals(JobIdentity.cardFingerprint(job), JobIdentity.cardFingerprint(moved));
+    }
+
+    @Test
+    void testRelativePostedDatesDoNotChangeTheContentHash() {
+        JobOffer.Builder job = new JobOffer.Builder().setTitle("Java Developer").setCompany("Acme");
+
+        assertEquals(JobIdentity.contentHash(job.setPostedDate("Posted 3 days ago").build()),
+                JobIdentity.contentHash(job.setPostedDate("2 weeks ago").build()));
+        assertEquals(JobIdentity.contentHash(job.setPostedDate("2024-05-02").build()),
+                JobIdentity.contentHash(job.setPostedDate("2024-05-02T09:30:00Z").build()));
+        assertNotEquals(JobIdentity.contentHash(job.setPostedDate("2024-05-02").build()),
+                JobIdentity.contentHash(job.setPostedDate("2024-06-10").build()));
+    }
+}
@@ -0,0 +1,99 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobOfferPublisherTest {
+
+    private static JobOffer job(String title) {
+        return new JobOffer.Builder().setTitle(title).build();
+    }
+
+    @Test
+    void testJobsAreDeliveredThenCompleted() throws InterruptedException {
+        JobOfferPublisher publisher = new JobOfferPublisher("test", sink -> {
+            sink.accept(job("First"));
+            sink.accept(job("Second"));
+        });
+
+        List<String> titles = new ArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(JobOffer item) {
+                titles.add(item.getTitle());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("First", "Second"), titles);
+    }
+
+    @Test
+    void testCancellingInterruptsTheScrape() throws InterruptedException {
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        JobOfferPublisher publisher = new JobOfferPublisher("test", sink -> {
+            try {
+                while (true) {
+                    sink.accept(job("Job"));
+                    Thread.sleep(10);
+                }
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            } finally {
+                stopped.countDown();
+            }
+        });
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(JobOffer item) {
+                subscription.cancel();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.get());
+    }
+}
@@ -0,0 +1,72 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobPayloadMapperTest {
+
+    // src is the source root, so the fixtures end up under test/ on the classpath
+    private static String fixture(String name) throws IOException {
+        try (InputStream in = JobPayloadMapperTest.class.getResourceAsStream("/test/jobanalysis/scraping/fixtures/" + name)) {
+            assertNotNull(in, "missing fixture " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testLinkedInJobCards() throws IOException {
+        List<JobOffer> jobs = JobPayloadMapper.map(PageReadiness.Profile.LINKEDIN, fixture("linkedin-job-cards.json"));
+
+        assertEquals(2, jobs.size());
+        JobOffer first = jobs.get(0);
+        assertEquals("Senior Java Developer", first.getTitle());
+        assertEquals("Acme", first.getCompany());
+        assertEquals("Casablanca, Casablanca-Settat, Morocco (Hybrid)", first.getLocation());
+        assertEquals("2024-05-02", first.getPostedDate());
+        assertEquals("https://www.linkedin.com/jobs/view/3912345678/", first.getUrl());
+        assertEquals("Data Engineer", jobs.get(1).getTitle());
+        assertEquals("https://www.linkedin.com/jobs/view/3912349999/", jobs.get(1).getUrl());
+    }
+
+    @Test
+    void testIndeedJobSearch() throws IOException {
+        List<JobOffer> jobs = JobPayloadMapper.map(PageReadiness.Profile.INDEED, fixture("indeed-job-search.json"));
+
+        assertEquals(2, jobs.size());
+        JobOffer first = jobs.get(0);
+        assertEquals("Backend Engineer", first.getTitle());
+        assertEquals("Initech", first.getCompany());
+        assertEquals("Paris (75)", first.getLocation());
+        assertEquals("Full-time", first.getEmploymentType());
+        assertEquals("Hybrid work", first.getWorkplaceType());
+        assertEquals("https://www.indeed.com/viewjob?jk=a1b2c3d4e5f60718", first.getUrl());
+
+        SalaryScanner.SalaryRange salary = SalaryScanner.parse(first.getSalary());
+        assertEquals(45_000, salary.getMin());
+        assertEquals(55_000, salary.getMax());
+        assertEquals(SalaryScanner.Period.YEAR, salary.getPeriod());
+
+        assertEquals("Umbrella", jobs.get(1).getCompany());
+        assertEquals("2 500 € par mois", jobs.get(1).getSalary());
+    }
+
+    @Test
+    void testOnlyJobCallsAreCapturedAndOtherShapesMapToNothing() throws IOException {
+        assertTrue(JobPayloadMapper.isJobPayload(PageReadiness.Profile.LINKEDIN,
+                "https://www.linkedin.com/voyager/api/voyagerJobsDashJobCards?decorationId=x&count=25"));
+        assertFalse(JobPayloadMapper.isJobPayload(PageReadiness.Profile.LINKEDIN,
+                "https://www.linkedin.com/voyager/api/me"));
+        assertTrue(JobPayloadMapper.isJobPayload(PageReadiness.Profile.INDEED, "https://apis.indeed.com/graphql?co=FR"));
+        assertFalse(JobPayloadMapper.isJobPayload(PageReadiness.Profile.GENERIC, "https://apis.indeed.com/graphql"));
+
+        assertTrue(JobPayloadMapper.map(PageReadiness.Profile.INDEED, fixture("linkedin-job-cards.json")).isEmpty());
+        assertTrue(JobPayloadMapper.map(PageReadiness.Profile.LINKEDIN, "{\"included\": \"oops\"").isEmpty());
+    }
+}
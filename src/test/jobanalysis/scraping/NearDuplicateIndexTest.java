@@ -0,0 +1,102 @@
+package jobanalysis.scraping;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NearDuplicateIndexTest {
+
+    private static final String DESCRIPTION = "We are looking for a backend engineer to build payment services "
+            + "with Java 17, Spring Boot and PostgreSQL. You will work in a small team, review code, write tests "
+            + "and take part in on-call rotations. Requirements: 3+ years of experience with Java, REST APIs, SQL, "
+            + "Docker and Kubernetes. Nice to have: Kafka, AWS, observability tooling. We offer a hybrid schedule "
+            + "in Casablanca, health insurance, a yearly bonus and training budget.";
+
+    @Test
+    void testSamePostingFromAnotherPortalIsDetected() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Casablanca", "https://www.linkedin.com/jobs/view/1",
+                DESCRIPTION));
+        assertFalse(index.addIfNew("Java Developer (H/F)", "Acme Inc", "casablanca", "https://ma.indeed.com/viewjob?jk=2",
+                DESCRIPTION.replace("hybrid schedule", "hybrid work schedule") + " Apply on our careers page."));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testLocationsFormattedDifferentlyByPortalsAreTheSameCity() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Casablanca", "https://www.rekrute.com/offre-1.html",
+                DESCRIPTION));
+        assertFalse(index.addIfNew("Java Developer", "Acme", "Casablanca, Casablanca-Settat, Morocco",
+                "https://www.linkedin.com/jobs/view/1", DESCRIPTION));
+        assertFalse(index.addIfNew("Java Developer", "Acme", "Greater Casablanca Area", "https://ma.indeed.com/viewjob?jk=2",
+                DESCRIPTION));
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Rabat, Rabat-Salé-Kénitra, Morocco", "", DESCRIPTION));
+        assertEquals("fes", NearDuplicateIndex.cityOf(" Fès (Hybride)"));
+    }
+
+    @Test
+    void testDifferentRoleWithSameBoilerplateIsKept() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+
+        assertTrue(index.addIfNew("Java Developer", "Acme", "", "", DESCRIPTION));
+        assertTrue(index.addIfNew("QA Engineer", "Acme", "", "", DESCRIPTION));
+    }
+
+    @Test
+    void testSamePostingInAnotherCityIsKept() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Casablanca", "", DESCRIPTION));
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Rabat", "", DESCRIPTION));
+        assertFalse(index.addIfNew("Java Developer", "Acme", "", "", DESCRIPTION));
+    }
+
+    @Test
+    void testUnrelatedPostingIsKept() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+
+        assertTrue(index.addIfNew("Java Developer", "Acme", "", "", DESCRIPTION));
+        assertTrue(index.addIfNew("Java Developer", "Globex", "", "", "Join our analytics team to build machine learning "
+                + "models for credit scoring using Python, pandas and scikit-learn. You will partner with product "
+                + "managers, design experiments and present results to stakeholders in Rabat."));
+    }
+
+    @Test
+    void testCardsWithoutDescriptionAreOnlyDroppedAsExactRepeats() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Rabat", "https://jobs.example.com/1?utm_source=x", ""));
+        assertFalse(index.addIfNew("Java Developer", "Acme", "Rabat", "https://jobs.example.com/1", ""));
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Rabat", "https://jobs.example.com/2", ""));
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Rabat", "", ""));
+        assertFalse(index.addIfNew(" java  developer", "ACME", "rabat", null, null));
+        assertTrue(index.addIfNew("Java Developer", "Acme", "Fès", "", ""));
+    }
+
+    @Test
+    void testManyDistinctPostingsAreAllKept() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+        Random random = new Random(42);
+        String[] vocabulary = new String[400];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = "term" + i;
+        }
+
+        int kept = 0;
+        for (int i = 0; i < 500; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int word = 0; word < 60; word++) {
+                description.append(vocabulary[random.nextInt(vocabulary.length)]).append(' ');
+            }
+            if (index.addIfNew("Software Engineer", "Company" + i, "", "", description.toString())) {
+                kept++;
+            }
+        }
+        assertEquals(500, kept);
+    }
+}
@@ -0,0 +1,80 @@
+package jobanalysis.scraping;
+
+import jobanalysis.models.JobOffer;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageArchiveTest {
+
+    private static final String LISTING_URL = "https://www.linkedin.com/jobs/search?keywords=java";
+    private static final String LISTING = """
+            <ul class="jobs-search__results-list">
+              <li><a class="base-card__full-link" href="https://www.linkedin.com/jobs/view/1"></a>
+                <h3 class="base-search-card__title">Java Developer</h3>
+                <h4 class="base-search-card__subtitle">Acme</h4>
+                <span class="job-search-card__location">Casablanca</span></li>
+              <li><a class="base-card__full-link" href="/jobs/view/2"></a>
+                <h3 class="base-search-card__title">Data Engineer</h3>
+                <h4 class="base-search-card__subtitle">Initech</h4>
+                <span class="job-search-card__location">Rabat</span></li>
+            </ul>""";
+    private static final String DETAIL_URL = "https://www.linkedin.com/jobs/view/1";
+    private static final String DETAIL = """
+            <div class="description__text">Build payment services in Java 17 with Spring Boot and PostgreSQL.</div>""";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testIdenticalPagesAreStoredOnceAndIndexedEachTime() throws IOException {
+        PageArchive archive = new PageArchive(directory);
+        archive.store(LISTING_URL, "linkedin", HttpPageFetcher.PageKind.LISTING, LISTING);
+        archive.store(LISTING_URL, "linkedin", HttpPageFetcher.PageKind.LISTING, LISTING);
+        archive.store(DETAIL_URL, "", HttpPageFetcher.PageKind.DETAIL, DETAIL);
+
+        try (Stream<Path> objects = Files.walk(directory.resolve("objects"))) {
+            assertEquals(2, objects.filter(Files::isRegularFile).count());
+        }
+        List<PageArchive.Entry> entries = archive.entries();
+        assertEquals(3, entries.size());
+        assertEquals(LISTING_URL, entries.get(1).getUrl());
+        assertEquals(entries.get(0).getSha256(), entries.get(1).getSha256());
+        assertFalse(entries.get(1).getCapturedAt().isBefore(entries.get(0).getCapturedAt()));
+        assertTrue(entries.get(0).isListing());
+        assertFalse(entries.get(2).isListing());
+        assertEquals(LISTING, archive.load(entries.get(0)));
+    }
+
+    @Test
+    void testReplayGivesWhatParsingThePagesDirectlyGives() throws IOException {
+        PageArchive archive = new PageArchive(directory);
+        archive.store(LISTING_URL, "linkedin", HttpPageFetcher.PageKind.LISTING, LISTING);
+        archive.store(DETAIL_URL, "", HttpPageFetcher.PageKind.DETAIL, DETAIL);
+
+        List<JobOffer> replayed = new JSoupScraper().replayArchive(archive);
+
+        PortalParser portal = PortalParsers.forPortal("linkedin");
+        List<Map<String, String>> cards = portal.parseCards(Jsoup.parse(LISTING, LISTING_URL));
+        assertEquals(cards.size(), replayed.size());
+        for (int i = 0; i < cards.size(); i++) {
+            String url = cards.get(i).get("url");
+            assertEquals(cards.get(i).get("title"), replayed.get(i).getTitle());
+            assertEquals(cards.get(i).get("company"), replayed.get(i).getCompany());
+            assertEquals(cards.get(i).get("location"), replayed.get(i).getLocation());
+            assertEquals(url.startsWith("http") ? url : portal.getOrigin() + url, replayed.get(i).getUrl());
+        }
+        // The archived detail page enriches its job, the other one keeps its card data
+        assertEquals(Jsoup.parse(DETAIL).text(), replayed.get(0).getDescription());
+        assertEquals("", replayed.get(1).getDescription());
+    }
+}
@@ -0,0 +1,59 @@
+package jobanalysis.scraping;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Selector;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortalParserTest {
+
+    private static final String LINKEDIN_PAGE = """
+            <ul class="jobs-search__results-list">
+              <li><a class="base-card__full-link" href="https://www.linkedin.com/jobs/view/1"></a>
+                <h3 class="base-search-card__title">Java Developer</h3>
+                <h4 class="base-search-card__subtitle">Acme</h4>
+                <span class="job-search-card__location">Casablanca</span></li>
+              <li><a class="base-card__full-link" href="/jobs/view/2"></a>
+                <h3 class="base-search-card__title">Data Engineer</h3>
+                <h4 class="base-search-card__subtitle">Initech</h4></li>
+            </ul>""";
+
+    @Test
+    void testBuiltInParsersAreRegisteredThroughServiceLoader() {
+        assertInstanceOf(LinkedInPortalParser.class, PortalParsers.forPortal("LinkedIn"));
+        assertInstanceOf(IndeedPortalParser.class, PortalParsers.forPortal("indeed"));
+        assertNull(PortalParsers.forPortal("rekrute"));
+        assertEquals(PageReadiness.Profile.INDEED, PortalParsers.forPortal("indeed").getProfile());
+    }
+
+    @Test
+    void testCardsAreReadWithSharedSelectorsFromManyThreads() {
+        PortalParser parser = PortalParsers.forPortal("linkedin");
+        Document doc = Jsoup.parse(LINKEDIN_PAGE);
+
+        List<List<Map<String, String>>> results = IntStream.range(0, 64).parallel()
+                .mapToObj(i -> parser.parseCards(Jsoup.parse(LINKEDIN_PAGE)))
+                .toList();
+
+        List<Map<String, String>> cards = parser.parseCards(doc);
+        assertEquals(2, cards.size());
+        assertEquals("Java Developer", cards.get(0).get("title"));
+        assertEquals("Acme", cards.get(0).get("company"));
+        assertEquals("Casablanca", cards.get(0).get("location"));
+        assertEquals("/jobs/view/2", cards.get(1).get("url"));
+        assertEquals("", cards.get(1).get("salary"));
+        results.forEach(result -> assertEquals(cards, result));
+    }
+
+    @Test
+    void testInvalidSelectorsFailWhenTheSetIsBuilt() {
+        assertThrows(Selector.SelectorParseException.class,
+                () -> new SelectorSet.Builder().cards("div.job").field("title", "h2[").build());
+    }
+}
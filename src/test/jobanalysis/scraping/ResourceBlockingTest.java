@@ -0,0 +1,52 @@
+package jobanalysis.scraping;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceBlockingTest {
+
+    @Test
+    void testThirdPartyScriptsNeedTheAllowlist() {
+        ResourceBlocking.Policy policy = ResourceBlocking.defaults().getPolicy(PageReadiness.Profile.LINKEDIN);
+        String page = "https://www.linkedin.com/jobs/search?keywords=java";
+
+        assertTrue(policy.allowsScript("https://www.linkedin.com/app.js", page));
+        assertTrue(policy.allowsScript("https://static.licdn.com/sc/h/bundle.js", page));
+        assertTrue(policy.allowsScript("https://challenges.cloudflare.com/turnstile/v0/api.js", page));
+        assertFalse(policy.allowsScript("https://www.googletagmanager.com/gtm.js", page));
+        assertFalse(policy.allowsScript("https://evil-licdn.com/x.js", page));
+        assertTrue(policy.getBlockedKinds().contains(ResourceBlocking.Kind.IMAGE));
+    }
+
+    @Test
+    void testGenericBoardsKeepCdnScripts() {
+        ResourceBlocking.Policy policy = ResourceBlocking.defaults().getPolicy(PageReadiness.Profile.GENERIC);
+
+        assertTrue(policy.allowsScript("https://cdn.jsdelivr.net/npm/vue.js", "https://www.emploi.ma/jobs"));
+        assertTrue(policy.getBlockedUrlPatterns().contains("*google-analytics.com*"));
+    }
+
+    @Test
+    void testControlPagesAreSampledAndSavingsComputed() {
+        ResourceBlocking blocking = ResourceBlocking.defaults().setControlSampleEvery(3);
+        int controls = 0;
+        for (int i = 0; i < 9; i++) {
+            if (blocking.nextIsControl(PageReadiness.Profile.INDEED)) {
+                controls++;
+            }
+        }
+        assertEquals(3, controls);
+        assertFalse(ResourceBlocking.defaults().setControlSampleEvery(0).nextIsControl(PageReadiness.Profile.INDEED));
+
+        ScraperMetrics metrics = new ScraperMetrics();
+        assertEquals(0, metrics.getBytesSavedPerPage(PageReadiness.Profile.INDEED));
+        metrics.recordResourceUsage(PageReadiness.Profile.INDEED, false, 3_000_000, 4000, 0);
+        metrics.recordResourceUsage(PageReadiness.Profile.INDEED, true, 1_000_000, 2500, 40);
+        metrics.recordResourceUsage(PageReadiness.Profile.INDEED, true, 800_000, 2300, 38);
+
+        assertEquals(2_100_000, metrics.getBytesSavedPerPage(PageReadiness.Profile.INDEED));
+        assertEquals(1600, metrics.getMillisSavedPerPage(PageReadiness.Profile.INDEED));
+        assertTrue(metrics.summary().contains("INDEED unblocked"));
+    }
+}
@@ -0,0 +1,88 @@
+package jobanalysis.scraping;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalaryScannerTest {
+
+    @Test
+    void testDollarRangeWithThousandsSuffix() {
+        SalaryScanner.SalaryRange range = SalaryScanner.parse("$40k - $60K a year");
+
+        assertNotNull(range);
+        assertEquals(40_000, range.getMin());
+        assertEquals(60_000, range.getMax());
+        assertEquals(SalaryScanner.Currency.USD, range.getCurrency());
+        assertEquals(SalaryScanner.Period.YEAR, range.getPeriod());
+        assertEquals("$40,000 - $60,000 per year", range.toString());
+    }
+
+    @Test
+    void testSuffixOnUpperBoundAppliesToBoth() {
+        SalaryScanner.SalaryRange range = SalaryScanner.parse("80-120k€ brut par an");
+
+        assertEquals(80_000, range.getMin());
+        assertEquals(120_000, range.getMax());
+        assertEquals(SalaryScanner.Currency.EUR, range.getCurrency());
+        assertEquals(SalaryScanner.Period.YEAR, range.getPeriod());
+    }
+
+    @Test
+    void testFrenchMonthlyDirhams() {
+        SalaryScanner.SalaryRange range = SalaryScanner.parse("Salaire : de 8 000 à 12 000 MAD par mois");
+
+        assertEquals(8_000, range.getMin());
+        assertEquals(12_000, range.getMax());
+        assertEquals(SalaryScanner.Currency.MAD, range.getCurrency());
+        assertEquals(SalaryScanner.Period.MONTH, range.getPeriod());
+        assertEquals(120_000, range.getAnnualMidpoint());
+        assertEquals("8,000 - 12,000 MAD per month", range.toString());
+    }
+
+    @Test
+    void testHourlyRateWithDecimals() {
+        SalaryScanner.SalaryRange range = SalaryScanner.parse("Pay: $22.50 an hour");
+
+        assertEquals(22.5, range.getMin());
+        assertEquals(22.5, range.getMax());
+        assertEquals(SalaryScanner.Period.HOUR, range.getPeriod());
+        assertEquals(22.5 * 2080, range.getAnnualMin());
+    }
+
+    @Test
+    void testNumbersThatAreNotPayAreSkipped() {
+        SalaryScanner.SalaryRange range = SalaryScanner.parse("Team of 12, 3 offices, from 25€/h");
+
+        assertEquals(25, range.getMin());
+        assertEquals(SalaryScanner.Period.HOUR, range.getPeriod());
+        assertNull(SalaryScanner.parse("Competitive salary, 2 days remote"));
+        assertNull(SalaryScanner.parse(null));
+    }
+
+    @Test
+    void testOpenEndedAmountsKeepTheirPlus() {
+        SalaryScanner.SalaryRange plus = SalaryScanner.parse("$100,000+ per year");
+        SalaryScanner.SalaryRange andUp = SalaryScanner.parse("$40,000 and up");
+        SalaryScanner.SalaryRange etPlus = SalaryScanner.parse("15 000 MAD et plus par mois");
+
+        assertTrue(plus.isOpenEnded());
+        assertEquals(100_000, plus.getMax());
+        assertEquals("$100,000+ per year", plus.toString());
+        assertEquals("$40,000+", andUp.toString());
+        assertEquals("15,000+ MAD per month", etPlus.toString());
+        assertTrue(SalaryScanner.parse(plus.toString()).isOpenEnded());
+        assertFalse(SalaryScanner.parse("$40,000 and $60,000").isOpenEnded());
+    }
+
+    @Test
+    void testFormattedRangeScansBackToTheSameValues() {
+        SalaryScanner.SalaryRange range = SalaryScanner.parse("55,000 - 70,000 USD per year");
+        SalaryScanner.SalaryRange again = SalaryScanner.parse(range.toString());
+
+        assertEquals(range.getMin(), again.getMin());
+        assertEquals(range.getMax(), again.getMax());
+        assertEquals(range.getCurrency(), again.getCurrency());
+        assertEquals(range.getPeriod(), again.getPeriod());
+    }
+}
@@ -0,0 +1,82 @@
+package jobanalysis.scraping;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructuredJobDataTest {
+
+    private static final String JSON_LD_PAGE = "<html><head>"
+            + "<script type=\"application/ld+json\">{\"@context\":\"https://schema.org\",\"@graph\":["
+            + "{\"@type\":\"Organization\",\"name\":\"Site Owner\"},"
+            + "{\"@type\":\"JobPosting\",\"title\":\"Backend Engineer\","
+            + "\"description\":\"&lt;p&gt;Build &lt;b&gt;payment&lt;/b&gt; APIs.&lt;/p&gt;\","
+            + "\"datePosted\":\"2024-05-02\",\"validThrough\":\"2024-06-30\","
+            + "\"employmentType\":[\"FULL_TIME\",\"CONTRACTOR\"],\"jobLocationType\":\"TELECOMMUTE\","
+            + "\"hiringOrganization\":{\"@type\":\"Organization\",\"name\":\"Acme\",\"logo\":{\"url\":\"x.png\"}},"
+            + "\"jobLocation\":[{\"@type\":\"Place\",\"address\":{\"addressLocality\":\"Casablanca\","
+            + "\"addressCountry\":{\"@type\":\"Country\",\"name\":\"MA\"}}}],"
+            + "\"baseSalary\":{\"@type\":\"MonetaryAmount\",\"currency\":\"USD\",\"value\":{"
+            + "\"@type\":\"QuantitativeValue\",\"minValue\":40000,\"maxValue\":60000,\"unitText\":\"YEAR\"}},"
+            + "\"experienceRequirements\":{\"@type\":\"OccupationalExperienceRequirements\",\"monthsOfExperience\":36},"
+            + "\"url\":\"https://jobs.example.com/backend-engineer\"}]}</script>"
+            + "<script type=\"application/ld+json\">{ not json</script>"
+            + "</head><body></body></html>";
+
+    @Test
+    void testJsonLdPostingIsMappedToJobFields() {
+        List<Map<String, String>> postings = StructuredJobData.extract(Jsoup.parse(JSON_LD_PAGE));
+
+        assertEquals(1, postings.size());
+        Map<String, String> job = postings.get(0);
+        assertEquals("Backend Engineer", job.get("title"));
+        assertEquals("Acme", job.get("company"));
+        assertEquals("Casablanca, MA", job.get("location"));
+        assertEquals("Build payment APIs.", job.get("description"));
+        assertEquals("Full time, contractor", job.get("employmentType"));
+        assertEquals("Remote", job.get("workplaceType"));
+        assertEquals("2024-05-02", job.get("postedDate"));
+        assertEquals("2024-06-30", job.get("applicationDeadline"));
+        assertEquals("3 years of experience", job.get("experienceLevel"));
+        assertEquals("https://jobs.example.com/backend-engineer", job.get("url"));
+        assertFalse(job.containsKey("benefits"));
+    }
+
+    @Test
+    void testSalaryTextScansBackToTheStructuredValues() {
+        String salary = StructuredJobData.extractFirst(Jsoup.parse(JSON_LD_PAGE)).get("salary");
+        SalaryScanner.SalaryRange range = SalaryScanner.parse(salary);
+
+        assertNotNull(range);
+        assertEquals(40_000, range.getMin());
+        assertEquals(60_000, range.getMax());
+        assertEquals(SalaryScanner.Currency.USD, range.getCurrency());
+        assertEquals(SalaryScanner.Period.YEAR, range.getPeriod());
+    }
+
+    @Test
+    void testMicrodataCardIsRead() {
+        Document doc = Jsoup.parse("<div itemscope itemtype=\"https://schema.org/JobPosting\">"
+                + "<h2 itemprop=\"title\">Data Analyst</h2>"
+                + "<div itemprop=\"hiringOrganization\" itemscope itemtype=\"https://schema.org/Organization\">"
+                + "<span itemprop=\"name\">Globex</span></div>"
+                + "<span itemprop=\"jobLocation\" itemscope itemtype=\"https://schema.org/Place\">"
+                + "<span itemprop=\"address\" itemscope><span itemprop=\"addressLocality\">Rabat</span></span></span>"
+                + "<meta itemprop=\"datePosted\" content=\"2024-04-01\">"
+                + "<a itemprop=\"url\" href=\"/jobs/42\">Apply</a></div>", "https://board.example.com/");
+
+        Map<String, String> job = StructuredJobData.extractFirst(doc);
+
+        assertEquals("Data Analyst", job.get("title"));
+        assertEquals("Globex", job.get("company"));
+        assertEquals("Rabat", job.get("location"));
+        assertEquals("2024-04-01", job.get("postedDate"));
+        assertEquals("https://board.example.com/jobs/42", job.get("url"));
+        assertFalse(job.containsKey("description"));
+    }
+}
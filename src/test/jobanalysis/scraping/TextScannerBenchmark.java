@@ -0,0 +1,122 @@
+package jobanalysis.scraping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares SalaryScanner and ExperienceScanner with the SALARY_PATTERN / EXPERIENCE_PATTERN regex
+ * code they replaced in JSoupScraper, over a mix of salary fields and full job descriptions.
+ *
+ * Usage: TextScannerBenchmark
+ */
+public class TextScannerBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    // The patterns JSoupScraper used before the scanners, kept here as the baseline
+    private static final Pattern SALARY_PATTERN = Pattern.compile(
+            "\\$?(\\d{1,3}(?:,\\d{3})*(?:\\.\\d{2})?(?:k|K)?)\\s*-?\\s*" +
+                    "\\$?(\\d{1,3}(?:,\\d{3})*(?:\\.\\d{2})?(?:k|K)?)?\\s*" +
+                    "(?:per|a|/)?\\s*(?:year|yr|month|mo|hour|hr|annual|annually)?",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern EXPERIENCE_PATTERN = Pattern.compile(
+            "(\\d+(?:\\.\\d+)?)[+]?\\s*(?:-\\s*\\d+)?\\s*(?:year|yr)s?\\s*(?:of)?\\s*experience",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final String[] SALARIES = {
+            "$40k - $60k a year", "$55,000 - $70,000 per year", "80-120k€ brut par an",
+            "de 8 000 à 12 000 MAD par mois", "$22.50 an hour", "Competitive", "25€/h", "90K+"
+    };
+
+    public static void main(String[] args) {
+        List<String> salaries = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            salaries.add(SALARIES[i % SALARIES.length]);
+            descriptions.add(description(i));
+        }
+
+        run("salary fields", salaries, TextScannerBenchmark::regexSalary, TextScannerBenchmark::scannerSalary);
+        run("descriptions (experience)", descriptions,
+                TextScannerBenchmark::regexExperience, TextScannerBenchmark::scannerExperience);
+    }
+
+    private interface Extractor {
+        long apply(String text);
+    }
+
+    private static void run(String name, List<String> inputs, Extractor regex, Extractor scanner) {
+        long regexChecksum = 0;
+        long scannerChecksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            regexChecksum = extractAll(inputs, regex);
+            scannerChecksum = extractAll(inputs, scanner);
+        }
+
+        long regexNanos = 0;
+        long scannerNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            regexChecksum += extractAll(inputs, regex);
+            regexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            scannerChecksum += extractAll(inputs, scanner);
+            scannerNanos += System.nanoTime() - start;
+        }
+
+        System.out.println("Benchmarking " + name + " (" + inputs.size() + " texts)");
+        System.out.printf("  regex   : %8.3f ms/batch (checksum %d)%n", regexNanos / 1e6 / MEASURED_ROUNDS, regexChecksum);
+        System.out.printf("  scanner : %8.3f ms/batch (checksum %d)%n", scannerNanos / 1e6 / MEASURED_ROUNDS, scannerChecksum);
+        System.out.printf("  speed-up: %8.2fx%n", (double) regexNanos / scannerNanos);
+    }
+
+    private static long extractAll(List<String> inputs, Extractor extractor) {
+        long checksum = 0;
+        for (String input : inputs) {
+            checksum += extractor.apply(input);
+        }
+        return checksum;
+    }
+
+    private static long regexSalary(String text) {
+        Matcher matcher = SALARY_PATTERN.matcher(text);
+        if (matcher.find() && matcher.group(1) != null) {
+            String result = matcher.group(2) != null
+                    ? matcher.group(1) + " - " + matcher.group(2) + " per year"
+                    : matcher.group(1) + "+ per year";
+            return result.length();
+        }
+        return 0;
+    }
+
+    private static final ThreadLocal<SalaryScanner.SalaryRange> RANGE =
+            ThreadLocal.withInitial(SalaryScanner.SalaryRange::new);
+
+    private static long scannerSalary(String text) {
+        SalaryScanner.SalaryRange range = RANGE.get();
+        return SalaryScanner.scan(text, range) ? (long) range.getMax() : 0;
+    }
+
+    private static long regexExperience(String text) {
+        Matcher matcher = EXPERIENCE_PATTERN.matcher(text);
+        return matcher.find() ? (long) Double.parseDouble(matcher.group(1)) : 0;
+    }
+
+    private static long scannerExperience(String text) {
+        return (long) Math.max(0, ExperienceScanner.scanYears(text));
+    }
+
+    private static String description(int i) {
+        return "About the role. We are a team of " + (10 + i % 90) + " engineers building payment products in "
+                + (2010 + i % 14) + ". "
+                + "You will design services, review code and mentor colleagues across 3 offices. ".repeat(8)
+                + "Requirements: " + (1 + i % 9) + "+ years of experience with Java, Spring and SQL. "
+                + "Benefits include 25 days of paid leave and a yearly bonus.";
+    }
+}
@@ -3,6 +3,7 @@ package utils;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jobanalysis.models.JobListing;
+import jobanalysis.scraping.NearDuplicateIndex;
 
 import java.io.File;
 import java.io.IOException;
@@ -27,6 +28,21 @@ public class JobListingConverter {
      * @throws IOException If an error occurs during file operations
      */
     public static List<JobListing> convertAndCleanJobListings(String inputFilePath, String outputFilePath) throws IOException {
+        return convertAndCleanJobListings(inputFilePath, outputFilePath, false);
+    }
+
+    /**
+     * Same as convertAndCleanJobListings(inputFilePath, outputFilePath), optionally also dropping
+     * near-duplicates: the same offer scraped from several portals with slightly different text.
+     *
+     * @param inputFilePath Path to the raw JSON file
+     * @param outputFilePath Path to save the cleaned data
+     * @param mergeNearDuplicates Whether near-duplicates are dropped, not only exact repeats
+     * @return List of JobListing objects
+     * @throws IOException If an error occurs during file operations
+     */
+    public static List<JobListing> convertAndCleanJobListings(String inputFilePath, String outputFilePath,
+                                                              boolean mergeNearDuplicates) throws IOException {
         // Read the JSON file
         ObjectMapper mapper = new ObjectMapper();
         List<JobListing> rawListings = mapper.readValue(new File(inputFilePath), 
@@ -35,7 +51,7 @@ public class JobListingConverter {
         System.out.println("Read " + rawListings.size() + " raw job listings");
         
         // Clean and deduplicate listings
-        List<JobListing> cleanedListings = deduplicateAndClean(rawListings);
+        List<JobListing> cleanedListings = deduplicateAndClean(rawListings, mergeNearDuplicates);
         System.out.println("Processed to " + cleanedListings.size() + " cleaned job listings");
         
         // Save the cleaned data
@@ -47,32 +63,33 @@ public class JobListingConverter {
     
     /**
      * Deduplicate and clean job listings by removing duplicates and sanitizing text.
+     * Listings are compared after cleaning.
      *
      * @param listings Raw job listings
+     * @param mergeNearDuplicates Whether near-duplicates are dropped, not only exact repeats
      * @return Cleaned and deduplicated list of job listings
      */
-    private static List<JobListing> deduplicateAndClean(List<JobListing> listings) {
+    private static List<JobListing> deduplicateAndClean(List<JobListing> listings, boolean mergeNearDuplicates) {
         List<JobListing> cleaned = new ArrayList<>();
         Set<String> uniqueJobs = new HashSet<>();
+        NearDuplicateIndex nearDuplicates = mergeNearDuplicates ? new NearDuplicateIndex() : null;
         
         for (JobListing job : listings) {
+            // Clean the job listing
+            JobListing cleanedJob = cleanJobListing(job);
+            
             // Create a unique identifier for this job (title + company + first 100 chars of description)
-            String uniqueId = (job.getTitle() + "_" + job.getCompany() + "_" + 
-                              (job.getDescription() != null ? 
-                               job.getDescription().substring(0, Math.min(100, job.getDescription().length())) : ""))
-                              .toLowerCase();
+            String description = cleanedJob.getDescription() != null ? cleanedJob.getDescription() : "";
+            String uniqueId = (cleanedJob.getTitle() + "_" + cleanedJob.getCompany() + "_" +
+                               description.substring(0, Math.min(100, description.length()))).toLowerCase();
             
-            // Skip if we've seen this job before
-            if (uniqueJobs.contains(uniqueId)) {
+            // Skip if we've seen this job, or a near-duplicate of it, before
+            if (!uniqueJobs.add(uniqueId) || (nearDuplicates != null && !nearDuplicates.addIfNew(cleanedJob.getTitle(),
+                    cleanedJob.getCompany(), cleanedJob.getLocation(), cleanedJob.getUrl(), cleanedJob.getDescription()))) {
                 continue;
             }
             
-            // Clean the job listing
-            JobListing cleanedJob = cleanJobListing(job);
-            
-            // Add to our cleaned list and mark as seen
             cleaned.add(cleanedJob);
-            uniqueJobs.add(uniqueId);
         }
         
         return cleaned;